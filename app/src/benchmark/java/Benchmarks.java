@@ -0,0 +1,180 @@
+import com.sun.management.ThreadMXBean;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * Micro-benchmarks of the strategies and of the headless game loop.
+ * JMH cannot generate benchmarks for classes of the default package, so this harness runs
+ * each benchmark for a few timed iterations after a warm-up and reports its throughput and
+ * the bytes allocated per operation, measured on the benchmark thread like JMH's gc profiler.
+ * Run it with {@code ./gradlew benchmark}, or with {@code ./gradlew benchmark --args=scaling} to measure
+ * how decisions and games scale with the number of players, from {@link GameState#MIN_PLAYERS} to
+ * {@link GameState#MAX_PLAYERS}, each dealt the default number of cards of the table.
+ */
+public class Benchmarks {
+
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final long ITERATION_NANOS = 500_000_000L;
+    private static final int NB_STATES = 4096;
+    private static final long SEED = 30008;
+
+    private static final ThreadMXBean THREAD_MX_BEAN = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // Consumes the benchmark results so that the JIT cannot remove the benchmarked code
+    private static volatile long sink;
+
+    /**
+     * An operation to benchmark, returning a value to consume.
+     */
+    private interface Operation {
+        long run(int iteration);
+    }
+
+    public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("scaling")) {
+            measureScaling();
+            return;
+        }
+        GameState[] states = DecisionStates.generate(NB_STATES, new Random(SEED));
+        IPlayStrategy fundamental = PlayStrategyFactory.getInstance().getStrategy("Fundamental");
+        IPlayStrategy basic = PlayStrategyFactory.getInstance().getStrategy("Basic");
+        IPlayStrategy random = PlayStrategyFactory.getInstance().getStrategy("Random");
+        IPlayStrategy clever = PlayStrategyFactory.getInstance().getStrategy("Clever");
+        String[] lineup = {"random", "basic", "clever", "random"};
+
+        System.out.println("Benchmark,Mode,Score,Error,Units,Alloc(B/op)");
+        measure("FundamentalStrategy.selectCandidateCards", i -> fundamental.selectCandidateCards(states[i & NB_STATES - 1]));
+        measure("BasicStrategy.selectCard", i -> basic.selectCard(states[i & NB_STATES - 1]));
+        measure("RandomStrategy.selectCard", i -> random.selectCard(states[i & NB_STATES - 1]));
+        measure("CleverStrategy.selectCard", i -> clever.selectCard(states[i & NB_STATES - 1]));
+        measureBatches(states);
+        measure("HeadlessCountingUpGame.runApp", i -> {
+            HeadlessCountingUpGame game = new HeadlessCountingUpGame(lineup, new SplittableRandom(i));
+            game.runApp();
+            return game.getScore(0);
+        });
+    }
+
+    /**
+     * Measures the decisions of each strategy and the games for each number of players,
+     * and then reports the average length of the games.
+     */
+    private static void measureScaling() {
+        String[] strategyNames = {"Fundamental", "Basic", "Random", "Clever"};
+        String[] playerTypes = {"random", "basic", "clever"};
+        System.out.println("Benchmark,Mode,Score,Error,Units,Alloc(B/op)");
+        for (int nbPlayers = GameState.MIN_PLAYERS; nbPlayers <= GameState.MAX_PLAYERS; nbPlayers++) {
+            GameState[] states = DecisionStates.generate(NB_STATES, nbPlayers, new Random(SEED));
+            for (String strategyName : strategyNames) {
+                IPlayStrategy strategy = PlayStrategyFactory.getInstance().getStrategy(strategyName);
+                measure(strategyName + "Strategy.selectCard:players=" + nbPlayers,
+                        i -> strategy.selectCard(states[i & NB_STATES - 1]));
+            }
+            String[] lineup = lineup(playerTypes, nbPlayers);
+            measure("HeadlessCountingUpGame.runApp:players=" + nbPlayers, i -> {
+                HeadlessCountingUpGame game = new HeadlessCountingUpGame(lineup, new SplittableRandom(i));
+                game.runApp();
+                return game.getScore(0);
+            });
+        }
+
+        System.out.println();
+        System.out.println("Players,StartCards,Turns/game,Rounds/game,Skips/turn");
+        GameMetrics metrics = GameMetrics.getInstance();
+        metrics.setEnabled(true);
+        for (int nbPlayers = GameState.MIN_PLAYERS; nbPlayers <= GameState.MAX_PLAYERS; nbPlayers++) {
+            GameMetrics.Snapshot before = metrics.snapshot();
+            new TournamentRunner(lineup(playerTypes, nbPlayers)).run(10_000, SEED);
+            GameMetrics.Snapshot after = metrics.snapshot();
+            double nbGames = after.getNbGames() - before.getNbGames();
+            double nbTurns = after.getNbTurns() - before.getNbTurns();
+            System.out.printf("%d,%d,%.1f,%.2f,%.3f%n", nbPlayers, Dealer.defaultNbStartCards(nbPlayers),
+                    nbTurns / nbGames, (after.getNbRounds() - before.getNbRounds()) / nbGames,
+                    (after.getNbSkips() - before.getNbSkips()) / nbTurns);
+        }
+    }
+
+    // Seats the player types in turn around a table
+    private static String[] lineup(String[] playerTypes, int nbPlayers) {
+        String[] lineup = new String[nbPlayers];
+        for (int i = 0; i < nbPlayers; i++) {
+            lineup[i] = playerTypes[i % playerTypes.length];
+        }
+        return lineup;
+    }
+
+    /**
+     * Measures the strategies deciding every state in one batch, reported per decision so that the
+     * throughput compares with the decisions one at a time.
+     */
+    private static void measureBatches(GameState[] states) {
+        DecisionBatch batch = new DecisionBatch(states.length);
+        for (GameState state : states) {
+            batch.add(state);
+        }
+        int[] moves = new int[states.length];
+        FundamentalStrategy fundamental = new FundamentalStrategy();
+        BasicStrategy basic = new BasicStrategy();
+        CleverStrategy clever = new CleverStrategy();
+        measure("FundamentalStrategy.selectCards:batch", states.length, i -> {
+            fundamental.selectCards(batch, moves);
+            return moves[i & NB_STATES - 1];
+        });
+        measure("BasicStrategy.selectCards:batch", states.length, i -> {
+            basic.selectCards(batch, moves);
+            return moves[i & NB_STATES - 1];
+        });
+        measure("CleverStrategy.selectCards:batch", states.length, i -> {
+            clever.selectCards(batch, moves);
+            return moves[i & NB_STATES - 1];
+        });
+    }
+
+    private static void measure(String name, Operation operation) {
+        measure(name, 1, operation);
+    }
+
+    // Measures an operation made of a number of decisions, reporting the throughput and allocation per decision
+    private static void measure(String name, int nbDecisions, Operation operation) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            runIteration(operation);
+        }
+        double[] throughputs = new double[MEASUREMENT_ITERATIONS];
+        double totalAllocated = 0;
+        double totalOperations = 0;
+        for (int i = 0; i < MEASUREMENT_ITERATIONS; i++) {
+            long allocatedBefore = THREAD_MX_BEAN.getCurrentThreadAllocatedBytes();
+            long startTime = System.nanoTime();
+            long operations = runIteration(operation);
+            long elapsed = System.nanoTime() - startTime;
+            totalAllocated += THREAD_MX_BEAN.getCurrentThreadAllocatedBytes() - allocatedBefore;
+            totalOperations += (double) operations * nbDecisions;
+            throughputs[i] = (double) operations * nbDecisions * 1e9 / elapsed;
+        }
+
+        double mean = 0;
+        for (double throughput : throughputs) mean += throughput;
+        mean /= MEASUREMENT_ITERATIONS;
+        double variance = 0;
+        for (double throughput : throughputs) variance += (throughput - mean) * (throughput - mean);
+        double error = Math.sqrt(variance / (MEASUREMENT_ITERATIONS - 1));
+        System.out.printf("%s,thrpt,%.1f,%.1f,ops/s,%.1f%n", name, mean, error, totalAllocated / totalOperations);
+    }
+
+    private static long runIteration(Operation operation) {
+        long operations = 0;
+        long result = 0;
+        long deadline = System.nanoTime() + ITERATION_NANOS;
+        do {
+            // check the clock every 1024 operations only
+            for (int i = 0; i < 1024; i++) {
+                result += operation.run((int) operations++);
+            }
+        } while (System.nanoTime() < deadline);
+        sink = result;
+        return operations;
+    }
+}
@@ -0,0 +1,86 @@
+import java.util.Random;
+
+/**
+ * Generates decision states spread over all the phases of a game, by dealing random hands
+ * and playing random valid cards for a random number of turns.
+ */
+public class DecisionStates {
+
+    private DecisionStates() {
+
+    }
+
+    /**
+     * Generates game states of four players where the current player has to decide which card to play.
+     *
+     * @param nbStates The number of states to generate.
+     * @param random The random generator used to deal and play.
+     * @return The game states.
+     */
+    public static GameState[] generate(int nbStates, Random random) {
+        return generate(nbStates, GameState.NB_PLAYERS, random);
+    }
+
+    /**
+     * Generates game states where the current player has to decide which card to play, each player
+     * being dealt the default number of cards of the table.
+     *
+     * @param nbStates The number of states to generate.
+     * @param nbPlayers The number of players of the games.
+     * @param random The random generator used to deal and play.
+     * @return The game states.
+     */
+    public static GameState[] generate(int nbStates, int nbPlayers, Random random) {
+        GameState[] states = new GameState[nbStates];
+        for (int i = 0; i < nbStates; i++) {
+            do {
+                states[i] = generateState(nbPlayers, random);
+            } while (states[i] == null);
+        }
+        return states;
+    }
+
+    /**
+     * Generates one game state, or null if the random plays ended the game.
+     */
+    private static GameState generateState(int nbPlayers, Random random) {
+        GameState state = new GameState(nbPlayers);
+        int nbDealtCards = nbPlayers * Dealer.defaultNbStartCards(nbPlayers);
+        int[] deck = new int[CardBits.NB_CARDS];
+        for (int card = 0; card < CardBits.NB_CARDS; card++) {
+            deck[card] = card;
+        }
+        for (int card = CardBits.NB_CARDS - 1; card > 0; card--) {
+            int other = random.nextInt(card + 1);
+            int swapped = deck[card];
+            deck[card] = deck[other];
+            deck[other] = swapped;
+        }
+        for (int card = 0; card < nbDealtCards; card++) {
+            state.deal(card % nbPlayers, deck[card]);
+        }
+
+        int player = 0;
+        int skipCount = 0;
+        int nbTurns = random.nextInt(nbDealtCards);
+        for (int turn = 0; turn < nbTurns; turn++) {
+            long validCards = CardBits.validCards(state.getHand(player), state.getLastCard());
+            if (validCards == 0) {
+                skipCount++;
+            } else {
+                skipCount = 0;
+                state.play(player, CardBits.nthCard(validCards, random.nextInt(CardBits.size(validCards))));
+                if (state.getHand(player) == 0) {
+                    return null;
+                }
+            }
+            if (skipCount == nbPlayers - 1) {
+                skipCount = 0;
+                state.endRound((player + 1) % nbPlayers);
+            }
+            player = (player + 1) % nbPlayers;
+        }
+        state.setCurrentPlayer(player);
+        return state;
+    }
+}
@@ -1,5 +1,7 @@
 import ch.aplu.jcardgame.Hand;
 
+import java.util.SplittableRandom;
+
 /**
  * Represents a basic computer player that follows a basic playing strategy.
  * This player uses the "Basic" strategy defined in the PlayStrategyFactory.
@@ -15,4 +17,14 @@ public class BasicPlayer extends ComputerPlayer {
         // Initialize the player with the "Basic" strategy from the PlayStrategyFactory.
         super(hand, PlayStrategyFactory.getInstance().getStrategy("Basic"));
     }
+
+    /**
+     * Constructs a new BasicPlayer with the given hand of cards, breaking ties with the given generator.
+     *
+     * @param hand The hand of cards assigned to this player.
+     * @param random The random generator of the player.
+     */
+    public BasicPlayer(Hand hand, SplittableRandom random) {
+        super(hand, PlayStrategyFactory.getInstance().getStrategy("Basic", random));
+    }
 }
@@ -1,9 +1,4 @@
-import ch.aplu.jcardgame.Card;
-import ch.aplu.jcardgame.Hand;
-
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * Represents a basic playing strategy where the player selects the lowest rank card(s) from their hand.
@@ -12,28 +7,35 @@ import java.util.Random;
 public class BasicStrategy extends CompositePlayStrategy {
 
     // Random generator for selecting among multiple lowest rank cards.
-    private final Random RANDOM = new Random();
+    private final SplittableRandom RANDOM;
+
+    /**
+     * Constructs a basic strategy with an unseeded random generator.
+     */
+    public BasicStrategy() {
+        this(new SplittableRandom());
+    }
 
     /**
-     * Finds all the cards with the lowest rank from the given list of cards.
+     * Constructs a basic strategy breaking ties with the given generator, so that its games can be
+     * reproduced from the seed of the generator. The generator must not be shared with another thread.
      *
-     * @param cards List of cards to search.
-     * @return A list of cards with the lowest rank.
+     * @param random The random generator of the player.
      */
-    private ArrayList<Card> findLowestCardsList(ArrayList<Card> cards) {
-        ArrayList<Card> lowest = new ArrayList<>();
-        Rank lowestRank = null;
-        for (Card c : cards) {
-            if (lowestRank == null || Rank.valueOf(c.getRank().name()).getRankCardValue() < lowestRank.getRankCardValue()) {
-                lowestRank = Rank.valueOf(c.getRank().name());
-            }
-        }
-        for (Card c : cards) {
-            if (Rank.valueOf(c.getRank().name()).equals(lowestRank)) {
-                lowest.add(c);
-            }
-        }
-        return lowest;
+    public BasicStrategy(SplittableRandom random) {
+        RANDOM = random;
+    }
+
+    /**
+     * Selects a card with the lowest rank from the given set of cards.
+     * If there are multiple cards with the lowest rank, one is chosen randomly.
+     *
+     * @param cards The non-empty set of cards to search.
+     * @return The id of the selected card.
+     */
+    private int selectLowestCard(long cards) {
+        long lowestCards = cards & CardBits.rankMask(CardBits.lowestRankValue(cards));
+        return CardBits.nthCard(lowestCards, RANDOM.nextInt(CardBits.size(lowestCards)));
     }
 
     /**
@@ -41,24 +43,29 @@ public class BasicStrategy extends CompositePlayStrategy {
      * If there are valid cards to play, selects the lowest rank card(s).
      * If there are multiple cards with the same lowest rank, one is chosen randomly.
      *
-     * @param hand The player's current hand.
-     * @param playedCards The cards that have already been played in the current round.
-     * @return A list containing the selected card to play.
+     * @param state The state of the game.
+     * @return The id of the selected card, or {@link #NO_MOVE} if no card is valid (player must pass).
      */
     @Override
-    public ArrayList<Card> getCardsToPlay(Hand hand, ArrayList<Card> playedCards) {
-        ArrayList<Card> validCardsToPlay = strategies.get(0).getCardsToPlay(hand, playedCards);
+    public int selectCard(GameState state) {
+        long validCards = strategies.get(0).selectCandidateCards(state);
+        return validCards == 0 ? NO_MOVE : selectLowestCard(validCards);
+    }
 
-        // If there are valid cards, select the lowest rank or randomly select among lowest ranks
-        if (!validCardsToPlay.isEmpty()) {
-            List<Card> lowestRankCards = findLowestCardsList(validCardsToPlay);
-            Card cardToPlay = lowestRankCards.get(RANDOM.nextInt(lowestRankCards.size()));
-            ArrayList<Card> selectedCard = new ArrayList<>();
-            selectedCard.add(cardToPlay);
-            return selectedCard;
+    /**
+     * Selects a card with the lowest rank for each decision of a batch, breaking the ties in the order
+     * of the batch, as if each decision was asked in turn with {@link #selectCard(GameState)}.
+     *
+     * @param batch The decisions.
+     * @param moves Filled with the id of the selected card of each decision, or {@link #NO_MOVE}
+     *              if no card is valid, from index 0 to the size of the batch.
+     */
+    public void selectCards(DecisionBatch batch, int[] moves) {
+        long[] hands = batch.hands;
+        int[] lastCards = batch.lastCards;
+        for (int i = 0, size = batch.size(); i < size; i++) {
+            long validCards = CardBits.validCards(hands[i], lastCards[i]);
+            moves[i] = validCards == 0 ? NO_MOVE : selectLowestCard(validCards);
         }
-
-        // If no valid cards, return an empty list (player must pass)
-        return new ArrayList<>();
     }
 }
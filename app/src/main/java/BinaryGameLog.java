@@ -0,0 +1,210 @@
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Writes the events of games as a compact binary stream to a channel, such as a FileChannel.
+ * Each move takes a single byte, (player * 53 + card id), 52 standing for a skip; the other events
+ * start with a tag byte: the start of a game is followed by the four hands as 8-byte bitmasks,
+ * the end of a round by the four scores as 2-byte integers, and the end of a game by the four
+ * final scores and a byte holding the bitmask of the winners. The start of a round has no payload.
+ * Events go through a fixed-size buffer written to the channel whenever it is full, so any number
+ * of games can be logged one after the other. A log is not thread safe.
+ * The format holds games of {@link GameState#NB_PLAYERS} players only, the move bytes leaving no room
+ * for more players.
+ */
+public class BinaryGameLog implements GameEventSink, Flushable, Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    // Code of a skip in the move bytes, next to the card ids
+    private static final int SKIP_CODE = CardBits.NB_CARDS;
+    private static final int NB_MOVE_CODES = CardBits.NB_CARDS + 1;
+    private static final byte GAME_START = (byte) 0xF0;
+    private static final byte ROUND_START = (byte) 0xF1;
+    private static final byte ROUND_END = (byte) 0xF2;
+    private static final byte GAME_END = (byte) 0xF3;
+    // Largest event: the start of a game
+    private static final int MAX_EVENT_SIZE = 1 + GameState.NB_PLAYERS * Long.BYTES;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    /**
+     * Constructs a log writing to the given channel.
+     *
+     * @param channel The channel receiving the log, closed with the log.
+     */
+    public BinaryGameLog(WritableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    @Override
+    public void gameStarted(long[] hands) {
+        if (hands.length != GameState.NB_PLAYERS) {
+            throw new IllegalArgumentException("A binary log holds games of " + GameState.NB_PLAYERS + " players");
+        }
+        reserve();
+        buffer.put(GAME_START);
+        for (long hand : hands) {
+            buffer.putLong(hand);
+        }
+    }
+
+    @Override
+    public void roundStarted(int roundNumber) {
+        reserve();
+        buffer.put(ROUND_START);
+    }
+
+    @Override
+    public void cardPlayed(int player, int card) {
+        reserve();
+        buffer.put((byte) (player * NB_MOVE_CODES + card));
+    }
+
+    @Override
+    public void skipped(int player) {
+        reserve();
+        buffer.put((byte) (player * NB_MOVE_CODES + SKIP_CODE));
+    }
+
+    @Override
+    public void roundEnded(int[] scores) {
+        reserve();
+        buffer.put(ROUND_END);
+        putScores(scores);
+    }
+
+    @Override
+    public void gameEnded(int[] scores, int winners) {
+        reserve();
+        buffer.put(GAME_END);
+        putScores(scores);
+        buffer.put((byte) winners);
+    }
+
+    private void putScores(int[] scores) {
+        for (int score : scores) {
+            buffer.putShort((short) score);
+        }
+    }
+
+    private void reserve() {
+        if (buffer.remaining() < MAX_EVENT_SIZE) {
+            try {
+                flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Writes the buffered events to the channel.
+     *
+     * @throws IOException If the channel cannot be written.
+     */
+    @Override
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Writes the buffered events and closes the channel.
+     *
+     * @throws IOException If the channel cannot be written or closed.
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+
+    /**
+     * Reads a binary log and sends its events to a sink, for example a {@link TextGameLog} to convert it to text.
+     *
+     * @param channel The channel holding the log, read to its end.
+     * @param sink The sink receiving the events of the log.
+     * @throws IOException If the channel cannot be read or the log is truncated.
+     */
+    public static void read(ReadableByteChannel channel, GameEventSink sink) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        buffer.flip();
+        long[] hands = new long[GameState.NB_PLAYERS];
+        int[] scores = new int[GameState.NB_PLAYERS];
+        int roundNumber = 0;
+        while (fill(channel, buffer, 1)) {
+            byte tag = buffer.get();
+            if (tag == GAME_START) {
+                require(channel, buffer, hands.length * Long.BYTES);
+                for (int i = 0; i < hands.length; i++) {
+                    hands[i] = buffer.getLong();
+                }
+                roundNumber = 0;
+                sink.gameStarted(hands);
+            } else if (tag == ROUND_START) {
+                sink.roundStarted(++roundNumber);
+            } else if (tag == ROUND_END) {
+                require(channel, buffer, scores.length * Short.BYTES);
+                getScores(buffer, scores);
+                sink.roundEnded(scores);
+            } else if (tag == GAME_END) {
+                require(channel, buffer, scores.length * Short.BYTES + 1);
+                getScores(buffer, scores);
+                sink.gameEnded(scores, buffer.get() & 0xFF);
+            } else {
+                int code = tag & 0xFF;
+                int player = code / NB_MOVE_CODES;
+                int card = code % NB_MOVE_CODES;
+                if (card == SKIP_CODE) {
+                    sink.skipped(player);
+                } else {
+                    sink.cardPlayed(player, card);
+                }
+            }
+        }
+    }
+
+    private static void getScores(ByteBuffer buffer, int[] scores) {
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = buffer.getShort();
+        }
+    }
+
+    private static void require(ReadableByteChannel channel, ByteBuffer buffer, int size) throws IOException {
+        if (!fill(channel, buffer, size)) {
+            throw new EOFException("Truncated game log");
+        }
+    }
+
+    /**
+     * Reads from the channel until the buffer holds at least the given number of bytes.
+     *
+     * @return false if the channel ended before.
+     */
+    private static boolean fill(ReadableByteChannel channel, ByteBuffer buffer, int size) throws IOException {
+        if (buffer.remaining() >= size) {
+            return true;
+        }
+        buffer.compact();
+        try {
+            while (buffer.position() < size) {
+                if (channel.read(buffer) < 0) {
+                    return false;
+                }
+            }
+        } finally {
+            buffer.flip();
+        }
+        return true;
+    }
+}
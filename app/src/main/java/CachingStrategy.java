@@ -0,0 +1,64 @@
+/**
+ * Decorates a strategy with a {@link DecisionCache}, so that a state already decided is not decided again.
+ * The cache may be shared by the players of many games running on several threads. Caching suits
+ * strategies which take the same decision every time they meet a state, such as the search strategies
+ * with a large budget; a cached random strategy keeps its first choice for each state.
+ */
+public class CachingStrategy extends CompositePlayStrategy {
+
+    private final IPlayStrategy strategy;
+    private final DecisionCache cache;
+
+    /**
+     * Constructs a strategy deciding with the given strategy on a cache miss.
+     *
+     * @param strategy The strategy to cache.
+     * @param cache The cache of the decisions, possibly shared with other players.
+     */
+    public CachingStrategy(IPlayStrategy strategy, DecisionCache cache) {
+        this.strategy = strategy;
+        this.cache = cache;
+    }
+
+    /**
+     * Retrieves the cache of the decisions.
+     *
+     * @return The cache.
+     */
+    public DecisionCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Determines the card to play from the cache, or with the cached strategy on a miss.
+     *
+     * @param state The state of the game.
+     * @return The id of the selected card, or {@link #NO_MOVE} if the player skips.
+     */
+    @Override
+    public int selectCard(GameState state) {
+        int card = cache.get(state);
+        if (card == DecisionCache.MISS) {
+            card = strategy.selectCard(state);
+            cache.put(state, card);
+        }
+        return card;
+    }
+
+    /**
+     * Determines the card to play from the cache, or with the cached strategy before the deadline on a miss.
+     *
+     * @param state The state of the game.
+     * @param deadline The {@link System#nanoTime()} by which the move is needed.
+     * @return The id of the selected card, or {@link #NO_MOVE} if the player skips.
+     */
+    @Override
+    public int selectCard(GameState state, long deadline) {
+        int card = cache.get(state);
+        if (card == DecisionCache.MISS) {
+            card = strategy.selectCard(state, deadline);
+            cache.put(state, card);
+        }
+        return card;
+    }
+}
@@ -0,0 +1,374 @@
+import ch.aplu.jcardgame.Card;
+
+import java.util.List;
+
+/**
+ * Primitive card model used by the game rules and the strategies.
+ * A card is an int id in [0, 52) computed as suit index * 13 + (rank card value - 1),
+ * so the ranks of one suit occupy 13 consecutive ids in ascending rank order.
+ * A set of cards, such as a hand, is a single long bitmask over these ids, which lets
+ * the rules be evaluated with a few mask operations and without any allocation.
+ */
+public final class CardBits {
+
+    /** Number of cards in the deck. */
+    public static final int NB_CARDS = 52;
+
+    /** Number of ranks in each suit. */
+    public static final int NB_RANKS = 13;
+
+    /** Mask of every card of the deck. */
+    public static final long ALL_CARDS = (1L << NB_CARDS) - 1;
+
+    /** Id used when no card is played, i.e. the player skips. */
+    public static final int NO_CARD = -1;
+
+    /** Id of the Ace of Clubs, which must lead the first round. */
+    public static final int ACE_OF_CLUBS = cardId(Suit.CLUBS, Rank.ACE);
+
+    private static final Suit[] SUITS = Suit.values();
+
+    // Ranks indexed by rank card value - 1
+    private static final Rank[] RANKS_BY_VALUE = new Rank[NB_RANKS];
+
+    // Mask of the 13 bits of one suit, which is also the mask of a set of ranks
+    private static final long SUIT_BITS = (1L << NB_RANKS) - 1;
+
+    // Ace of each suit, i.e. the mask of the lowest rank
+    private static final long ACES = 1L | 1L << NB_RANKS | 1L << 2 * NB_RANKS | 1L << 3 * NB_RANKS;
+
+    // Cards which can be played on top of each card, indexed by card id
+    private static final long[] PLAYABLE_AFTER = new long[NB_CARDS];
+
+    // Score value of each card, indexed by card id
+    private static final int[] SCORE_VALUES = new int[NB_CARDS];
+
+    // Cards whose rank card value - 1 has bit k set, indexed by k, to sum rank values with a few bit counts
+    private static final long[] RANK_BITS = new long[Integer.SIZE - Integer.numberOfLeadingZeros(NB_RANKS - 1)];
+
+    static {
+        for (Rank rank : Rank.values()) {
+            RANKS_BY_VALUE[rank.getRankCardValue() - 1] = rank;
+        }
+        for (int card = 0; card < NB_CARDS; card++) {
+            // cards above the card within its suit, and the other cards of its rank
+            long higherInSuit = -(bit(card) << 1) & suitMask(suitIndex(card));
+            long sameRank = rankMask(rankValue(card)) & ~bit(card);
+            PLAYABLE_AFTER[card] = higherInSuit | sameRank;
+            SCORE_VALUES[card] = rankOf(card).getScoreCardValue();
+            for (int k = 0; k < RANK_BITS.length; k++) {
+                if ((rankValue(card) - 1 & 1 << k) != 0) {
+                    RANK_BITS[k] |= bit(card);
+                }
+            }
+        }
+    }
+
+    private CardBits() {
+
+    }
+
+    /**
+     * Returns the id of the card with the given suit and rank.
+     *
+     * @param suit The suit of the card.
+     * @param rank The rank of the card.
+     * @return The card id.
+     */
+    public static int cardId(Suit suit, Rank rank) {
+        return suit.ordinal() * NB_RANKS + rank.getRankCardValue() - 1;
+    }
+
+    /**
+     * Returns the id of a jcardgame card.
+     *
+     * @param card The card.
+     * @return The card id.
+     */
+    public static int cardId(Card card) {
+        return cardId((Suit) card.getSuit(), (Rank) card.getRank());
+    }
+
+    /**
+     * Returns the set of cards of a list of jcardgame cards.
+     *
+     * @param cards The list of cards.
+     * @return The bitmask of the cards.
+     */
+    public static long toMask(List<Card> cards) {
+        long mask = 0;
+        for (Card card : cards) {
+            mask |= bit(cardId(card));
+        }
+        return mask;
+    }
+
+    /**
+     * Finds the jcardgame card with the given id in a list of cards.
+     *
+     * @param cards The list of cards.
+     * @param card The card id.
+     * @return The card with this id, or null if the list does not hold it.
+     */
+    public static Card findCard(List<Card> cards, int card) {
+        for (Card candidate : cards) {
+            if (cardId(candidate) == card) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the suit index (the {@link Suit} ordinal) of a card.
+     *
+     * @param card The card id.
+     * @return The suit index.
+     */
+    public static int suitIndex(int card) {
+        return card / NB_RANKS;
+    }
+
+    /**
+     * Returns the rank card value of a card, from 1 (ace) to 13 (king).
+     *
+     * @param card The card id.
+     * @return The rank card value.
+     */
+    public static int rankValue(int card) {
+        return card % NB_RANKS + 1;
+    }
+
+    /**
+     * Returns the suit of a card.
+     *
+     * @param card The card id.
+     * @return The suit.
+     */
+    public static Suit suitOf(int card) {
+        return SUITS[suitIndex(card)];
+    }
+
+    /**
+     * Returns the rank of a card.
+     *
+     * @param card The card id.
+     * @return The rank.
+     */
+    public static Rank rankOf(int card) {
+        return RANKS_BY_VALUE[card % NB_RANKS];
+    }
+
+    /**
+     * Returns the rank with the given rank card value.
+     *
+     * @param rankValue The rank card value, from 1 to 13.
+     * @return The rank.
+     */
+    public static Rank rankWithValue(int rankValue) {
+        return RANKS_BY_VALUE[rankValue - 1];
+    }
+
+    /**
+     * Returns the score value of a card.
+     *
+     * @param card The card id.
+     * @return The score value of the card's rank.
+     */
+    public static int scoreValue(int card) {
+        return SCORE_VALUES[card];
+    }
+
+    /**
+     * Returns the total score value of a set of cards.
+     *
+     * @param cards The set of cards.
+     * @return The sum of the score values of the cards.
+     */
+    public static int scoreOf(long cards) {
+        int score = 0;
+        for (long rest = cards; rest != 0; rest &= rest - 1) {
+            score += SCORE_VALUES[Long.numberOfTrailingZeros(rest)];
+        }
+        return score;
+    }
+
+    /**
+     * Returns the total rank card value of a set of cards, without visiting the cards one by one:
+     * the rank values less one are summed bit by bit, with one bit count for each of their 4 bits.
+     *
+     * @param cards The set of cards.
+     * @return The sum of the rank card values of the cards.
+     */
+    public static int rankTotal(long cards) {
+        int total = Long.bitCount(cards);
+        for (int k = 0; k < RANK_BITS.length; k++) {
+            total += Long.bitCount(cards & RANK_BITS[k]) << k;
+        }
+        return total;
+    }
+
+    /**
+     * Returns the bitmask holding only the given card.
+     *
+     * @param card The card id.
+     * @return The single-card bitmask.
+     */
+    public static long bit(int card) {
+        return 1L << card;
+    }
+
+    /**
+     * Checks whether a set of cards holds the given card.
+     *
+     * @param cards The set of cards.
+     * @param card The card id.
+     * @return true if the card is in the set, false otherwise.
+     */
+    public static boolean contains(long cards, int card) {
+        return (cards & bit(card)) != 0;
+    }
+
+    /**
+     * Returns the number of cards in a set.
+     *
+     * @param cards The set of cards.
+     * @return The number of cards.
+     */
+    public static int size(long cards) {
+        return Long.bitCount(cards);
+    }
+
+    /**
+     * Returns all the cards of a suit.
+     *
+     * @param suitIndex The suit index.
+     * @return The bitmask of the 13 cards of the suit.
+     */
+    public static long suitMask(int suitIndex) {
+        return SUIT_BITS << suitIndex * NB_RANKS;
+    }
+
+    /**
+     * Returns all the cards of a rank.
+     *
+     * @param rankValue The rank card value, from 1 to 13.
+     * @return The bitmask of the 4 cards of the rank.
+     */
+    public static long rankMask(int rankValue) {
+        return ACES << rankValue - 1;
+    }
+
+    /**
+     * Returns the ranks present in a set of cards, as a 13-bit mask where bit (rank card value - 1) is set
+     * if at least one card of that rank is in the set.
+     *
+     * @param cards The set of cards.
+     * @return The set of ranks.
+     */
+    public static int rankSet(long cards) {
+        return (int) ((cards | cards >>> NB_RANKS | cards >>> 2 * NB_RANKS | cards >>> 3 * NB_RANKS) & SUIT_BITS);
+    }
+
+    /**
+     * Returns the lowest rank card value of a non-empty set of cards.
+     *
+     * @param cards The set of cards.
+     * @return The lowest rank card value.
+     */
+    public static int lowestRankValue(long cards) {
+        return Integer.numberOfTrailingZeros(rankSet(cards)) + 1;
+    }
+
+    /**
+     * Returns the highest rank card value of a non-empty set of cards.
+     *
+     * @param cards The set of cards.
+     * @return The highest rank card value.
+     */
+    public static int highestRankValue(long cards) {
+        return Integer.SIZE - Integer.numberOfLeadingZeros(rankSet(cards));
+    }
+
+    /**
+     * Returns the lowest card id of a non-empty set of cards.
+     *
+     * @param cards The set of cards.
+     * @return The lowest card id.
+     */
+    public static int firstCard(long cards) {
+        return Long.numberOfTrailingZeros(cards);
+    }
+
+    /**
+     * Returns the n-th lowest card id of a set of cards.
+     *
+     * @param cards The set of cards.
+     * @param n The zero-based position of the card, lower than the size of the set.
+     * @return The card id.
+     */
+    public static int nthCard(long cards, int n) {
+        for (int i = 0; i < n; i++) {
+            cards &= cards - 1;
+        }
+        return Long.numberOfTrailingZeros(cards);
+    }
+
+    /**
+     * Determines the cards of a hand that can be played on top of the last card of the trick.
+     * When the trick is empty the Ace of Clubs must be played if held, otherwise any card can lead.
+     * Otherwise a card must have the same suit and a higher rank, or the same rank and another suit,
+     * which is looked up in a table precomputed for each of the 52 possible last cards.
+     *
+     * @param hand The cards in the player's hand.
+     * @param lastCard The last card played in the current round, or {@link #NO_CARD} if none.
+     * @return The set of valid cards.
+     */
+    public static long validCards(long hand, int lastCard) {
+        if (lastCard == NO_CARD) {
+            long aceOfClubs = hand & bit(ACE_OF_CLUBS);
+            return aceOfClubs != 0 ? aceOfClubs : hand;
+        }
+        return hand & PLAYABLE_AFTER[lastCard];
+    }
+
+    /**
+     * Returns the cards which can be played on top of a card, whatever the hand.
+     *
+     * @param lastCard The last card played in the current round.
+     * @return The bitmask of the cards with the same suit and a higher rank, or the same rank and another suit.
+     */
+    public static long playableAfter(int lastCard) {
+        return PLAYABLE_AFTER[lastCard];
+    }
+
+    /**
+     * Returns the log name of a card, e.g. "1C" for the Ace of Clubs.
+     *
+     * @param card The card id.
+     * @return The log name of the card.
+     */
+    public static String toLog(int card) {
+        return rankOf(card).getRankCardLog() + suitOf(card).getSuitShortHand();
+    }
+
+    /**
+     * Parses a card name as written in the properties files, e.g. "01C" or "13S".
+     * Unknown ranks default to the ace and unknown suits to clubs, as in {@link CountingUpGame}.
+     *
+     * @param cardName The card name.
+     * @return The card id.
+     */
+    public static int fromLog(String cardName) {
+        int rankValue = Integer.parseInt(cardName.substring(0, cardName.length() - 1));
+        String suitString = cardName.substring(cardName.length() - 1);
+        Rank rank = rankValue >= 1 && rankValue <= NB_RANKS ? rankWithValue(rankValue) : Rank.ACE;
+        Suit suit = Suit.CLUBS;
+        for (Suit candidate : SUITS) {
+            if (candidate.getSuitShortHand().equals(suitString)) {
+                suit = candidate;
+            }
+        }
+        return cardId(suit, rank);
+    }
+}
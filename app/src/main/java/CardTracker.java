@@ -0,0 +1,123 @@
+import ch.aplu.jcardgame.Card;
+
+/**
+ * Tracks the cards that have been played during one game.
+ * Each game owns its own tracker and passes it to the strategies of its players,
+ * so that games running at the same time, or several players of the same game, never share it.
+ */
+public final class CardTracker {
+
+    // Number of cards of each rank in the deck
+    private static final int CARDS_PER_RANK = 4;
+
+    // Number of cards of each rank not played yet, indexed by rank card value - 1
+    private final int[] remainingByRank = new int[CardBits.NB_RANKS];
+    // Sum of the rank card values of the cards not played yet
+    private int remainingRankTotal;
+    // Ranks with cards not played yet, bit (rank card value - 1) being set for each of them
+    private int remainingRanks;
+    // Cards played so far, as a bitmask of card ids
+    private long playedCards;
+
+    /**
+     * Constructs a tracker for a game where no card has been played yet.
+     */
+    public CardTracker() {
+        reset();
+    }
+
+    /**
+     * Forgets every card played, as at the start of a new game.
+     */
+    public void reset() {
+        remainingRankTotal = 0;
+        for (int i = 0; i < CardBits.NB_RANKS; i++) {
+            remainingByRank[i] = CARDS_PER_RANK;
+            remainingRankTotal += (i + 1) * CARDS_PER_RANK;
+        }
+        remainingRanks = (1 << CardBits.NB_RANKS) - 1;
+        playedCards = 0;
+    }
+
+    /**
+     * Makes this tracker a copy of another tracker.
+     *
+     * @param other The tracker to copy.
+     */
+    public void copyFrom(CardTracker other) {
+        System.arraycopy(other.remainingByRank, 0, remainingByRank, 0, CardBits.NB_RANKS);
+        remainingRankTotal = other.remainingRankTotal;
+        remainingRanks = other.remainingRanks;
+        playedCards = other.playedCards;
+    }
+
+    /**
+     * Records that a card has been played.
+     *
+     * @param card The card that was played.
+     */
+    public void cardPlayed(Card card) {
+        cardPlayed(CardBits.cardId(card));
+    }
+
+    /**
+     * Records that a card has been played.
+     *
+     * @param card The id of the card that was played.
+     */
+    public void cardPlayed(int card) {
+        playedCards |= CardBits.bit(card);
+        int rankValue = CardBits.rankValue(card);
+        if (--remainingByRank[rankValue - 1] == 0) {
+            remainingRanks &= ~(1 << rankValue - 1);
+        }
+        remainingRankTotal -= rankValue;
+    }
+
+    /**
+     * Retrieves the number of cards of a rank that have not been played yet.
+     *
+     * @param rank The rank.
+     * @return The number of remaining cards of this rank.
+     */
+    public int getRemainingCount(Rank rank) {
+        return remainingByRank[rank.getRankCardValue() - 1];
+    }
+
+    /**
+     * Retrieves the number of cards of a rank that have not been played yet.
+     *
+     * @param rankValue The rank card value, from 1 to 13.
+     * @return The number of remaining cards of this rank.
+     */
+    public int getRemainingCount(int rankValue) {
+        return remainingByRank[rankValue - 1];
+    }
+
+    /**
+     * Retrieves the sum of the rank card values of the cards that have not been played yet.
+     *
+     * @return The total remaining rank value.
+     */
+    public int getRemainingRankTotal() {
+        return remainingRankTotal;
+    }
+
+    /**
+     * Retrieves the cards that have been played so far.
+     *
+     * @return The bitmask of the played cards.
+     */
+    public long getPlayedCards() {
+        return playedCards;
+    }
+
+    /**
+     * Retrieves the ranks of which some cards have not been played yet.
+     *
+     * @return The set of ranks, as a 13-bit mask where bit (rank card value - 1) is set for each remaining rank.
+     */
+    public int getRemainingRanks() {
+        return remainingRanks;
+    }
+}
@@ -1,66 +1,19 @@
-import ch.aplu.jcardgame.Card;
-import ch.aplu.jcardgame.Hand;
-
-import java.util.ArrayList;
-import java.util.HashMap;
-
-
 /**
  * Represents a clever strategy for playing cards.
  * This strategy takes into account the remaining points in the deck and
  * adjusts the card selection based on the points in the current round.
+ * Cards are selected on the bitmask model of {@link CardBits}.
  */
 public class CleverStrategy extends CompositePlayStrategy {
 
     // Define numbers as words
-    private static final int ZERO_INITIAL = 0;
-    private static final int VALUE = 4;
     private static final int ONE = 1;
     private static final int DIVIDE_HALF = 2;
 
-
-    // Tracker for the remaining cards in the deck
-    private static HashMap<Rank, Integer> deckTracker = null;
-
     /**
-     * Initializes the deck tracker with all ranks.
-     */
-    public CleverStrategy() {
-        deckTracker = new HashMap<>();
-        for (Rank rank : Rank.values()) {
-            deckTracker.put(rank, VALUE);
-
-        }
-    }
-
-    /**
-     * Updates the deck tracker when a card is played.
+     * Determines the best card to play based on the current state of the game and the strategy.
      *
-     * @param card The card that was played.
-     */
-    public static void updateDeckTracker(Card card) {
-        if (deckTracker != null) {
-            Rank rank = Rank.valueOf(card.getRank().name());
-            deckTracker.put(rank, deckTracker.get(rank) - ONE);
-        }
-    }
-
-    /**
-     * Calculates the total remaining points in the deck.
-     *
-     * @return The total remaining points.
-     */
-    private int calculateTotalRemainingPoints() {
-        int totalPoints = ZERO_INITIAL;
-        for (HashMap.Entry<Rank, Integer> entry : deckTracker.entrySet()) {
-            totalPoints += entry.getKey().getRankCardValue() * entry.getValue();
-        }
-        return totalPoints;
-    }
-    /**
-     * Determines the best card(s) to play based on the current state of the game and the strategy.
-     *
-     * <p>The method first retrieves a list of valid cards that can be played using the game's strategy.
+     * <p>The method first retrieves the set of valid cards that can be played using the game's strategy.
      * Depending on the total remaining points and the points in the current round, the method selects
      * the best card to play. The selection is based on various thresholds defined in the game.</p>
      *
@@ -74,157 +27,154 @@ public class CleverStrategy extends CompositePlayStrategy {
      * been played, the method selects a card based on the points in the current round, similar to the logic
      * described above.</p>
      *
-     * @param hand The current hand of the player.
-     * @param playedCards The cards that have been played in the current round.
-     * @return A list containing the selected card(s) to play. If no valid card can be played, the list is empty.
+     * @param state The state of the game.
+     * @return The id of the selected card, or {@link #NO_MOVE} if no card is valid or the player skips.
      */
     @Override
-    public ArrayList<Card> getCardsToPlay(Hand hand, ArrayList<Card> playedCards) {
-        ArrayList<Card> validCardsToPlay = strategies.get(0).getCardsToPlay(hand, playedCards);
-
-        if (validCardsToPlay.isEmpty()) {
-            return validCardsToPlay;
+    public int selectCard(GameState state) {
+        long validCards = strategies.get(0).selectCandidateCards(state);
+        if (validCards == 0) {
+            return NO_MOVE;
         }
+        CardTracker cardTracker = state.getCardTracker();
+        int highestRankValue = findHighestRankValue(cardTracker.getRemainingRanks());
+        return selectCard(validCards, state.getCurrentHand(), state.getTrickRankTotal(),
+                cardTracker.getRemainingRankTotal(), highestRankValue, cardTracker.getRemainingCount(highestRankValue));
+    }
 
-        Card selectedCard;
-        int totalRemainingPoints = calculateTotalRemainingPoints();
-
-
-        int pointsInRound = calculatePointsInRound(playedCards);
-
-        if (pointsInRound < totalRemainingPoints * 0.1) {
-            selectedCard = selectLowestCard(validCardsToPlay);
-        } else if (pointsInRound <= totalRemainingPoints * 0.2) {
-            selectedCard = selectMiddleCard(validCardsToPlay);
-        } else {
-            selectedCard = selectHighestCard(validCardsToPlay, hand);
+    /**
+     * Determines the card to play for each decision of a batch, as {@link #selectCard(GameState)} does.
+     * The remaining points and ranks are computed from the cards played in the game with a few mask
+     * operations, in place of a {@link CardTracker}.
+     *
+     * @param batch The decisions.
+     * @param moves Filled with the id of the selected card of each decision, or {@link #NO_MOVE}
+     *              if no card is valid or the player skips, from index 0 to the size of the batch.
+     */
+    public void selectCards(DecisionBatch batch, int[] moves) {
+        long[] hands = batch.hands;
+        int[] lastCards = batch.lastCards;
+        int[] pointsInRound = batch.pointsInRound;
+        long[] playedCards = batch.playedCards;
+        for (int i = 0, size = batch.size(); i < size; i++) {
+            long validCards = CardBits.validCards(hands[i], lastCards[i]);
+            if (validCards == 0) {
+                moves[i] = NO_MOVE;
+                continue;
+            }
+            long remainingCards = CardBits.ALL_CARDS & ~playedCards[i];
+            int highestRankValue = findHighestRankValue(CardBits.rankSet(remainingCards));
+            moves[i] = selectCard(validCards, hands[i], pointsInRound[i], CardBits.rankTotal(remainingCards),
+                    highestRankValue, CardBits.size(remainingCards & CardBits.rankMask(highestRankValue)));
         }
-
-
-        ArrayList<Card> selectedCards = new ArrayList<>();
-        if (selectedCard != null) selectedCards.add(selectedCard);
-        return selectedCards;
     }
+
     /**
-     * Calculates the total points of the cards played in the current round.
+     * Selects the card to play among the valid cards, depending on the points in the current round
+     * compared to the total remaining points.
      *
-     * @param playedCards The cards played in the current round.
-     * @return The total points of the played cards.
+     * @param validCards The non-empty set of valid cards.
+     * @param hand The set of cards in the player's hand.
+     * @param pointsInRound The total rank value of the cards played in the current round.
+     * @param totalRemainingPoints The total rank value of the cards not played yet in this game.
+     * @param highestRankValue The highest rank still available in the deck.
+     * @param highestRankCount The number of cards of the highest available rank not played yet.
+     * @return The id of the selected card, or {@link #NO_MOVE} if the player skips.
      */
-    private int calculatePointsInRound(ArrayList<Card> playedCards) {
-        int points = ZERO_INITIAL;
-        for (Card card : playedCards) {
-            points += Rank.valueOf(card.getRank().name()).getRankCardValue();
+    private int selectCard(long validCards, long hand, int pointsInRound, int totalRemainingPoints,
+                           int highestRankValue, int highestRankCount) {
+        if (pointsInRound < totalRemainingPoints * 0.1) {
+            return selectLowestCard(validCards);
+        } else if (pointsInRound <= totalRemainingPoints * 0.2) {
+            return selectMiddleCard(validCards, highestRankValue);
         }
-        return points;
+        return selectHighestCard(validCards, hand, highestRankValue, highestRankCount);
     }
     /**
-     * Selects the card with the lowest rank from the given list of cards.
+     * Selects the card with the lowest rank from the given set of cards.
      *
-     * @param validCardsToPlay The list of cards to choose from.
+     * @param validCards The set of cards to choose from.
      * @return The card with the lowest rank.
      */
-    private Card selectLowestCard(ArrayList<Card> validCardsToPlay) {
-        Card lowestCard = validCardsToPlay.get(ZERO_INITIAL);
-        for (Card card : validCardsToPlay) {
-            if (Rank.valueOf(card.getRank().name()).getRankCardValue() < Rank.valueOf(lowestCard.getRank().name()).getRankCardValue()) {
-                lowestCard = card;
-            }
-        }
-        return lowestCard;
+    private int selectLowestCard(long validCards) {
+        return CardBits.firstCard(validCards & CardBits.rankMask(CardBits.lowestRankValue(validCards)));
     }
     /**
-     * Selects the card with the highest rank from the given list of cards.
+     * Selects the card with the highest rank from the given set of cards.
      * If the highest card's rank matches the highest rank in the deck and the hand has no more than half of that rank,
      * the second highest card is selected.
      *
-     * @param validCardsToPlay The list of cards to choose from.
+     * @param validCards The set of cards to choose from.
      * @param hand The player's current hand.
+     * @param highestRankValue The highest rank still available in the deck.
+     * @param highestRankCount The number of cards of the highest available rank not played yet.
      * @return The card with the highest rank or the second highest rank based on the conditions.
      */
-    private Card selectHighestCard(ArrayList<Card> validCardsToPlay, Hand hand) {
-        Card highestCard = validCardsToPlay.get(ZERO_INITIAL);
-        Rank highestRank = findHighestRank();
-        for (Card card : validCardsToPlay) {
-            if (Rank.valueOf(card.getRank().name()).getRankCardValue() > Rank.valueOf(highestCard.getRank().name()).getRankCardValue()) {
-                highestCard = card;
-            }
-        }
-        if(Rank.valueOf(highestCard.getRank().name()).equals(highestRank) && hand.getCardsWithRank(highestRank).size()*2 <=
-                deckTracker.get(highestRank)){
-            Card secondHighestCard = null;
-            for (Card card : validCardsToPlay) {
-                if (!Rank.valueOf(card.getRank().name()).equals(highestRank) && (secondHighestCard == null ||
-                        Rank.valueOf(card.getRank().name()).getRankCardValue() > Rank.valueOf(secondHighestCard.getRank().name()).getRankCardValue())) {
-                    secondHighestCard = card;
-                }
+    private int selectHighestCard(long validCards, long hand, int highestRankValue, int highestRankCount) {
+        int highestCardRankValue = CardBits.highestRankValue(validCards);
+        if (highestCardRankValue == highestRankValue && CardBits.size(hand & CardBits.rankMask(highestRankValue)) * 2 <=
+                highestRankCount) {
+            long otherCards = validCards & ~CardBits.rankMask(highestRankValue);
+            if (otherCards == 0) {
+                return NO_MOVE;
             }
-            return secondHighestCard;
+            return CardBits.firstCard(otherCards & CardBits.rankMask(CardBits.highestRankValue(otherCards)));
         }
-        return highestCard;
+        return CardBits.firstCard(validCards & CardBits.rankMask(highestCardRankValue));
     }
     /**
-     * Selects the card with the middle rank from the given list of cards.
-     * If no exact middle is found, the nearest middle card is selected.
+     * Selects the card with the middle rank from the given set of cards.
+     * If no exact middle is found, the nearest middle card is selected; when a lower and a higher rank are
+     * equally near the middle, the lower rank is selected, whatever the suits of the cards. Among the cards
+     * of the selected rank, the first suit is selected, as for the lowest and highest cards.
      * If the card selected in this level is the highest rank, then select to skip to save the card for more score
      *
-     * @param validCardsToPlay The list of cards to choose from.
+     * @param validCards The set of cards to choose from.
+     * @param highestRankValue The highest rank still available in the deck.
      * @return The card with the middle rank or the nearest middle rank.
      */
-    private Card selectMiddleCard(ArrayList<Card> validCardsToPlay) {
-        int minRankValue = Integer.MAX_VALUE;
-        int maxRankValue = Integer.MIN_VALUE;
-
-        int highestRankValue = findHighestRank().getRankCardValue();
-
-        // Find the minimum and maximum rank values
-        for (Card card : validCardsToPlay) {
-            int rankValue = Rank.valueOf(card.getRank().name()).getRankCardValue();
-            if (rankValue < minRankValue) minRankValue = rankValue;
-            if (rankValue > maxRankValue) maxRankValue = rankValue;
-        }
-
-
+    private int selectMiddleCard(long validCards, int highestRankValue) {
         // Calculate the middle rank value
-        int middleRankValue = (minRankValue + maxRankValue) / DIVIDE_HALF;
+        int middleRankValue = (CardBits.lowestRankValue(validCards) + CardBits.highestRankValue(validCards)) / DIVIDE_HALF;
 
         // Find the card with the middle rank value
-        for (Card card : validCardsToPlay) {
-            if (Rank.valueOf(card.getRank().name()).getRankCardValue() == middleRankValue) {
-                return card;
-            }
+        long middleCards = validCards & CardBits.rankMask(middleRankValue);
+        if (middleCards != 0) {
+            return CardBits.firstCard(middleCards);
         }
 
-        // If no exact middle is found (due to even number of cards), return the nearest middle card
-        Card nearestMiddleCard = validCardsToPlay.get(ZERO_INITIAL);
-        int nearestDifference = Math.abs(Rank.valueOf(nearestMiddleCard.getRank().name()).getRankCardValue() - middleRankValue);
-        for (Card card : validCardsToPlay) {
-            int difference = Math.abs(Rank.valueOf(card.getRank().name()).getRankCardValue() - middleRankValue);
-            if (difference < nearestDifference) {
-                nearestDifference = difference;
-                nearestMiddleCard = card;
+        // If no exact middle is found (due to even number of cards), return the nearest middle card,
+        // the lower rank first so that a tie does not depend on the suits
+        int difference = ONE;
+        long nearestMiddleCards = 0;
+        while (nearestMiddleCards == 0) {
+            if (middleRankValue - difference >= ONE) {
+                nearestMiddleCards = validCards & CardBits.rankMask(middleRankValue - difference);
+            }
+            if (nearestMiddleCards == 0 && middleRankValue + difference <= CardBits.NB_RANKS) {
+                nearestMiddleCards = validCards & CardBits.rankMask(middleRankValue + difference);
             }
+            difference++;
         }
+        int nearestMiddleCard = CardBits.firstCard(nearestMiddleCards);
 
         // If the card selected in this level is the highest rank, then select to skip to save the card for more score
-        if(Rank.valueOf(nearestMiddleCard.getRank().name()).getRankCardValue() == highestRankValue) return null;
+        if (CardBits.rankValue(nearestMiddleCard) == highestRankValue) return NO_MOVE;
 
         return nearestMiddleCard;
     }
     /**
      * Finds the highest rank that is still available in the deck.
+     * The ace is the lowest rank, so it is only returned when no other rank remains.
      *
-     * @return The highest available rank.
+     * @param remainingRanks The ranks with cards not played yet, as a 13-bit mask.
+     * @return The card value of the highest available rank.
      */
-    private Rank findHighestRank(){
-        int i = 1;
-        Rank[] ranks = Rank.values();
-        while(i < ranks.length){
-            if(deckTracker.get(ranks[i]) != ZERO_INITIAL){
-                return ranks[i];
-            }
-            i++;
+    private int findHighestRankValue(int remainingRanks) {
+        int higherRanks = remainingRanks & ~ONE;
+        if (higherRanks == 0) {
+            return Rank.ACE.getRankCardValue();
         }
-        return Rank.ACE;
+        return Integer.SIZE - Integer.numberOfLeadingZeros(higherRanks);
     }
 }
@@ -0,0 +1,62 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Sends the events of a game to several sinks, for example to keep the text log of a game
+ * while streaming it to a binary log.
+ */
+public class CompositeEventSink implements GameEventSink {
+
+    private final ArrayList<GameEventSink> sinks = new ArrayList<>();
+
+    /**
+     * Constructs a sink sending every event to each of the given sinks, in order.
+     *
+     * @param sinks The sinks receiving the events.
+     */
+    public CompositeEventSink(GameEventSink... sinks) {
+        this.sinks.addAll(Arrays.asList(sinks));
+    }
+
+    @Override
+    public void gameStarted(long[] hands) {
+        for (GameEventSink sink : sinks) {
+            sink.gameStarted(hands);
+        }
+    }
+
+    @Override
+    public void roundStarted(int roundNumber) {
+        for (GameEventSink sink : sinks) {
+            sink.roundStarted(roundNumber);
+        }
+    }
+
+    @Override
+    public void cardPlayed(int player, int card) {
+        for (GameEventSink sink : sinks) {
+            sink.cardPlayed(player, card);
+        }
+    }
+
+    @Override
+    public void skipped(int player) {
+        for (GameEventSink sink : sinks) {
+            sink.skipped(player);
+        }
+    }
+
+    @Override
+    public void roundEnded(int[] scores) {
+        for (GameEventSink sink : sinks) {
+            sink.roundEnded(scores);
+        }
+    }
+
+    @Override
+    public void gameEnded(int[] scores, int winners) {
+        for (GameEventSink sink : sinks) {
+            sink.gameEnded(scores, winners);
+        }
+    }
+}
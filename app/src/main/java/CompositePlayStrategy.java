@@ -1,8 +1,12 @@
+import ch.aplu.jcardgame.Card;
+import ch.aplu.jcardgame.Hand;
+
 import java.util.ArrayList;
 
 /**
  * Abstract class representing a play strategy.
  * This class provides a base for different play strategies and uses the "Fundamental" strategy as the default.
+ * Subclasses select a single card with {@link #selectCard(GameState)}; the Hand-based API is adapted to it here.
  */
 public abstract class CompositePlayStrategy implements IPlayStrategy {
 
@@ -14,4 +18,39 @@ public abstract class CompositePlayStrategy implements IPlayStrategy {
     CompositePlayStrategy(){
         strategies.add(PlayStrategyFactory.getInstance().getStrategy("Fundamental"));
     }
+
+    /**
+     * Determines the card to play without knowing the cards played in the previous rounds,
+     * as if every card not in the current round was still to be played.
+     *
+     * @param hand The current hand of the player.
+     * @param playedCards The cards that have been played in the current round.
+     * @return A list containing the selected card to play or an empty list if the player skips.
+     */
+    @Override
+    public ArrayList<Card> getCardsToPlay(Hand hand, ArrayList<Card> playedCards) {
+        CardTracker cardTracker = new CardTracker();
+        for (Card card : playedCards) {
+            cardTracker.cardPlayed(card);
+        }
+        return getCardsToPlay(hand, playedCards, cardTracker);
+    }
+
+    /**
+     * Determines the card to play by adapting the jcardgame objects to {@link #selectCard(GameState)}.
+     *
+     * @param hand The current hand of the player.
+     * @param playedCards The cards that have been played in the current round.
+     * @param cardTracker The tracker of the cards played so far in this game.
+     * @return A list containing the selected card to play or an empty list if the player skips.
+     */
+    @Override
+    public ArrayList<Card> getCardsToPlay(Hand hand, ArrayList<Card> playedCards, CardTracker cardTracker) {
+        int card = selectCard(GameState.forHand(hand, playedCards, cardTracker));
+        ArrayList<Card> selectedCard = new ArrayList<>();
+        if (card != NO_MOVE) {
+            selectedCard.add(CardBits.findCard(hand.getCardList(), card));
+        }
+        return selectedCard;
+    }
 }
@@ -1,6 +1,5 @@
 import ch.aplu.jcardgame.Card;
 import ch.aplu.jcardgame.Hand;
-import java.util.ArrayList;
 
 /**
  * Represents a computer-controlled player in the game.
@@ -19,15 +18,40 @@ public abstract class ComputerPlayer extends Player {
         super(hand, strategy);
     }
 
+    // Decides the moves of the strategy with a deadline, created by the first timed decision and given
+    // the budget of each decision, so that a single search of the strategy runs at a time
+    private DeadlineStrategy deadlineStrategy = null;
+
+    /**
+     * Puts the decisions of the strategy behind a cache, possibly shared with other players.
+     *
+     * @param cache The cache of the decisions.
+     */
+    void cacheDecisions(DecisionCache cache) {
+        strategy = new CachingStrategy(strategy, cache);
+        deadlineStrategy = null;
+    }
+
     /**
-     * Determines which card(s) the player should play based on their strategy.
+     * Determines which card the player should play within a time budget. The strategy decides on a worker
+     * thread and searches until the deadline; if it is late, the player plays its first valid card.
      *
-     * @param hand The current hand of the player.
-     * @param playedCards The cards that have been played in the current round.
-     * @return A valid card if the player decides to play based on trategy, null if he doesn't play
+     * @param state The state of the game, where this player is the current player.
+     * @param timeBudgetMillis The time allowed for the decision, in milliseconds.
+     * @return A valid card if the player decides to play, null if the player doesn't play
      */
-    public Card playCard(Hand hand, ArrayList<Card> playedCards){
-        ArrayList<Card> cardsToPlay = strategy.getCardsToPlay(hand, playedCards);
-        return cardsToPlay.isEmpty() ? null : cardsToPlay.get(0);
+    public Card playCard(GameState state, long timeBudgetMillis) {
+        if (deadlineStrategy == null) {
+            deadlineStrategy = new DeadlineStrategy(strategy, timeBudgetMillis);
+        } else {
+            deadlineStrategy.setTimeBudgetMillis(timeBudgetMillis);
+        }
+        GameMetrics metrics = GameMetrics.getInstance();
+        long startTime = metrics.startDecision();
+        FlightEvents.Decision decisionEvent = FlightEvents.beginDecision();
+        int card = deadlineStrategy.selectCard(state);
+        FlightEvents.commitDecision(decisionEvent, strategy, state, card);
+        metrics.recordDecision(strategy, startTime);
+        return card == IPlayStrategy.NO_MOVE ? null : CardBits.findCard(hand.getCardList(), card);
     }
 }
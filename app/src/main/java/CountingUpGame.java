@@ -7,6 +7,8 @@ import java.awt.*;
 import java.awt.event.KeyEvent;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.stream.Collectors;
 
 /**
@@ -16,13 +18,13 @@ import java.util.stream.Collectors;
 @SuppressWarnings("serial")
 public class CountingUpGame extends CardGame implements GGKeyListener {
     static private final int SEED = 30008;
-    static private final Random RANDOM = new Random(SEED);
     private Properties properties;
     private StringBuilder logResult = new StringBuilder();
+    private GameEventSink eventSink = new TextGameLog(logResult);
     private List<List<String>> playerAutoMovements = new ArrayList<>();
     private final String VERSION = "1.0";
-    private final int NB_PLAYERS = 4;
-    private final int NB_START_CARDS = 13;
+    private final int nbPlayers;
+    private final int nbStartCards;
     private final int HAND_WIDTH = 400;
     private final int TRICK_WIDTH = 40;
     private final Deck DECK = new Deck(Suit.values(), Rank.values(), "cover");
@@ -38,7 +40,12 @@ public class CountingUpGame extends CardGame implements GGKeyListener {
             new Location(575, 25),
             new Location(575, 575)
     };
-    private Actor[] scoreActors = {null, null, null, null};
+    // Distance of the hands and the scores from the center of the board at other tables than four players
+    private final int HAND_RADIUS = 275;
+    private final int SCORE_RADIUS = 325;
+    private final Location[] handLocations;
+    private final Location[] scoreLocations;
+    private final Actor[] scoreActors;
     private final Location TRICK_LOCATION = new Location(350, 350);
     private final Location TEXT_LOCATION = new Location(350, 450);
     private int thinkingTime = 2000;
@@ -46,10 +53,13 @@ public class CountingUpGame extends CardGame implements GGKeyListener {
     private Player[] players;
     private final Location HIDE_LOCATION = new Location(-500, -500);
     private Card selected;
-    private int[] scores = new int[NB_PLAYERS];
-    private boolean isWaitingForPass = false;
-    private boolean passSelected = false;
-    private int[] autoIndexHands = new int [NB_PLAYERS];
+    private final int[] scores;
+    // Moves of the human player whose turn it is, an empty move being a pass, handed over by the
+    // listeners of the event thread to the game thread, which waits for them without polling
+    private final BlockingQueue<Optional<Card>> humanMoves = new LinkedBlockingQueue<>();
+    private volatile boolean isWaitingForHuman = false;
+    private final int[] autoIndexHands;
+    private final GameState state;
     private boolean isAuto = false;
     private Font bigFont = new Font("Arial", Font.BOLD, 36);
 
@@ -63,30 +73,24 @@ public class CountingUpGame extends CardGame implements GGKeyListener {
     }
 
     private void initScore() {
-        for (int i = 0; i < NB_PLAYERS; i++) {
+        for (int i = 0; i < nbPlayers; i++) {
             scores[i] = 0;
             String text = "[" + String.valueOf(scores[i]) + "]";
             scoreActors[i] = new TextActor(text, Color.WHITE, bgColor, bigFont);
-            addActor(scoreActors[i], SCORE_LOCATIONS[i]);
+            addActor(scoreActors[i], scoreLocations[i]);
         }
     }
 
-    private void calculateScoreEndOfRound(int player, List<Card> cardsPlayed) {
-        int totalScorePlayed = 0;
-        for (Card card: cardsPlayed) {
-            Rank rank = (Rank) card.getRank();
-            totalScorePlayed += rank.getScoreCardValue();
-        }
-        scores[player] += totalScorePlayed;
+    private void calculateScoreEndOfRound(int roundNumber, int player, int trickSize) {
+        // the state scored the trick as the round ended, the scores still hold the previous round
+        int totalScorePlayed = state.getScore(player) - scores[player];
+        scores[player] = state.getScore(player);
+        FlightEvents.roundEnded(roundNumber, player, totalScorePlayed, trickSize);
     }
 
-    private void calculateNegativeScoreEndOfGame(int player, List<Card> cardsInHand) {
-        int totalScorePlayed = 0;
-        for (Card card: cardsInHand) {
-            Rank rank = (Rank) card.getRank();
-            totalScorePlayed -= rank.getScoreCardValue();
-        }
-        scores[player] += totalScorePlayed;
+    private void calculateNegativeScoreEndOfGame(int player) {
+        // the state removed the cards left in the hands at the end of the game
+        scores[player] = state.getScore(player);
     }
 
     private void updateScore(int player) {
@@ -94,15 +98,15 @@ public class CountingUpGame extends CardGame implements GGKeyListener {
         int displayScore = scores[player] >= 0 ? scores[player] : 0;
         String text = "P" + player + "[" + String.valueOf(displayScore) + "]";
         scoreActors[player] = new TextActor(text, Color.WHITE, bgColor, bigFont);
-        addActor(scoreActors[player], SCORE_LOCATIONS[player]);
+        addActor(scoreActors[player], scoreLocations[player]);
     }
 
 
 
     @Override
     public boolean keyPressed(KeyEvent keyEvent) {
-        if (isWaitingForPass && keyEvent.getKeyChar() == '\n') {
-            passSelected = true;
+        if (isWaitingForHuman && keyEvent.getKeyChar() == '\n') {
+            humanMoves.offer(Optional.empty());
         }
         return false;
     }
@@ -115,31 +119,40 @@ public class CountingUpGame extends CardGame implements GGKeyListener {
     /**
      * Method used to create players based on player types
      */
-    private void createPlayers() {
-        players = new Player[NB_PLAYERS];
-        for (int i = 0; i < NB_PLAYERS; i++) {
+    private void createPlayers(SplittableRandom random) {
+        players = new Player[nbPlayers];
+        for (int i = 0; i < nbPlayers; i++) {
             String playerKey = "players." + i;
             String playerType = properties.getProperty(playerKey);
-            players[i] = PlayerFactory.getInstance().getPlayer(playerType ,new Hand(DECK));
+            players[i] = PlayerFactory.getInstance().getPlayer(playerType ,new Hand(DECK), random.split());
         }
     }
     /**
      * Initializes the game by setting up the players, dealing cards, and preparing the game graphics.
      */
     private void initGame() {
+        // Deal before creating the players, whose generators are split from the game generator
+        // as in HeadlessCountingUpGame
+        long seed = Long.parseLong(properties.getProperty("seed", String.valueOf(SEED)));
+        SplittableRandom random = new Dealer(seed).gameRandom(0);
+        long[] dealtHands = dealHands(random);
         // Create players and assign storing hand responsibility to players
-        createPlayers();
-        dealingOut();
-        for (int i = 0; i < NB_PLAYERS; i++) {
+        createPlayers(random);
+        dealingOut(dealtHands);
+        // mirror the hands in the game state read by the strategies, which also knows who leads
+        state.dealHands(dealtHands);
+        for (int i = 0; i < nbPlayers; i++) {
             players[i].getHand().sort(Hand.SortType.SUITPRIORITY, false);
         }
         // Set up all human players for interaction, in case more than one human player in this game
-        for (int i = 0; i < NB_PLAYERS; i++) {
+        for (int i = 0; i < nbPlayers; i++) {
             if (players[i] instanceof HumanPlayer){
                 CardListener cardListener = new CardAdapter()  // Human Player plays card
                 {
                     public void leftDoubleClicked(Card card) {
-                        selected = card;
+                        if (isWaitingForHuman) {
+                            humanMoves.offer(Optional.of(card));
+                        }
                         // move setTouchEnabled(false) to playGame() method after player's turn is end
                         // because interaction should stop when human player's turn is over, instead of a card has been selected
                     }
@@ -149,10 +162,11 @@ public class CountingUpGame extends CardGame implements GGKeyListener {
         }
 
         // graphics
-        RowLayout[] layouts = new RowLayout[NB_PLAYERS];
-        for (int i = 0; i < NB_PLAYERS; i++) {
-            layouts[i] = new RowLayout(HAND_LOCATIONS[i], HAND_WIDTH);
-            layouts[i].setRotationAngle(90 * i);
+        RowLayout[] layouts = new RowLayout[nbPlayers];
+        for (int i = 0; i < nbPlayers; i++) {
+            layouts[i] = new RowLayout(handLocations[i], nbPlayers > GameState.NB_PLAYERS
+                    ? HAND_WIDTH * GameState.NB_PLAYERS / nbPlayers : HAND_WIDTH);
+            layouts[i].setRotationAngle(360.0 * i / nbPlayers);
             // layouts[i].setStepDelay(10);
             players[i].getHand().setView(this, layouts[i]);
             players[i].getHand().setTargetArea(new TargetArea(TRICK_LOCATION));
@@ -160,12 +174,6 @@ public class CountingUpGame extends CardGame implements GGKeyListener {
         }
     }
 
-    // return random Card from ArrayList
-    private Card randomCard(ArrayList<Card> list) {
-        int x = RANDOM.nextInt(list.size());
-        return list.get(x);
-    }
-
     private Rank getRankFromString(String cardName) {
         String rankString = cardName.substring(0, cardName.length() - 1);
         Integer rankValue = Integer.parseInt(rankString);
@@ -203,88 +211,55 @@ public class CountingUpGame extends CardGame implements GGKeyListener {
         return null;
     }
 
-    private void dealingOut() {
-        Hand pack = DECK.toHand(false);
-
-        for (int i = 0; i < NB_PLAYERS; i++) {
-            String initialCardsKey = "players." + i + ".initialcards";
-            String initialCardsValue = properties.getProperty(initialCardsKey);
-            if (initialCardsValue == null) {
-                continue;
-            }
-            String[] initialCards = initialCardsValue.split(",");
-            for (String initialCard: initialCards) {
-                if (initialCard.length() <= 1) {
-                    continue;
-                }
-                Card card = getCardFromList(pack.getCardList(), initialCard);
-                if (card != null) {
-                    card.removeFromHand(false);
-                    players[i].getHand().insert(card, false);
-                }
-            }
+    private long[] dealHands(SplittableRandom random) {
+        long[] presetHands = new long[nbPlayers];
+        for (int i = 0; i < nbPlayers; i++) {
+            presetHands[i] = Dealer.parseCards(properties.getProperty("players." + i + ".initialcards"));
         }
+        return Dealer.deal(presetHands, nbStartCards, random);
+    }
 
-        for (int i = 0; i < NB_PLAYERS; i++) {
-            int cardsToDealt = NB_START_CARDS - players[i].getHand().getNumberOfCards();
-            for (int j = 0; j < cardsToDealt; j++) {
-                if (pack.isEmpty()) return;
-                Card dealt = randomCard(pack.getCardList());
+    private void dealingOut(long[] dealtHands) {
+        Hand pack = DECK.toHand(false);
+        for (int i = 0; i < nbPlayers; i++) {
+            for (long rest = dealtHands[i]; rest != 0; rest &= rest - 1) {
+                Card dealt = CardBits.findCard(pack.getCardList(), Long.numberOfTrailingZeros(rest));
                 dealt.removeFromHand(false);
                 players[i].getHand().insert(dealt, false);
             }
         }
     }
 
-    /**
-     * Method used to find the first player in every round
-     * @return player index
-     */
-    private int playerIndexWithAceClub() {
-        for (int i = 0; i < NB_PLAYERS; i++) {
-            Hand hand = players[i].getHand();
-            List<Card> cards = hand.getCardsWithRank(Rank.ACE);
-            if (cards.size() == 0) {
-                continue;
-            }
-            for (Card card: cards) {
-                if (card.getSuit() == Suit.CLUBS) {
-                    return i;
-                }
-            }
+    private void addDealToLog() {
+        long[] hands = new long[nbPlayers];
+        for (int i = 0; i < nbPlayers; i++) {
+            hands[i] = state.getHand(i);
         }
-        return 0;
+        eventSink.gameStarted(hands);
     }
 
     private void addCardPlayedToLog(int player, Card selectedCard) {
         if (selectedCard == null) {
-            logResult.append("P" + player + "-SKIP,");
+            eventSink.skipped(player);
         } else {
-            Rank cardRank = (Rank) selectedCard.getRank();
-            Suit cardSuit = (Suit) selectedCard.getSuit();
-            logResult.append("P" + player + "-" + cardRank.getRankCardLog() + cardSuit.getSuitShortHand() + ",");
+            eventSink.cardPlayed(player, CardBits.cardId(selectedCard));
         }
     }
 
     private void addRoundInfoToLog(int roundNumber) {
-        logResult.append("Round" + roundNumber + ":");
+        eventSink.roundStarted(roundNumber);
     }
 
     private void addEndOfRoundToLog() {
-        logResult.append("Score:");
-        for (int i = 0; i < scores.length; i++) {
-            logResult.append(scores[i] + ",");
-        }
-        logResult.append("\n");
+        eventSink.roundEnded(scores);
     }
 
     private void addEndOfGameToLog(List<Integer> winners) {
-        logResult.append("EndGame:");
-        for (int i = 0; i < scores.length; i++) {
-            logResult.append(scores[i] + ",");
+        int winnersMask = 0;
+        for (int winner : winners) {
+            winnersMask |= 1 << winner;
         }
-        logResult.append("\n");
-        logResult.append("Winners:" + String.join(", ", winners.stream().map(String::valueOf).collect(Collectors.toList())));
+        eventSink.gameEnded(scores, winnersMask);
     }
     /**
      * Plays the game by handling each player's turn, updating scores, and determining the winner.
@@ -292,17 +267,22 @@ public class CountingUpGame extends CardGame implements GGKeyListener {
     private void playGame() {
         // End trump suit
         Hand playingArea = null;
-        int winner = 0;
-        int roundNumber = 1;
-        for (int i = 0; i < NB_PLAYERS; i++) updateScore(i);
-        boolean isContinue = true;
-        int skipCount = 0;
-        List<Card> cardsPlayed = new ArrayList<>();
+        for (int i = 0; i < nbPlayers; i++) updateScore(i);
         playingArea = new Hand(DECK);
-        addRoundInfoToLog(roundNumber);
-
-        int nextPlayer = playerIndexWithAceClub();
-        while(isContinue) {
+        GameMetrics metrics = GameMetrics.getInstance();
+        metrics.gameStarted();
+        String[] playerTypes = new String[nbPlayers];
+        for (int i = 0; i < nbPlayers; i++) {
+            playerTypes[i] = properties.getProperty("players." + i);
+        }
+        FlightEvents.gameStarted(playerTypes);
+        FlightEvents.GameEnd gameEvent = FlightEvents.beginGame();
+        addRoundInfoToLog(state.getRoundNumber());
+
+        // the state plays the turns, so that the strategies searching it see the moves, the skips and the
+        // scores of the game; the player holding the Ace of Clubs leads, as dealt
+        while (!state.isGameOver()) {
+            int nextPlayer = state.getCurrentPlayer();
             selected = null;
             boolean finishedAuto = false;
             if (isAuto) {
@@ -338,31 +318,36 @@ public class CountingUpGame extends CardGame implements GGKeyListener {
                     // if current player is a human player
                     // get valid cards that human player can play
                     ArrayList<Card> validCards = ((HumanPlayer)curPlayer).getValidCards(curPlayer.getHand(), playingArea.getCardList());
+                    humanMoves.clear();
+                    isWaitingForHuman = true;
                     curPlayer.getHand().setTouchEnabled(true);
-                    isWaitingForPass = true;
-                    passSelected = false;
                     setStatus("Player " + nextPlayer +" double-click on card to follow or press Enter to pass");
-                    while (null == selected && !passSelected) delay(delayTime);
                     // if the card player selected is not valid, he can select again until a valid card is selected
-                    while (!validCards.contains(selected) && !passSelected) {
+                    Optional<Card> move = takeHumanMove();
+                    while (move.isPresent() && !validCards.contains(move.get())) {
                         setStatusText("Player " + nextPlayer + " chose invalid card. Please choose again...");
-                        delay(delayTime);
+                        move = takeHumanMove();
                     }
+                    // set enabled touch false when turn is over
+                    curPlayer.getHand().setTouchEnabled(false);
+                    isWaitingForHuman = false;
+                    selected = move.orElse(null);
                     // if the player chooses to pass this turn
-                    if (passSelected) {
-                        selected = null;
+                    if (selected == null) {
                         setStatusText("Player " + nextPlayer + " skipping...");
                         delay(thinkingTime);
                     }
-                    // set enabled touch false when turn is over
-                    curPlayer.getHand().setTouchEnabled(false);
-                    isWaitingForPass = false;
                 } else {
                     // if current player is a computer player
                     setStatusText("Player " + nextPlayer + " thinking...");
-                    delay(thinkingTime);
-                    // computer player selects card based on their type
-                    selected = ((ComputerPlayer)curPlayer).playCard(curPlayer.getHand(), playingArea.getCardList());
+                    // computer player selects card based on their type, thinking for the thinking time
+                    // on a worker thread; the turn still lasts the thinking time when it decides sooner
+                    long thinkingStart = System.nanoTime();
+                    selected = ((ComputerPlayer)curPlayer).playCard(state, thinkingTime);
+                    long thoughtMillis = (System.nanoTime() - thinkingStart) / 1_000_000;
+                    if (thoughtMillis < thinkingTime) {
+                        delay(thinkingTime - thoughtMillis);
+                    }
                     if (selected == null) {
                         setStatusText("Player " + nextPlayer + " skipping...");
                         delay(thinkingTime);
@@ -375,10 +360,11 @@ public class CountingUpGame extends CardGame implements GGKeyListener {
             playingArea.setView(this, new RowLayout(TRICK_LOCATION, (playingArea.getNumberOfCards() + 2) * TRICK_WIDTH));
             playingArea.draw();
             addCardPlayedToLog(nextPlayer, selected);
+            metrics.turnPlayed(selected == null);
+            int roundNumber = state.getRoundNumber();
+            int trickSize = state.getTrickSize() + (selected == null ? 0 : 1);
+            state.playTurn(selected == null ? CardBits.NO_CARD : CardBits.cardId(selected));
             if (selected != null) {
-                skipCount = 0;
-                cardsPlayed.add(selected);
-                CleverStrategy.updateDeckTracker(selected);
                 selected.setVerso(false);  // In case it is upside down
                 // Check: Following card must follow suit if possible
 
@@ -386,64 +372,55 @@ public class CountingUpGame extends CardGame implements GGKeyListener {
                 selected.transfer(playingArea, true); // transfer to trick (includes graphic effect)
                 delay(delayTime);
                 // End Follow
-            } else {
-                skipCount++;
             }
 
-            if (skipCount == NB_PLAYERS - 1) {
+            if (state.getRoundNumber() != roundNumber) {
                 playingArea.setView(this, new RowLayout(HIDE_LOCATION, 0));
                 playingArea.draw();
-                winner = (nextPlayer + 1) % NB_PLAYERS;
-                skipCount = 0;
-                calculateScoreEndOfRound(winner, cardsPlayed);
+                int winner = (nextPlayer + 1) % nbPlayers;
+                calculateScoreEndOfRound(roundNumber, winner, trickSize);
                 updateScore(winner);
                 addEndOfRoundToLog();
-                roundNumber++;
-                addRoundInfoToLog(roundNumber);
-                cardsPlayed = new ArrayList<>();
+                addRoundInfoToLog(state.getRoundNumber());
                 delay(delayTime);
                 playingArea = new Hand(DECK);
             }
 
-            isContinue = players[0].getHand().getNumberOfCards() > 0 && players[1].getHand().getNumberOfCards() > 0 &&
-                    players[2].getHand().getNumberOfCards() > 0 && players[3].getHand().getNumberOfCards() > 0;
-            if (!isContinue) {
-                winner = nextPlayer;
-                calculateScoreEndOfRound(winner, cardsPlayed);
+            if (state.isGameOver()) {
+                calculateScoreEndOfRound(roundNumber, nextPlayer, trickSize);
                 addEndOfRoundToLog();
-            } else {
-                nextPlayer = (nextPlayer + 1) % NB_PLAYERS;
             }
             delay(delayTime);
         }
 
-        for (int i = 0; i < NB_PLAYERS; i++) {
-            calculateNegativeScoreEndOfGame(i, players[i].getHand().getCardList());
+        state.endGame();
+        for (int i = 0; i < nbPlayers; i++) {
+            calculateNegativeScoreEndOfGame(i);
             updateScore(i);
         }
+        metrics.gameEnded(state.getRoundNumber());
+        FlightEvents.commitGameEnd(gameEvent, state.getRoundNumber(), state.getTurnCount(), scores);
     }
 
-    private void setupPlayerAutoMovements() {
-        String player0AutoMovement = properties.getProperty("players.0.cardsPlayed");
-        String player1AutoMovement = properties.getProperty("players.1.cardsPlayed");
-        String player2AutoMovement = properties.getProperty("players.2.cardsPlayed");
-        String player3AutoMovement = properties.getProperty("players.3.cardsPlayed");
-
-        String[] playerMovements = new String[] {"", "", "", ""};
-        if (player0AutoMovement != null) {
-            playerMovements[0] = player0AutoMovement;
-        }
-
-        if (player1AutoMovement != null) {
-            playerMovements[1] = player1AutoMovement;
-        }
-
-        if (player2AutoMovement != null) {
-            playerMovements[2] = player2AutoMovement;
+    /**
+     * Waits for the human player whose turn it is to double-click on a card or to press Enter,
+     * blocking the game thread until the listeners hand the move over.
+     *
+     * @return The card chosen, or an empty move if the player passes or the game thread is interrupted.
+     */
+    private Optional<Card> takeHumanMove() {
+        try {
+            return humanMoves.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
         }
+    }
 
-        if (player3AutoMovement != null) {
-            playerMovements[3] = player3AutoMovement;
+    private void setupPlayerAutoMovements() {
+        String[] playerMovements = new String[nbPlayers];
+        for (int i = 0; i < nbPlayers; i++) {
+            playerMovements[i] = properties.getProperty("players." + i + ".cardsPlayed", "");
         }
 
         for (int i = 0; i < playerMovements.length; i++) {
@@ -452,10 +429,19 @@ public class CountingUpGame extends CardGame implements GGKeyListener {
             playerAutoMovements.add(movements);
         }
     }
+    /**
+     * Sets the sink receiving the events of the game, instead of the text log returned by {@link #runApp()}.
+     *
+     * @param eventSink The sink of the game events.
+     */
+    public void setEventSink(GameEventSink eventSink) {
+        this.eventSink = eventSink;
+    }
+
     /**
      * Runs the game application, displaying the game interface and handling user interactions.
      *
-     * @return A string representation of the game log.
+     * @return A string representation of the game log, empty if another event sink has been set.
      */
     public String runApp() {
         setTitle("CountingUpGame (V" + VERSION + ") Constructed for UofM SWEN30006 with JGameGrid (www.aplu.ch)");
@@ -464,13 +450,14 @@ public class CountingUpGame extends CardGame implements GGKeyListener {
         addKeyListener(this);
         setupPlayerAutoMovements();
         initGame();
+        addDealToLog();
         playGame();
 
-        for (int i = 0; i < NB_PLAYERS; i++) updateScore(i);
+        for (int i = 0; i < nbPlayers; i++) updateScore(i);
         int maxScore = 0;
-        for (int i = 0; i < NB_PLAYERS; i++) if (scores[i] > maxScore) maxScore = scores[i];
+        for (int i = 0; i < nbPlayers; i++) if (scores[i] > maxScore) maxScore = scores[i];
         List<Integer> winners = new ArrayList<Integer>();
-        for (int i = 0; i < NB_PLAYERS; i++) if (scores[i] == maxScore) winners.add(i);
+        for (int i = 0; i < nbPlayers; i++) if (scores[i] == maxScore) winners.add(i);
         String winText;
         if (winners.size() == 1) {
             winText = "Game over. Winner is player: " +
@@ -487,13 +474,49 @@ public class CountingUpGame extends CardGame implements GGKeyListener {
         return logResult.toString();
     }
     /**
-     * Constructs a new CountingUpGame with the specified game properties.
+     * Places the hands and the scores of the players around the board: at the sides of the board
+     * for four players, or evenly on a circle for other tables, player 0 being at the bottom.
+     */
+    private void placePlayers() {
+        if (nbPlayers == GameState.NB_PLAYERS) {
+            System.arraycopy(HAND_LOCATIONS, 0, handLocations, 0, nbPlayers);
+            System.arraycopy(SCORE_LOCATIONS, 0, scoreLocations, 0, nbPlayers);
+            return;
+        }
+        Location center = TRICK_LOCATION;
+        for (int i = 0; i < nbPlayers; i++) {
+            double angle = 2 * Math.PI * i / nbPlayers;
+            handLocations[i] = new Location((int) Math.round(center.x - HAND_RADIUS * Math.sin(angle)),
+                    (int) Math.round(center.y + HAND_RADIUS * Math.cos(angle)));
+            // scores half a seat further round, clear of the hands
+            double scoreAngle = angle + Math.PI / nbPlayers;
+            scoreLocations[i] = new Location((int) Math.round(center.x - SCORE_RADIUS * Math.sin(scoreAngle)),
+                    (int) Math.round(center.y + SCORE_RADIUS * Math.cos(scoreAngle)));
+        }
+    }
+
+    /**
+     * Constructs a new CountingUpGame with the specified game properties. The table seats the
+     * "nbPlayers" property players, four by default, each dealt the "nbStartCards" property cards.
      *
      * @param properties The properties to configure the game.
+     * @throws IllegalArgumentException If the table cannot be dealt from a single deck.
      */
     public CountingUpGame(Properties properties) {
         super(700, 700, 30);
         this.properties = properties;
+        nbPlayers = GameState.checkNbPlayers(Integer.parseInt(
+                properties.getProperty("nbPlayers", String.valueOf(GameState.NB_PLAYERS)).trim()));
+        String nbStartCardsValue = properties.getProperty("nbStartCards");
+        nbStartCards = Dealer.checkNbStartCards(nbPlayers, nbStartCardsValue == null
+                ? Dealer.defaultNbStartCards(nbPlayers) : Integer.parseInt(nbStartCardsValue.trim()));
+        state = new GameState(nbPlayers);
+        scores = new int[nbPlayers];
+        autoIndexHands = new int[nbPlayers];
+        scoreActors = new Actor[nbPlayers];
+        handLocations = new Location[nbPlayers];
+        scoreLocations = new Location[nbPlayers];
+        placePlayers();
         isAuto = Boolean.parseBoolean(properties.getProperty("isAuto"));
         if (isAuto) {
             thinkingTime = 50;
@@ -0,0 +1,134 @@
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides the moves of a strategy on a worker thread, with a deadline for each move. The strategy searches
+ * on a copy of the state until the deadline with {@link IPlayStrategy#selectCard(GameState, long)}, and its
+ * move is used if it arrives in time. Otherwise the move is the first valid card, as
+ * {@link FundamentalStrategy} plays it, so that no turn takes longer than the time budget and a small grace.
+ * While a late search is still running, the strategy is not asked again and the following moves fall back
+ * as well, as a strategy decides one move at a time.
+ */
+public class DeadlineStrategy extends CompositePlayStrategy {
+
+    // Time the strategy is given past the deadline to return its move, in nanoseconds
+    private static final long GRACE_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+    private static final AtomicInteger nbWorkers = new AtomicInteger();
+    // Shared by all the players, the threads being created as the searches need them
+    private static final ExecutorService WORKERS = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "bot-thinking-" + nbWorkers.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final IPlayStrategy strategy;
+    private long timeBudgetNanos;
+    private final Executor executor;
+    // The copy of the state the strategy searches, the same object for every move of the state it copies,
+    // as IsmctsStrategy keeps its tree between the moves of the same state object
+    private GameState snapshot = new GameState();
+    private GameState snapshotSource = null;
+    private CompletableFuture<Integer> search = CompletableFuture.completedFuture(NO_MOVE);
+    private final LongAdder nbFallbacks = new LongAdder();
+
+    /**
+     * Constructs a strategy deciding the moves of another strategy on the shared worker threads.
+     *
+     * @param strategy The strategy deciding the moves.
+     * @param timeBudgetMillis The time allowed for each move, in milliseconds.
+     */
+    public DeadlineStrategy(IPlayStrategy strategy, long timeBudgetMillis) {
+        this(strategy, timeBudgetMillis, WORKERS);
+    }
+
+    /**
+     * Constructs a strategy deciding the moves of another strategy on the given executor.
+     *
+     * @param strategy The strategy deciding the moves.
+     * @param timeBudgetMillis The time allowed for each move, in milliseconds.
+     * @param executor The executor running the searches.
+     */
+    public DeadlineStrategy(IPlayStrategy strategy, long timeBudgetMillis, Executor executor) {
+        this.strategy = strategy;
+        this.timeBudgetNanos = timeBudgetMillis * NANOS_PER_MILLI;
+        this.executor = executor;
+    }
+
+    /**
+     * Changes the time allowed for the next moves. A search still running past its deadline keeps
+     * the wrapped strategy busy, so the next move falls back as with an unchanged budget.
+     *
+     * @param timeBudgetMillis The time allowed for each move, in milliseconds.
+     */
+    public synchronized void setTimeBudgetMillis(long timeBudgetMillis) {
+        timeBudgetNanos = timeBudgetMillis * NANOS_PER_MILLI;
+    }
+
+    /**
+     * Retrieves the number of moves decided by the fallback because the strategy was late.
+     *
+     * @return The number of fallback moves.
+     */
+    public long getNbFallbacks() {
+        return nbFallbacks.sum();
+    }
+
+    /**
+     * Asks the strategy for its move, without waiting for it. The state must not change until
+     * the move is known.
+     *
+     * @param state The state of the game, where the player to move is the current player.
+     * @return The move of the strategy, or the fallback move once the time budget and the grace have passed.
+     */
+    public synchronized CompletableFuture<Integer> requestMove(GameState state) {
+        int fallbackMove = strategies.get(0).selectCard(state);
+        if (!search.isDone()) {
+            nbFallbacks.increment();
+            return CompletableFuture.completedFuture(fallbackMove);
+        }
+
+        if (state != snapshotSource) {
+            snapshot = new GameState();
+            snapshotSource = state;
+        }
+        snapshot.copyFrom(state);
+        long deadline = System.nanoTime() + timeBudgetNanos;
+        search = CompletableFuture.supplyAsync(() -> strategy.selectCard(snapshot, deadline), executor);
+        // a copy completed by the search, or by the fallback while the search goes on
+        CompletableFuture<Integer> move = search.copy();
+        // run by the timer thread itself, whatever the load of the common pool
+        CompletableFuture.delayedExecutor(timeBudgetNanos + GRACE_NANOS, TimeUnit.NANOSECONDS, Runnable::run).execute(() -> {
+            // counted before the caller can see the fallback, and given back if the search won the race
+            nbFallbacks.increment();
+            if (!move.complete(fallbackMove)) {
+                nbFallbacks.decrement();
+            }
+        });
+        return move;
+    }
+
+    /**
+     * Determines the card to play, waiting at most the time budget and the grace for the strategy.
+     *
+     * @param state The state of the game.
+     * @return The id of the card of the strategy, or of the fallback if the strategy is late.
+     */
+    @Override
+    public int selectCard(GameState state) {
+        try {
+            return requestMove(state).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return strategies.get(0).selectCard(state);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("The strategy failed to decide", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,144 @@
+import java.util.SplittableRandom;
+
+/**
+ * Deals the cards of games from a base seed, so that any game of a batch can be dealt again from its
+ * index alone, in any order and on any thread.
+ * Game i is dealt by a {@link SplittableRandom} seeded with the i-th value of the sequence of
+ * {@code new SplittableRandom(baseSeed)}, which is computed directly from the index instead of by
+ * going through the whole sequence. The cards left after the preset cards are then drawn by a single
+ * Fisher-Yates shuffle over card ids.
+ */
+public class Dealer {
+
+    /**
+     * The number of cards dealt to each player by default.
+     */
+    public static final int DEFAULT_NB_START_CARDS = 13;
+
+    // Increment of the sequence of SplittableRandom
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final long baseSeed;
+
+    /**
+     * Constructs a dealer for the games of a batch.
+     *
+     * @param baseSeed The seed of the batch.
+     */
+    public Dealer(long baseSeed) {
+        this.baseSeed = baseSeed;
+    }
+
+    /**
+     * Returns the number of cards dealt to each player of a table by default: as many as with four players,
+     * or an equal share of the deck for larger tables.
+     *
+     * @param nbPlayers The number of players.
+     * @return The number of start cards.
+     */
+    public static int defaultNbStartCards(int nbPlayers) {
+        return Math.min(DEFAULT_NB_START_CARDS, CardBits.NB_CARDS / nbPlayers);
+    }
+
+    /**
+     * Checks that the deck holds enough cards for a table. The hands are sets of the cards of
+     * a single deck, so a table cannot be dealt more than the 52 cards of the deck.
+     *
+     * @param nbPlayers The number of players.
+     * @param nbStartCards The number of cards in each hand after dealing.
+     * @return The number of start cards.
+     * @throws IllegalArgumentException If the number of players is not supported or the deck is too small.
+     */
+    public static int checkNbStartCards(int nbPlayers, int nbStartCards) {
+        GameState.checkNbPlayers(nbPlayers);
+        if (nbStartCards < 1 || nbPlayers * nbStartCards > CardBits.NB_CARDS) {
+            throw new IllegalArgumentException("Cannot deal " + nbStartCards + " cards to " + nbPlayers
+                    + " players from a deck of " + CardBits.NB_CARDS + " cards");
+        }
+        return nbStartCards;
+    }
+
+    /**
+     * Creates the random generator of a game, which deals its cards and may then be split
+     * for the other random choices of the game.
+     *
+     * @param gameIndex The index of the game in the batch.
+     * @return A new random generator, the same for every call with the same index.
+     */
+    public SplittableRandom gameRandom(long gameIndex) {
+        return new SplittableRandom(mix64(baseSeed + (gameIndex + 1) * GOLDEN_GAMMA));
+    }
+
+    /**
+     * Deals the cards of a game.
+     *
+     * @param gameIndex The index of the game in the batch.
+     * @param presetHands The cards set for each player before dealing, as bitmasks.
+     * @param nbStartCards The number of cards in each hand after dealing.
+     * @return The bitmask of the hand of each player.
+     */
+    public long[] deal(long gameIndex, long[] presetHands, int nbStartCards) {
+        return deal(presetHands, nbStartCards, gameRandom(gameIndex));
+    }
+
+    /**
+     * Deals the cards of a game with the given random generator.
+     * Each player keeps its preset cards, unless an earlier player already has them, and receives cards
+     * drawn at random from the rest of the pack until its hand holds the number of start cards or the
+     * pack is empty.
+     *
+     * @param presetHands The cards set for each player before dealing, as bitmasks.
+     * @param nbStartCards The number of cards in each hand after dealing.
+     * @param random The random generator drawing the cards.
+     * @return The bitmask of the hand of each player.
+     */
+    public static long[] deal(long[] presetHands, int nbStartCards, SplittableRandom random) {
+        long[] hands = new long[presetHands.length];
+        long dealtCards = 0;
+        for (int i = 0; i < hands.length; i++) {
+            hands[i] = presetHands[i] & ~dealtCards;
+            dealtCards |= hands[i];
+        }
+
+        int[] pack = new int[CardBits.NB_CARDS];
+        int packSize = 0;
+        for (long rest = CardBits.ALL_CARDS & ~dealtCards; rest != 0; rest &= rest - 1) {
+            pack[packSize++] = Long.numberOfTrailingZeros(rest);
+        }
+
+        // Fisher-Yates: each card is drawn from the cards left, which fill the slot of the drawn card
+        for (int i = 0; i < hands.length; i++) {
+            for (int j = CardBits.size(hands[i]); j < nbStartCards && packSize > 0; j++) {
+                int index = random.nextInt(packSize);
+                hands[i] |= CardBits.bit(pack[index]);
+                pack[index] = pack[--packSize];
+            }
+        }
+        return hands;
+    }
+
+    /**
+     * Parses a list of cards such as the "players.N.initialcards" properties.
+     *
+     * @param cardsValue The comma-separated log names of the cards, or null.
+     * @return The bitmask of the cards, empty if the value is null.
+     */
+    public static long parseCards(String cardsValue) {
+        long cards = 0;
+        if (cardsValue == null) {
+            return cards;
+        }
+        for (String cardName : cardsValue.split(",")) {
+            if (cardName.length() > 1) {
+                cards |= CardBits.bit(CardBits.fromLog(cardName));
+            }
+        }
+        return cards;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
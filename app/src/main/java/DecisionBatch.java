@@ -0,0 +1,85 @@
+/**
+ * Holds many decision states at once, for strategies to decide them in one call without a {@link GameState}
+ * or a jcardgame {@link ch.aplu.jcardgame.Hand} for each of them. The states are kept as a structure of
+ * arrays, one primitive array for each field, so that a strategy walks each field in order in a tight loop.
+ * A decision is described by the hand of the player to move, the last card of the current round, the total
+ * rank value of the cards of the round and the cards played since the beginning of the game.
+ * A batch is meant to be filled once and then decided by several strategies, and is not thread-safe.
+ */
+public class DecisionBatch {
+
+    final long[] hands;
+    final int[] lastCards;
+    final int[] pointsInRound;
+    final long[] playedCards;
+    private int size = 0;
+
+    /**
+     * Constructs an empty batch.
+     *
+     * @param capacity The maximum number of decisions of the batch.
+     */
+    public DecisionBatch(int capacity) {
+        hands = new long[capacity];
+        lastCards = new int[capacity];
+        pointsInRound = new int[capacity];
+        playedCards = new long[capacity];
+    }
+
+    /**
+     * Adds a decision to the batch.
+     *
+     * @param hand The cards in the hand of the player to move.
+     * @param lastCard The last card played in the current round, or {@link CardBits#NO_CARD} if none.
+     * @param roundPoints The total rank value of the cards played in the current round.
+     * @param played The cards played since the beginning of the game, including those of the current round.
+     * @return The index of the decision in the batch.
+     * @throws IllegalStateException If the batch is full.
+     */
+    public int add(long hand, int lastCard, int roundPoints, long played) {
+        if (size == hands.length) {
+            throw new IllegalStateException("The batch holds at most " + hands.length + " decisions");
+        }
+        hands[size] = hand;
+        lastCards[size] = lastCard;
+        pointsInRound[size] = roundPoints;
+        playedCards[size] = played;
+        return size++;
+    }
+
+    /**
+     * Adds the decision of the player to move in a game state.
+     *
+     * @param state The state of the game, where the player to move is the current player.
+     * @return The index of the decision in the batch.
+     * @throws IllegalStateException If the batch is full.
+     */
+    public int add(GameState state) {
+        return add(state.getCurrentHand(), state.getLastCard(), state.getTrickRankTotal(), state.getPlayedCards());
+    }
+
+    /**
+     * Removes every decision, so that the batch can be filled again.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Retrieves the number of decisions in the batch.
+     *
+     * @return The number of decisions.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Retrieves the maximum number of decisions of the batch.
+     *
+     * @return The capacity of the batch.
+     */
+    public int getCapacity() {
+        return hands.length;
+    }
+}
@@ -0,0 +1,322 @@
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe cache of the decisions of a strategy, bounded by a number of entries and evicting
+ * the least recently used ones. A decision is keyed on a signature of the state, {@link KeyType#GAME} by
+ * default, holding everything a strategy of this game can base it on.
+ * The entries are spread over segments, each with its own lock and its own LRU order, so that threads
+ * rarely wait for each other. The hits, misses and evictions are counted for reporting.
+ */
+public class DecisionCache {
+
+    /** Result of {@link #get(GameState)} when the cache has no decision for a state. */
+    public static final int MISS = -2;
+
+    /**
+     * The signatures of the states keying the decisions.
+     */
+    public enum KeyType {
+        /**
+         * The hand of the player, the cards played so far, the cards of the current round, the last card,
+         * the number of skips in a row and the number of cards left to each opponent, in turn order.
+         * The scores are not part of the key, since the points still to win do not depend on them.
+         */
+        GAME,
+        /**
+         * The hand of the player, the number of cards of each rank still to be played, the sum of the ranks
+         * of the current round and the last card: all that {@link CleverStrategy} looks at. Much fewer
+         * states are told apart than with {@link #GAME}, so that more of them recur.
+         */
+        RANKS
+    }
+
+    /** Number of entries of a cache by default. */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    // Minimum number of entries of a segment, so that small caches keep an exact LRU order
+    private static final int MIN_SEGMENT_CAPACITY = 64;
+    private static final int MAX_SEGMENTS = 16;
+
+    // Caches shared by name, such as by player type, between the games of a batch
+    private static final Map<String, DecisionCache> SHARED_CACHES = new ConcurrentHashMap<>();
+
+    private final int capacity;
+    private final KeyType keyType;
+    private final Segment[] segments;
+    private final LongAdder nbHits = new LongAdder();
+    private final LongAdder nbMisses = new LongAdder();
+    private final LongAdder nbEvictions = new LongAdder();
+
+    /**
+     * Constructs an empty cache keyed on the {@link KeyType#GAME} signature.
+     *
+     * @param capacity The maximum number of entries of the cache.
+     */
+    public DecisionCache(int capacity) {
+        this(capacity, KeyType.GAME);
+    }
+
+    /**
+     * Constructs an empty cache.
+     *
+     * @param capacity The maximum number of entries of the cache.
+     * @param keyType The signature keying the decisions, which must hold everything the cached strategy looks at.
+     */
+    public DecisionCache(int capacity, KeyType keyType) {
+        this.capacity = capacity;
+        this.keyType = keyType;
+        int nbSegments = Integer.highestOneBit(Math.max(1, Math.min(MAX_SEGMENTS, capacity / MIN_SEGMENT_CAPACITY)));
+        segments = new Segment[nbSegments];
+        for (int i = 0; i < nbSegments; i++) {
+            segments[i] = new Segment(capacity / nbSegments + (i < capacity % nbSegments ? 1 : 0));
+        }
+    }
+
+    /**
+     * Returns the cache shared under the given name, creating it with the default capacity the first time.
+     *
+     * @param name The name of the cache, such as the type of the cached strategy.
+     * @param keyType The signature keying the decisions, used if the cache is created.
+     * @return The shared cache.
+     */
+    public static DecisionCache getShared(String name, KeyType keyType) {
+        return SHARED_CACHES.computeIfAbsent(name, key -> new DecisionCache(DEFAULT_CAPACITY, keyType));
+    }
+
+    /**
+     * Returns the caches shared so far, by name.
+     *
+     * @return A view of the shared caches.
+     */
+    public static Map<String, DecisionCache> getSharedCaches() {
+        return SHARED_CACHES;
+    }
+
+    /**
+     * Forgets the shared caches, so that the next players of a cached type share a new empty cache.
+     */
+    static void clearSharedCaches() {
+        SHARED_CACHES.clear();
+    }
+
+    /**
+     * Looks up the decision of the current player and counts a hit or a miss.
+     *
+     * @param state The state of the game.
+     * @return The id of the card to play, {@link IPlayStrategy#NO_MOVE} to skip, or {@link #MISS}.
+     */
+    public int get(GameState state) {
+        Key key = new Key(state, keyType);
+        Segment segment = segmentOf(key);
+        Integer move;
+        synchronized (segment) {
+            move = segment.get(key);
+        }
+        if (move == null) {
+            nbMisses.increment();
+            return MISS;
+        }
+        nbHits.increment();
+        return move;
+    }
+
+    /**
+     * Stores the decision of the current player, evicting the least recently used entry of its segment when full.
+     *
+     * @param state The state of the game.
+     * @param move The id of the card to play, or {@link IPlayStrategy#NO_MOVE} to skip.
+     */
+    public void put(GameState state, int move) {
+        Key key = new Key(state, keyType);
+        Segment segment = segmentOf(key);
+        synchronized (segment) {
+            segment.put(key, move);
+        }
+    }
+
+    private Segment segmentOf(Key key) {
+        return segments[key.hashCode() >>> 28 & segments.length - 1];
+    }
+
+    /**
+     * Retrieves the maximum number of entries of the cache.
+     *
+     * @return The capacity.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Retrieves the number of entries of the cache.
+     *
+     * @return The number of entries.
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Removes every entry of the cache. The counters are kept.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    /**
+     * Retrieves the number of lookups which found a decision.
+     *
+     * @return The number of hits.
+     */
+    public long getNbHits() {
+        return nbHits.sum();
+    }
+
+    /**
+     * Retrieves the number of lookups which found no decision.
+     *
+     * @return The number of misses.
+     */
+    public long getNbMisses() {
+        return nbMisses.sum();
+    }
+
+    /**
+     * Retrieves the number of entries evicted to make room for new ones.
+     *
+     * @return The number of evictions.
+     */
+    public long getNbEvictions() {
+        return nbEvictions.sum();
+    }
+
+    /**
+     * Computes the share of the lookups which found a decision.
+     *
+     * @return The hit rate, between 0 and 1, or 0 before any lookup.
+     */
+    public double getHitRate() {
+        long hits = getNbHits();
+        long lookups = hits + getNbMisses();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Describes the counters of the cache on one line.
+     *
+     * @return The size, hits, misses, hit rate and evictions of the cache.
+     */
+    public String report() {
+        return String.format("size=%d/%d hits=%d misses=%d hitRate=%.4f evictions=%d",
+                size(), capacity, getNbHits(), getNbMisses(), getHitRate(), getNbEvictions());
+    }
+
+    /**
+     * A segment of the cache, in LRU order: every access moves an entry to the end, and the first entry
+     * is evicted when the segment is full. Accesses must hold the lock of the segment.
+     */
+    private class Segment {
+        private final int segmentCapacity;
+        private final LinkedHashMap<Key, Integer> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+        Segment(int segmentCapacity) {
+            this.segmentCapacity = segmentCapacity;
+        }
+
+        Integer get(Key key) {
+            return entries.get(key);
+        }
+
+        void put(Key key, int move) {
+            entries.put(key, move);
+            if (entries.size() > segmentCapacity) {
+                Iterator<Key> eldest = entries.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+                nbEvictions.increment();
+            }
+        }
+
+        int size() {
+            return entries.size();
+        }
+
+        void clear() {
+            entries.clear();
+        }
+    }
+
+    /**
+     * The key of a decision. With {@link KeyType#GAME}, the cards of the player, of the game and of the round,
+     * with the number of players, the last card, the skip count and the hand size of each opponent packed in a long.
+     * With {@link KeyType#RANKS}, the cards of the player, the remaining count of each rank on 3 bits,
+     * and the sum of the ranks of the round with the last card.
+     */
+    private static final class Key {
+        private final long hand;
+        private final long playedCards;
+        private final long trick;
+        private final long round;
+
+        Key(GameState state, KeyType keyType) {
+            hand = state.getCurrentHand();
+            long packed = state.getLastCard() + 1;
+            if (keyType == KeyType.RANKS) {
+                long remainingCounts = 0;
+                for (int rankValue = 1; rankValue <= CardBits.NB_RANKS; rankValue++) {
+                    remainingCounts = remainingCounts << 3 | state.getCardTracker().getRemainingCount(rankValue);
+                }
+                playedCards = remainingCounts;
+                trick = state.getTrickRankTotal();
+                round = packed;
+                return;
+            }
+
+            playedCards = state.getPlayedCards();
+            long trickCards = 0;
+            for (int i = 0; i < state.getTrickSize(); i++) {
+                trickCards |= CardBits.bit(state.getTrickCard(i));
+            }
+            trick = trickCards;
+            // 4 + 6 + 3 + 7 * 6 bits at most
+            int nbPlayers = state.getNbPlayers();
+            packed = packed << 3 | state.getSkipCount();
+            packed = packed << 4 | nbPlayers;
+            for (int i = 1; i < nbPlayers; i++) {
+                packed = packed << 6 | state.getHandSize((state.getCurrentPlayer() + i) % nbPlayers);
+            }
+            round = packed;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return hand == key.hand && playedCards == key.playedCards && trick == key.trick && round == key.round;
+        }
+
+        @Override
+        public int hashCode() {
+            long hash = hand * 0x9e3779b97f4a7c15L + playedCards;
+            hash = hash * 0x9e3779b97f4a7c15L + trick;
+            hash = hash * 0x9e3779b97f4a7c15L + round;
+            return (int) (hash ^ hash >>> 32);
+        }
+    }
+}
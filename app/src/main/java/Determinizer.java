@@ -0,0 +1,97 @@
+import java.util.SplittableRandom;
+
+/**
+ * Samples the hidden information of a game from the point of view of the player to move.
+ * The cards that this player has not seen, neither in their hand nor played, are dealt at random
+ * to the other players, each of them receiving as many cards as they hold, which is consistent with
+ * the public play history. The sampled deals can then be played out with fast rollouts.
+ * A determinizer reuses its arrays from one sample to the next, so it must not be shared between threads.
+ */
+public class Determinizer {
+
+    private final GameState state;
+    private final int[] unseenCards;
+    private final int[] handSizes = new int[GameState.MAX_PLAYERS];
+    private final int[] deck;
+
+    /**
+     * Constructs a determinizer for the player to move in the given state.
+     *
+     * @param state The state of the game, which must not change while the determinizer is used.
+     */
+    public Determinizer(GameState state) {
+        this.state = state;
+        long unseen = CardBits.ALL_CARDS & ~state.getCurrentHand() & ~state.getPlayedCards();
+        unseenCards = new int[CardBits.size(unseen)];
+        for (int i = 0; i < unseenCards.length; i++) {
+            unseenCards[i] = Long.numberOfTrailingZeros(unseen);
+            unseen &= unseen - 1;
+        }
+        deck = new int[unseenCards.length];
+
+        int nbPlayers = state.getNbPlayers();
+        int totalSize = 0;
+        for (int i = 0; i < nbPlayers; i++) {
+            if (i != state.getCurrentPlayer()) {
+                handSizes[i] = state.getHandSize(i);
+                totalSize += handSizes[i];
+            }
+        }
+        // the other hands are not known with the Hand-based API, so the unseen cards are shared evenly
+        if (totalSize == 0) {
+            for (int i = 0; i < nbPlayers; i++) {
+                if (i != state.getCurrentPlayer()) {
+                    handSizes[i] = unseenCards.length / (nbPlayers - 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies the state into a sample where the hands of the other players are dealt at random.
+     *
+     * @param sample The state receiving the sampled deal.
+     * @param random The random generator of the deal.
+     */
+    public void deal(GameState sample, SplittableRandom random) {
+        int player = state.getCurrentPlayer();
+        sample.copyFrom(state);
+        System.arraycopy(unseenCards, 0, deck, 0, deck.length);
+        int deckSize = deck.length;
+        for (int i = 0; i < state.getNbPlayers(); i++) {
+            if (i == player) {
+                continue;
+            }
+            long hand = 0;
+            for (int j = 0; j < handSizes[i] && deckSize > 0; j++) {
+                int index = random.nextInt(deckSize);
+                hand |= CardBits.bit(deck[index]);
+                deck[index] = deck[--deckSize];
+            }
+            sample.setHand(i, hand);
+        }
+    }
+
+    /**
+     * Plays a sampled game out to the end, every player playing one of its lowest valid cards,
+     * and scores the cards left in the hands.
+     *
+     * @param sample The state to play out.
+     * @param random The random generator choosing between cards of the same rank.
+     */
+    public static void playOut(GameState sample, SplittableRandom random) {
+        while (!sample.isGameOver()) {
+            sample.playTurn(selectRolloutCard(sample, random));
+        }
+        sample.endGame();
+    }
+
+    private static int selectRolloutCard(GameState state, SplittableRandom random) {
+        long validCards = CardBits.validCards(state.getCurrentHand(), state.getLastCard());
+        if (validCards == 0) {
+            return CardBits.NO_CARD;
+        }
+        long lowestCards = validCards & CardBits.rankMask(CardBits.lowestRankValue(validCards));
+        return CardBits.nthCard(lowestCards, random.nextInt(CardBits.size(lowestCards)));
+    }
+}
@@ -1,3 +1,5 @@
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.Properties;
 
 /**
@@ -11,12 +13,71 @@ public class Driver {
      */
     public static final String DEFAULT_PROPERTIES_PATH = "properties/game2.properties";
 
+    /**
+     * The command-line argument selecting the batch mode.
+     */
+    public static final String BATCH_MODE = "batch";
+
+    /**
+     * The command-line argument selecting the replay mode.
+     */
+    public static final String REPLAY_MODE = "replay";
+
+    /**
+     * The command-line argument selecting the opening book mode.
+     */
+    public static final String BOOK_MODE = "book";
+
+    /**
+     * The command-line argument selecting the server mode.
+     */
+    public static final String SERVER_MODE = "server";
+
+    /**
+     * The system property selecting the format of the metrics printed during a batch, text or csv.
+     */
+    public static final String METRICS_PROPERTY = "metrics";
+
+    /**
+     * The system property giving the time between two metrics reports of a batch, in milliseconds.
+     */
+    public static final String METRICS_PERIOD_PROPERTY = "metrics.period";
+
     /**
      * The main entry point for the game application.
+     * Without arguments, one interactive game is played. With the arguments
+     * {@code batch <lineup> <nbGames> <baseSeed>}, where the lineup is a comma-separated list of
+     * 2 to 8 player types such as {@code random,basic,clever,random}, optionally suffixed by {@code -cached}, a batch of headless games is played
+     * in parallel and the aggregated results are printed, with the {@link GameMetrics} every second when the
+     * {@code metrics} system property is {@code text} or {@code csv}. An optional fifth argument names a file
+     * where the games are recorded in the format of {@link GameRecordFormat}. With the arguments
+     * {@code replay <recordFile>}, the recorded games are replayed and checked by {@link GameReplayer}.
+     * With the arguments {@code book <playerType> <nbGames> <baseSeed> <bookFile>}, an {@link OpeningBook}
+     * of the moves of the given player type is built from a batch of deals and saved; search strategies
+     * load it when the {@code openingBook} system property names the file, and the default book shipped
+     * with the application otherwise. With the arguments
+     * {@code server <port> [nbThreads]}, a {@link GameServer} hosts tables for remote humans until stdin ends.
      *
-     * @param args Command-line arguments (not used).
+     * @param args Command-line arguments.
      */
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals(BATCH_MODE)) {
+            runBatch(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals(REPLAY_MODE)) {
+            runReplay(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals(BOOK_MODE)) {
+            runBook(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals(SERVER_MODE)) {
+            runServer(args);
+            return;
+        }
+
         // Load the game properties from the default properties file
         final Properties properties = PropertiesLoader.loadPropertiesFile(DEFAULT_PROPERTIES_PATH);
 
@@ -26,4 +87,126 @@ public class Driver {
         // Print the game's log result to the console
         System.out.println("logResult = " + logResult);
     }
+
+    private static void runBatch(String[] args) {
+        if (args.length != 4 && args.length != 5) {
+            System.err.println("Usage: Driver " + BATCH_MODE + " <lineup> <nbGames> <baseSeed> [recordFile]");
+            return;
+        }
+        String[] playerTypes = args[1].split(",");
+        int nbGames = Integer.parseInt(args[2]);
+        long baseSeed = Long.parseLong(args[3]);
+
+        MetricsReporter reporter = startMetricsReporter();
+        long startTime = System.nanoTime();
+        TournamentResult result;
+        try {
+            if (args.length == 5) {
+                try (GameRecordWriter writer = new GameRecordWriter(Paths.get(args[4]))) {
+                    result = new TournamentRunner(playerTypes).run(nbGames, baseSeed, writer);
+                } catch (IOException e) {
+                    System.err.println("Cannot record the games: " + e.getMessage());
+                    return;
+                }
+            } else {
+                result = new TournamentRunner(playerTypes).run(nbGames, baseSeed);
+            }
+        } finally {
+            if (reporter != null) {
+                reporter.close();
+            }
+        }
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+
+        System.out.print(result.report());
+        DecisionCache.getSharedCaches().forEach((type, cache) -> System.out.println("Cache " + type + ": " + cache.report()));
+        System.out.printf("Elapsed: %.2f s (%.0f games/s)%n", seconds, nbGames / seconds);
+    }
+
+    private static MetricsReporter startMetricsReporter() {
+        String format = System.getProperty(METRICS_PROPERTY);
+        if (format == null) {
+            return null;
+        }
+        long periodMillis = Long.getLong(METRICS_PERIOD_PROPERTY, 1000);
+        return MetricsReporter.start(System.out, format.equalsIgnoreCase("csv") ? MetricsReporter.Format.CSV
+                : MetricsReporter.Format.TEXT, periodMillis);
+    }
+
+    private static void runReplay(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: Driver " + REPLAY_MODE + " <recordFile>");
+            return;
+        }
+        long startTime = System.nanoTime();
+        long nbMoves = 0;
+        long nbInvalid = 0;
+        long nbRecords;
+        try (GameRecordReader reader = new GameRecordReader(Paths.get(args[1]))) {
+            nbRecords = reader.getNbRecords();
+            GameReplayer replayer = new GameReplayer();
+            for (long record = 0; record < nbRecords; record++) {
+                ReplayResult result = replayer.replayRecord(reader, record);
+                nbMoves += result.getNbTurns();
+                if (!result.isValid()) {
+                    // Only the first invalid games are detailed
+                    if (nbInvalid < 10) {
+                        System.out.println("Game " + reader.getGameId(record) + ": " + result);
+                    }
+                    nbInvalid++;
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Cannot read the records: " + e.getMessage());
+            return;
+        }
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+
+        System.out.println("Games: " + nbRecords + ", invalid: " + nbInvalid);
+        System.out.printf("Elapsed: %.2f s (%.0f games/s, %.0f moves/s)%n", seconds, nbRecords / seconds, nbMoves / seconds);
+    }
+
+    private static void runBook(String[] args) {
+        if (args.length != 5) {
+            System.err.println("Usage: Driver " + BOOK_MODE + " <playerType> <nbGames> <baseSeed> <bookFile>");
+            return;
+        }
+        // the expert searches every ply rather than playing the moves of the default book
+        System.setProperty(OpeningBook.PATH_PROPERTY, "");
+        IPlayStrategy expert = PlayerFactory.getInstance().getPlayerStrategy(args[1]);
+        int nbGames = Integer.parseInt(args[2]);
+        long baseSeed = Long.parseLong(args[3]);
+
+        long startTime = System.nanoTime();
+        OpeningBook book = OpeningBook.build(expert, nbGames, baseSeed, OpeningBook.DEFAULT_NB_PLIES);
+        try {
+            book.save(Paths.get(args[4]));
+        } catch (IOException e) {
+            System.err.println("Cannot save the opening book: " + e.getMessage());
+            return;
+        }
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+
+        System.out.println("Entries: " + book.size());
+        System.out.printf("Elapsed: %.2f s%n", seconds);
+    }
+
+    private static void runServer(String[] args) {
+        if (args.length != 2 && args.length != 3) {
+            System.err.println("Usage: Driver " + SERVER_MODE + " <port> [nbThreads]");
+            return;
+        }
+        int port = Integer.parseInt(args[1]);
+        int nbThreads = args.length == 3 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        try (GameServer server = new GameServer(port, nbThreads)) {
+            server.start();
+            System.out.println("Listening on port " + server.getPort() + ", end the input to stop");
+            // the server threads are daemons, so the server runs as long as the input is open
+            while (System.in.read() >= 0) {
+                // discard the input
+            }
+        } catch (IOException e) {
+            System.err.println("Cannot run the server: " + e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,270 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Solves the end of a game exactly when every hand is known, as in a sampled deal.
+ * The search is a max^n search, the multi-player form of minimax: each player plays the move
+ * which maximises its own final score, given that the other players do the same. The value of a
+ * position is the score that each player will still gain, or lose for the cards left in its hand,
+ * until the end of the game. It only depends on the hands, the top card of the trick, the skip
+ * count, the points in the current round and the player to move, so positions reached by different
+ * move orders share their value through a fixed-size transposition table indexed by Zobrist keys.
+ * Players may skip while a card is on the trick, but never lead a round with a skip, so that the search
+ * always terminates. The gains of the players are packed in a long, so that tables of at most
+ * {@link #MAX_PLAYERS} players can be solved.
+ * A solver keeps its table from one search to the next, so it must not be shared between threads;
+ * the strategies share the solver of each thread, see {@link #forCurrentThread()}.
+ */
+public class EndgameSolver {
+
+    /** Number of cards left in all hands below which the strategies switch to the solver by default. */
+    public static final int DEFAULT_CARD_THRESHOLD = 8;
+
+    /** Largest number of players of a game the solver can solve. */
+    public static final int MAX_PLAYERS = 4;
+
+    // Number of bits of the default table index: 2^16 entries
+    private static final int DEFAULT_TABLE_BITS = 16;
+    // Points of a round when every card of the deck is on the trick
+    private static final int MAX_ROUND_POINTS = 376;
+    private static final int BITS_PER_GAIN = 16;
+    private static final long GAIN_MASK = (1L << BITS_PER_GAIN) - 1;
+    private static final long EMPTY_KEY = 0;
+
+    // Solver of each thread, shared by all the strategies searching on it
+    private static final ThreadLocal<EndgameSolver> THREAD_SOLVERS = ThreadLocal.withInitial(EndgameSolver::new);
+
+    // Zobrist keys of each card in each hand, of the top card (NO_CARD at index NB_CARDS),
+    // of the skip count, of the points in the round and of the player to move
+    private static final long[][] HAND_KEYS = new long[MAX_PLAYERS][CardBits.NB_CARDS];
+    private static final long[] TOP_CARD_KEYS = new long[CardBits.NB_CARDS + 1];
+    private static final long[] SKIP_COUNT_KEYS = new long[MAX_PLAYERS - 1];
+    private static final long[] POINTS_KEYS = new long[MAX_ROUND_POINTS + 1];
+    private static final long[] PLAYER_KEYS = new long[MAX_PLAYERS];
+
+    static {
+        // a fixed seed, so that the keys are the same from one run to the next
+        SplittableRandom random = new SplittableRandom(0x5EED);
+        for (long[] handKeys : HAND_KEYS) {
+            fillKeys(handKeys, random);
+        }
+        fillKeys(TOP_CARD_KEYS, random);
+        fillKeys(SKIP_COUNT_KEYS, random);
+        fillKeys(POINTS_KEYS, random);
+        fillKeys(PLAYER_KEYS, random);
+    }
+
+    private static void fillKeys(long[] keys, SplittableRandom random) {
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+        }
+    }
+
+    // Transposition table in buckets of two entries: the first entry keeps the position with the most
+    // cards left, the most expensive to search again, and the second entry is always replaced
+    private final int indexMask;
+    private final long[] keys;
+    private final long[] values;
+    private final byte[] nbCards;
+
+    private final long[] hands = new long[MAX_PLAYERS];
+    // Number of players of the game being solved
+    private int nbPlayers;
+    private long nbPositions = 0;
+    private long nbTableHits = 0;
+
+    /**
+     * Constructs a solver with a transposition table of the default size.
+     */
+    public EndgameSolver() {
+        this(DEFAULT_TABLE_BITS);
+    }
+
+    /**
+     * Constructs a solver with a transposition table of 2^tableBits entries.
+     *
+     * @param tableBits The number of bits of the table index.
+     */
+    public EndgameSolver(int tableBits) {
+        int size = 1 << tableBits;
+        indexMask = size - 2;
+        keys = new long[size];
+        values = new long[size];
+        nbCards = new byte[size];
+    }
+
+    /**
+     * Retrieves the solver of the current thread, with a table of the default size. Every game played on
+     * a thread shares its table, rather than allocating one per strategy: the value of a position does not
+     * depend on the game it comes from, and the table is cleared when the size of the table of players changes.
+     *
+     * @return The solver of the current thread.
+     */
+    public static EndgameSolver forCurrentThread() {
+        return THREAD_SOLVERS.get();
+    }
+
+    /**
+     * Checks whether a state is small enough to be solved.
+     *
+     * @param state The state of the game.
+     * @param cardThreshold The maximum number of cards left in all hands.
+     * @return true if the game is not over, has at most {@link #MAX_PLAYERS} players and there are at most
+     *         cardThreshold cards in the hands.
+     */
+    public static boolean canSolve(GameState state, int cardThreshold) {
+        if (state.isGameOver() || state.getNbPlayers() > MAX_PLAYERS) {
+            return false;
+        }
+        int nbCardsLeft = 0;
+        for (int i = 0; i < state.getNbPlayers(); i++) {
+            nbCardsLeft += state.getHandSize(i);
+        }
+        return nbCardsLeft <= cardThreshold;
+    }
+
+    /**
+     * Solves the rest of a game where all hands are known.
+     *
+     * @param state The state of the game, which must not be over.
+     * @return The packed gains of the players until the end of the game, read with {@link #getGain(long, int)}.
+     */
+    public long solve(GameState state) {
+        if (state.getNbPlayers() != nbPlayers) {
+            // positions of tables of another size have other values
+            Arrays.fill(keys, EMPTY_KEY);
+            nbPlayers = state.getNbPlayers();
+        }
+        long handsKey = 0;
+        for (int i = 0; i < nbPlayers; i++) {
+            hands[i] = state.getHand(i);
+            for (long rest = hands[i]; rest != 0; rest &= rest - 1) {
+                handsKey ^= HAND_KEYS[i][Long.numberOfTrailingZeros(rest)];
+            }
+        }
+        return search(state.getCurrentPlayer(), state.getLastCard(), state.getSkipCount(), state.getTrickPoints(),
+                handsKey);
+    }
+
+    /**
+     * Retrieves the gain of a player from the packed gains returned by {@link #solve(GameState)}.
+     *
+     * @param gains The packed gains.
+     * @param player The player index.
+     * @return The score gained by the player until the end of the game, negative if it loses points.
+     */
+    public static int getGain(long gains, int player) {
+        return (short) (gains >>> (BITS_PER_GAIN * player));
+    }
+
+    /**
+     * Retrieves the number of positions searched since the solver was created.
+     *
+     * @return The number of positions.
+     */
+    public long getNbPositions() {
+        return nbPositions;
+    }
+
+    /**
+     * Retrieves the number of positions found in the transposition table since the solver was created.
+     *
+     * @return The number of table hits.
+     */
+    public long getNbTableHits() {
+        return nbTableHits;
+    }
+
+    private long search(int player, int topCard, int skipCount, int points, long handsKey) {
+        nbPositions++;
+        long key = handsKey ^ TOP_CARD_KEYS[topCard == CardBits.NO_CARD ? CardBits.NB_CARDS : topCard]
+                ^ SKIP_COUNT_KEYS[skipCount] ^ POINTS_KEYS[points] ^ PLAYER_KEYS[player];
+        if (key == EMPTY_KEY) {
+            key = 1;
+        }
+        int index = (int) key & indexMask;
+        if (keys[index] == key) {
+            nbTableHits++;
+            return values[index];
+        }
+        if (keys[index + 1] == key) {
+            nbTableHits++;
+            return values[index + 1];
+        }
+
+        int nextPlayer = (player + 1) % nbPlayers;
+        long bestGains = 0;
+        int bestGain = Integer.MIN_VALUE;
+        long validCards = CardBits.validCards(hands[player], topCard);
+        for (long rest = validCards; rest != 0; rest &= rest - 1) {
+            int card = Long.numberOfTrailingZeros(rest);
+            int roundPoints = points + CardBits.scoreValue(card);
+            hands[player] &= ~CardBits.bit(card);
+            long gains;
+            if (hands[player] == 0) {
+                gains = endGame(player, roundPoints);
+            } else {
+                gains = search(nextPlayer, card, 0, roundPoints, handsKey ^ HAND_KEYS[player][card]);
+            }
+            hands[player] |= CardBits.bit(card);
+            if (getGain(gains, player) > bestGain) {
+                bestGain = getGain(gains, player);
+                bestGains = gains;
+            }
+        }
+
+        if (topCard != CardBits.NO_CARD || validCards == 0) {
+            long gains;
+            if (skipCount + 1 == nbPlayers - 1) {
+                // the next player wins the round and leads the next one
+                gains = addGain(search(nextPlayer, CardBits.NO_CARD, 0, 0, handsKey), nextPlayer, points);
+            } else {
+                gains = search(nextPlayer, topCard, skipCount + 1, points, handsKey);
+            }
+            if (getGain(gains, player) > bestGain) {
+                bestGains = gains;
+            }
+        }
+
+        store(index, key, bestGains);
+        return bestGains;
+    }
+
+    /**
+     * Scores the end of the game: the player who emptied its hand wins the round, and every other
+     * player loses the score of its hand.
+     */
+    private long endGame(int player, int points) {
+        long gains = addGain(0, player, points);
+        for (int i = 0; i < nbPlayers; i++) {
+            gains = addGain(gains, i, -CardBits.scoreOf(hands[i]));
+        }
+        return gains;
+    }
+
+    private static long addGain(long gains, int player, int gain) {
+        int shift = BITS_PER_GAIN * player;
+        long playerGain = (getGain(gains, player) + gain) & GAIN_MASK;
+        return gains & ~(GAIN_MASK << shift) | playerGain << shift;
+    }
+
+    private void store(int index, long key, long gains) {
+        byte cardsLeft = 0;
+        for (int i = 0; i < nbPlayers; i++) {
+            cardsLeft += (byte) CardBits.size(hands[i]);
+        }
+        if (keys[index] == EMPTY_KEY || cardsLeft >= nbCards[index]) {
+            // the replaced entry still deserves the always-replaced entry
+            keys[index + 1] = keys[index];
+            values[index + 1] = values[index];
+            nbCards[index + 1] = nbCards[index];
+            keys[index] = key;
+            values[index] = gains;
+            nbCards[index] = cardsLeft;
+        } else {
+            keys[index + 1] = key;
+            values[index + 1] = gains;
+            nbCards[index + 1] = cardsLeft;
+        }
+    }
+}
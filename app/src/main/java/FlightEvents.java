@@ -0,0 +1,198 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.StringJoiner;
+
+/**
+ * The Java Flight Recorder events of the games, so that a recording of a simulation run can relate
+ * GC pauses or CPU spikes to the games, rounds and strategies running at the time. Events are only
+ * filled when they are recorded: while no recording runs, each hook costs the check of a flag.
+ * Recording is started as usual, for example with {@code -XX:StartFlightRecording}, and the events
+ * are found under the "Counting Up" category.
+ */
+public final class FlightEvents {
+
+    private FlightEvents() {
+    }
+
+    /**
+     * A game dealt and about to be played.
+     */
+    @Name("countingup.GameStart")
+    @Label("Game Start")
+    @Category({ "Counting Up", "Game" })
+    @Description("A game dealt and about to be played")
+    @StackTrace(false)
+    public static class GameStart extends Event {
+        @Label("Players")
+        @Description("The type of each player, in seat order")
+        String players;
+    }
+
+    /**
+     * A game played to the end, lasting from its first turn to its final scoring.
+     */
+    @Name("countingup.GameEnd")
+    @Label("Game End")
+    @Category({ "Counting Up", "Game" })
+    @Description("A game played to the end, lasting from its first turn to its final scoring")
+    @StackTrace(false)
+    public static class GameEnd extends Event {
+        @Label("Rounds")
+        int rounds;
+
+        @Label("Turns")
+        int turns;
+
+        @Label("Scores")
+        @Description("The final score of each player, in seat order")
+        String scores;
+    }
+
+    /**
+     * A round ended, its trick being scored by its winner.
+     */
+    @Name("countingup.RoundEnd")
+    @Label("Round End")
+    @Category({ "Counting Up", "Game" })
+    @Description("A round ended, its trick being scored by its winner")
+    @StackTrace(false)
+    public static class RoundEnd extends Event {
+        @Label("Round")
+        int round;
+
+        @Label("Winner")
+        int winner;
+
+        @Label("Points")
+        @Description("The points of the trick won")
+        int points;
+
+        @Label("Cards")
+        @Description("The number of cards of the trick won")
+        int cards;
+    }
+
+    /**
+     * A card chosen or a skip decided by a strategy. The duration of the event is the decision time.
+     */
+    @Name("countingup.Decision")
+    @Label("Strategy Decision")
+    @Category({ "Counting Up", "Strategy" })
+    @Description("A card chosen or a skip decided by a strategy, lasting as long as the strategy took to decide")
+    @StackTrace(false)
+    public static class Decision extends Event {
+        @Label("Strategy")
+        String strategy;
+
+        @Label("Player")
+        int player;
+
+        @Label("Valid Cards")
+        @Description("The number of cards the player could play, a skip being always possible")
+        int validCards;
+
+        @Label("Move")
+        @Description("The card played, or SKIP")
+        String move;
+    }
+
+    /**
+     * Starts timing a decision, to be committed by {@link #commitDecision(Decision, IPlayStrategy, GameState, int)}.
+     *
+     * @return The decision event.
+     */
+    public static Decision beginDecision() {
+        Decision event = new Decision();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Records a decision if decisions are being recorded.
+     *
+     * @param event The event returned by {@link #beginDecision()} before the decision.
+     * @param strategy The strategy which decided.
+     * @param state The state of the game the strategy decided on, before the move is played.
+     * @param move The card chosen, or {@link IPlayStrategy#NO_MOVE} for a skip.
+     */
+    public static void commitDecision(Decision event, IPlayStrategy strategy, GameState state, int move) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.strategy = strategy.getClass().getSimpleName();
+            event.player = state.getCurrentPlayer();
+            event.validCards = CardBits.size(CardBits.validCards(state.getCurrentHand(), state.getLastCard()));
+            event.move = move == IPlayStrategy.NO_MOVE ? "SKIP" : CardBits.toLog(move);
+            event.commit();
+        }
+    }
+
+    /**
+     * Records the start of a game if games are being recorded.
+     *
+     * @param playerTypes The type of each player, in seat order.
+     */
+    public static void gameStarted(String[] playerTypes) {
+        GameStart event = new GameStart();
+        if (event.shouldCommit()) {
+            event.players = String.join(",", playerTypes);
+            event.commit();
+        }
+    }
+
+    /**
+     * Starts timing a game, to be committed by {@link #commitGameEnd(GameEnd, int, int, int[])}.
+     *
+     * @return The game event.
+     */
+    public static GameEnd beginGame() {
+        GameEnd event = new GameEnd();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Records the end of a game if games are being recorded.
+     *
+     * @param event The event returned by {@link #beginGame()} at the start of the game.
+     * @param rounds The number of rounds of the game.
+     * @param turns The number of turns of the game.
+     * @param scores The final score of each player.
+     */
+    public static void commitGameEnd(GameEnd event, int rounds, int turns, int[] scores) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.rounds = rounds;
+            event.turns = turns;
+            StringJoiner joiner = new StringJoiner(",");
+            for (int score : scores) {
+                joiner.add(String.valueOf(score));
+            }
+            event.scores = joiner.toString();
+            event.commit();
+        }
+    }
+
+    /**
+     * Records the end of a round if rounds are being recorded.
+     *
+     * @param round The round number, starting from 1.
+     * @param winner The player index of the winner of the trick.
+     * @param points The points of the trick.
+     * @param cards The number of cards of the trick.
+     */
+    public static void roundEnded(int round, int winner, int points, int cards) {
+        RoundEnd event = new RoundEnd();
+        if (event.shouldCommit()) {
+            event.round = round;
+            event.winner = winner;
+            event.points = points;
+            event.cards = cards;
+            event.commit();
+        }
+    }
+}
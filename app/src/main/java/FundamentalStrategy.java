@@ -1,36 +1,16 @@
 import ch.aplu.jcardgame.*;
 import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Represents the fundamental strategy for playing cards.
  * This strategy determines the valid cards a player can play based on the game's rules.
  */
 public class FundamentalStrategy implements IPlayStrategy {
-    /**
-     * Checks if a selected card is valid to play based on the leading card.
-     *
-     * @param selected     The card the player wants to play.
-     * @param leadingCard  The leading card of the current round.
-     * @return true if the selected card is valid to play, false otherwise.
-     */
-    private boolean isValidCard(Card selected, Card leadingCard) {
-//        if (leadingCard == null) {
-//            return true;
-//        }
-        int selected_rank = Rank.valueOf(selected.getRank().name()).getRankCardValue();
-        int leading_rank = Rank.valueOf(leadingCard.getRank().name()).getRankCardValue();
-
-        if (selected.getSuitId() == leadingCard.getSuitId() && selected_rank > leading_rank ||
-                selected_rank == leading_rank && selected.getSuitId() != leadingCard.getSuitId()) {
-            return true;
-        }
-
-        return false;
-    }
 
     /**
      * Determines the valid cards a player can play based on the game's rules.
+     * The rules are evaluated on the bitmask model of {@link CardBits}, so following a card
+     * only intersects the hand with the precomputed set of cards playable after it.
      *
      * @param hand         The player's current hand.
      * @param playedCards  The cards that have been played in the current round.
@@ -38,26 +18,49 @@ public class FundamentalStrategy implements IPlayStrategy {
      */
     @Override
     public ArrayList<Card> getCardsToPlay(Hand hand, ArrayList<Card> playedCards) {
-        ArrayList<Card> validCardsToPlay = new ArrayList<>();
-        // if there are no cards played in this round
+        ArrayList<Card> cards = hand.getCardList();
+        long validCards;
         if (playedCards.isEmpty()) {
-            // if this is the first round, player only plays the ace of clubs
-            for (Card card : hand.getCardsWithRank(Rank.ACE)) {
-                if (card.getSuit() == Suit.CLUBS) {
-                    validCardsToPlay.add(card);
-                    return validCardsToPlay;
-                }
-            }
-            //otherwise, the player can play all cards
-            validCardsToPlay = hand.getCardList();
+            // the Ace of Clubs rule depends on the whole hand
+            validCards = CardBits.validCards(CardBits.toMask(cards), CardBits.NO_CARD);
         } else {
-            // find all valid cards the player can play
-            for (Card card : hand.getCardList()) {
-                if (isValidCard(card, playedCards.get(playedCards.size() - 1))) {
-                    validCardsToPlay.add(card);
-                }
+            validCards = CardBits.playableAfter(CardBits.cardId(playedCards.get(playedCards.size() - 1)));
+        }
+
+        ArrayList<Card> validCardsToPlay = new ArrayList<>(CardBits.size(validCards));
+        for (Card card : cards) {
+            if (CardBits.contains(validCards, CardBits.cardId(card))) {
+                validCardsToPlay.add(card);
             }
         }
         return validCardsToPlay;
     }
+
+    /**
+     * Selects the first valid card of the current player's hand.
+     *
+     * @param state The state of the game.
+     * @return The id of the lowest valid card, or {@link #NO_MOVE} if no card is valid.
+     */
+    @Override
+    public int selectCard(GameState state) {
+        long validCards = selectCandidateCards(state);
+        return validCards == 0 ? NO_MOVE : CardBits.firstCard(validCards);
+    }
+
+    /**
+     * Selects the first valid card of each decision of a batch.
+     *
+     * @param batch The decisions.
+     * @param moves Filled with the id of the lowest valid card of each decision, or {@link #NO_MOVE}
+     *              if no card is valid, from index 0 to the size of the batch.
+     */
+    public void selectCards(DecisionBatch batch, int[] moves) {
+        long[] hands = batch.hands;
+        int[] lastCards = batch.lastCards;
+        for (int i = 0, size = batch.size(); i < size; i++) {
+            long validCards = CardBits.validCards(hands[i], lastCards[i]);
+            moves[i] = validCards == 0 ? NO_MOVE : CardBits.firstCard(validCards);
+        }
+    }
 }
@@ -0,0 +1,55 @@
+/**
+ * Receives the events of a CountingUpGame as they happen, so that games can be logged
+ * without holding their whole log in memory. Cards are card ids of {@link CardBits}.
+ * The arrays passed to the events belong to the game and must not be kept by the sink.
+ * Every event does nothing by default, so that a sink only implements the events it needs.
+ */
+public interface GameEventSink {
+
+    /** Sink ignoring every event, for games which are not logged. */
+    GameEventSink NONE = new GameEventSink() { };
+
+    /**
+     * Called once the cards have been dealt.
+     *
+     * @param hands The bitmask of the hand of each player.
+     */
+    default void gameStarted(long[] hands) { }
+
+    /**
+     * Called at the beginning of each round, before its first move.
+     *
+     * @param roundNumber The round number, starting from 1.
+     */
+    default void roundStarted(int roundNumber) { }
+
+    /**
+     * Called when a player plays a card.
+     *
+     * @param player The player index.
+     * @param card The card id.
+     */
+    default void cardPlayed(int player, int card) { }
+
+    /**
+     * Called when a player skips.
+     *
+     * @param player The player index.
+     */
+    default void skipped(int player) { }
+
+    /**
+     * Called at the end of each round, including the last round of the game.
+     *
+     * @param scores The score of each player.
+     */
+    default void roundEnded(int[] scores) { }
+
+    /**
+     * Called at the end of the game, once the cards left in the hands have been scored.
+     *
+     * @param scores The final score of each player.
+     * @param winners The bitmask of the winners, bit i being set if player i won.
+     */
+    default void gameEnded(int[] scores, int winners) { }
+}
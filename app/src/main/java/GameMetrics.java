@@ -0,0 +1,318 @@
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects the metrics of the games played in this JVM: the latency of the decisions of each strategy,
+ * and the number of games, turns, skips and rounds with the memory allocated by the games.
+ * Metrics are off by default, or on when the {@code metrics} system property is set. When they are off,
+ * each hook of the game loops costs a single read of a flag. When they are on, each thread records into
+ * its own counters, which {@link #snapshot()} sums, so that parallel games do not contend.
+ */
+public class GameMetrics {
+
+    private static final GameMetrics instance = new GameMetrics();
+
+    private volatile boolean enabled = System.getProperty("metrics") != null;
+    private final Queue<Recorder> recorders = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Recorder> recorder = ThreadLocal.withInitial(this::newRecorder);
+    private final java.lang.management.ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+    private GameMetrics() {
+    }
+
+    /**
+     * Returns the singleton instance of GameMetrics.
+     *
+     * @return The singleton instance.
+     */
+    public static GameMetrics getInstance() {
+        return instance;
+    }
+
+    /**
+     * Tells whether metrics are recorded.
+     *
+     * @return true if the hooks record, false if they do nothing.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turns the recording of metrics on or off. The metrics recorded so far are kept.
+     *
+     * @param enabled true to record metrics.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    private Recorder newRecorder() {
+        Recorder newRecorder = new Recorder();
+        recorders.add(newRecorder);
+        return newRecorder;
+    }
+
+    /**
+     * Starts timing a decision, to be passed to {@link #recordDecision(IPlayStrategy, long)}.
+     *
+     * @return The current time in nanoseconds, or 0 if metrics are off.
+     */
+    public long startDecision() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the latency of a decision of a strategy, counted per class of strategy.
+     *
+     * @param strategy The strategy which decided.
+     * @param startTime The time returned by {@link #startDecision()} before the decision.
+     */
+    public void recordDecision(IPlayStrategy strategy, long startTime) {
+        if (startTime != 0 && enabled) {
+            long latency = System.nanoTime() - startTime;
+            recorder.get().histogram(strategy.getClass().getSimpleName()).record(latency);
+        }
+    }
+
+    /**
+     * Records the start of a game played by the current thread, to measure what it allocates.
+     */
+    public void gameStarted() {
+        if (enabled) {
+            recorder.get().gameStarted(allocatedBytes());
+        }
+    }
+
+    /**
+     * Records a turn of a game.
+     *
+     * @param skipped true if the player skipped.
+     */
+    public void turnPlayed(boolean skipped) {
+        if (enabled) {
+            Recorder threadRecorder = recorder.get();
+            increment(threadRecorder.nbTurns);
+            if (skipped) {
+                increment(threadRecorder.nbSkips);
+            }
+        }
+    }
+
+    /**
+     * Records the end of a game played by the current thread.
+     *
+     * @param nbRounds The number of rounds of the game.
+     */
+    public void gameEnded(int nbRounds) {
+        if (enabled) {
+            recorder.get().gameEnded(nbRounds, allocatedBytes());
+        }
+    }
+
+    // Bytes allocated by the current thread so far, or -1 if the JVM cannot tell
+    private long allocatedBytes() {
+        if (threadBean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threadBean).getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    // Counters are only written by their own thread
+    private static void increment(AtomicLong counter) {
+        add(counter, 1);
+    }
+
+    private static void add(AtomicLong counter, long value) {
+        counter.lazySet(counter.get() + value);
+    }
+
+    /**
+     * Sums the metrics recorded by all threads so far.
+     *
+     * @return The metrics at this time.
+     */
+    public Snapshot snapshot() {
+        Snapshot snapshot = new Snapshot(System.nanoTime());
+        for (Recorder threadRecorder : recorders) {
+            snapshot.nbGames += threadRecorder.nbGames.get();
+            snapshot.nbTurns += threadRecorder.nbTurns.get();
+            snapshot.nbSkips += threadRecorder.nbSkips.get();
+            snapshot.nbRounds += threadRecorder.nbRounds.get();
+            snapshot.allocatedBytes += threadRecorder.allocatedBytes.get();
+            threadRecorder.histograms.forEach((strategy, histogram) ->
+                    snapshot.histograms.computeIfAbsent(strategy, key -> new LatencyHistogram()).add(histogram));
+        }
+        return snapshot;
+    }
+
+    /**
+     * The metrics of all threads at a given time. Rates are computed against an earlier snapshot,
+     * and the latencies are those of every decision recorded so far.
+     */
+    public static class Snapshot {
+        /** Header of the lines of {@link #toCsv(Snapshot)}. */
+        public static final String CSV_HEADER = "seconds,games,gamesPerSecond,movesPerSecond,roundsPerGame,"
+                + "skipRatio,bytesPerGame,strategy,decisions,meanNanos,p50Nanos,p90Nanos,p99Nanos,p999Nanos,maxNanos";
+
+        private final long time;
+        private long nbGames;
+        private long nbTurns;
+        private long nbSkips;
+        private long nbRounds;
+        private long allocatedBytes;
+        // Sorted by strategy, so that reports list them in a stable order
+        private final Map<String, LatencyHistogram> histograms = new TreeMap<>();
+
+        private Snapshot(long time) {
+            this.time = time;
+        }
+
+        /**
+         * Retrieves the number of games ended.
+         *
+         * @return The number of games.
+         */
+        public long getNbGames() {
+            return nbGames;
+        }
+
+        /**
+         * Retrieves the number of turns played, skips included.
+         *
+         * @return The number of turns.
+         */
+        public long getNbTurns() {
+            return nbTurns;
+        }
+
+        /**
+         * Retrieves the number of turns skipped.
+         *
+         * @return The number of skips.
+         */
+        public long getNbSkips() {
+            return nbSkips;
+        }
+
+        /**
+         * Retrieves the number of rounds of the games ended.
+         *
+         * @return The number of rounds.
+         */
+        public long getNbRounds() {
+            return nbRounds;
+        }
+
+        /**
+         * Retrieves the number of bytes allocated by the games ended.
+         *
+         * @return The number of bytes, 0 if the JVM cannot measure allocations.
+         */
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        /**
+         * Retrieves the decision latencies of a class of strategy.
+         *
+         * @param strategy The simple class name of the strategy, such as CleverStrategy.
+         * @return The histogram of the latencies, or null if the strategy never decided.
+         */
+        public LatencyHistogram getLatencies(String strategy) {
+            return histograms.get(strategy);
+        }
+
+        private double perSecond(long count, long previousCount, Snapshot previous) {
+            double seconds = (time - previous.time) / 1e9;
+            return seconds <= 0 ? 0 : (count - previousCount) / seconds;
+        }
+
+        private static double ratio(long count, long total) {
+            return total == 0 ? 0 : (double) count / total;
+        }
+
+        /**
+         * Describes the metrics as text, one line for the games and one line per strategy.
+         *
+         * @param previous The earlier snapshot the rates are computed from.
+         * @return The text report.
+         */
+        public String toText(Snapshot previous) {
+            StringBuilder report = new StringBuilder();
+            report.append(String.format("Games: %d (%.0f games/s, %.0f moves/s), rounds/game: %.2f, skip ratio: %.4f, "
+                            + "bytes/game: %.0f%n", nbGames, perSecond(nbGames, previous.nbGames, previous),
+                    perSecond(nbTurns, previous.nbTurns, previous), ratio(nbRounds, nbGames),
+                    ratio(nbSkips, nbTurns), ratio(allocatedBytes, nbGames)));
+            histograms.forEach((strategy, histogram) -> report.append(String.format(
+                    "  %s: %d decisions, mean %.0f ns, p50 %d ns, p90 %d ns, p99 %d ns, p99.9 %d ns, max %d ns%n",
+                    strategy, histogram.getCount(), histogram.getMean(), histogram.getValueAtPercentile(50),
+                    histogram.getValueAtPercentile(90), histogram.getValueAtPercentile(99),
+                    histogram.getValueAtPercentile(99.9), histogram.getMax())));
+            return report.toString();
+        }
+
+        /**
+         * Describes the metrics as lines of {@link #CSV_HEADER}, one per strategy, or a single line
+         * without latencies if no strategy decided.
+         *
+         * @param previous The earlier snapshot the rates and the seconds are computed from.
+         * @return The CSV lines, each ending with a line separator.
+         */
+        public String toCsv(Snapshot previous) {
+            String games = String.format(Locale.ROOT, "%.3f,%d,%.1f,%.1f,%.3f,%.5f,%.0f", (time - previous.time) / 1e9, nbGames,
+                    perSecond(nbGames, previous.nbGames, previous), perSecond(nbTurns, previous.nbTurns, previous),
+                    ratio(nbRounds, nbGames), ratio(nbSkips, nbTurns), ratio(allocatedBytes, nbGames));
+            if (histograms.isEmpty()) {
+                return games + ",,,,,,,," + System.lineSeparator();
+            }
+            StringBuilder report = new StringBuilder();
+            histograms.forEach((strategy, histogram) -> report.append(String.format(Locale.ROOT, "%s,%s,%d,%.0f,%d,%d,%d,%d,%d%n",
+                    games, strategy, histogram.getCount(), histogram.getMean(), histogram.getValueAtPercentile(50),
+                    histogram.getValueAtPercentile(90), histogram.getValueAtPercentile(99),
+                    histogram.getValueAtPercentile(99.9), histogram.getMax())));
+            return report.toString();
+        }
+    }
+
+    /**
+     * The metrics recorded by one thread.
+     */
+    private static class Recorder {
+        private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+        private final AtomicLong nbGames = new AtomicLong();
+        private final AtomicLong nbTurns = new AtomicLong();
+        private final AtomicLong nbSkips = new AtomicLong();
+        private final AtomicLong nbRounds = new AtomicLong();
+        private final AtomicLong allocatedBytes = new AtomicLong();
+        private long gameStartBytes = -1;
+
+        LatencyHistogram histogram(String strategy) {
+            LatencyHistogram histogram = histograms.get(strategy);
+            if (histogram == null) {
+                histogram = new LatencyHistogram();
+                histograms.put(strategy, histogram);
+            }
+            return histogram;
+        }
+
+        void gameStarted(long bytes) {
+            gameStartBytes = bytes;
+        }
+
+        void gameEnded(int nbGameRounds, long bytes) {
+            increment(nbGames);
+            add(nbRounds, nbGameRounds);
+            if (gameStartBytes >= 0 && bytes >= 0) {
+                add(allocatedBytes, bytes - gameStartBytes);
+            }
+            gameStartBytes = -1;
+        }
+    }
+}
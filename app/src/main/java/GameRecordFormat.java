@@ -0,0 +1,85 @@
+/**
+ * Defines the binary format of the game record files written by {@link GameRecordWriter}
+ * and read by {@link GameRecordReader}.
+ * A file starts with a header of {@link #HEADER_SIZE} bytes: the magic number, the version, and the
+ * maximum number of turns and of rounds of its records. Then every game takes one record of the same
+ * size, so that record i starts at HEADER_SIZE + i * recordSize. All numbers are big-endian.
+ * <pre>
+ *  0  long      game id
+ *  8  long[4]   hand dealt to each player, as a card bitmask
+ * 40  short[4]  final score of each player
+ * 48  short     number of turns recorded
+ * 50  byte      number of rounds recorded
+ * 51  byte      player of the first turn, the next turns going round the table
+ * 52  byte      bitmask of the winners
+ * 53  byte      flags, see {@link #TRUNCATED}
+ * 56  byte[]    move of each turn (maximum turns): the card id, or {@link #SKIP} for a skip
+ * ..  round[]   each round (maximum rounds): short index of the turn after its last turn, short[4] scores
+ * </pre>
+ * Records are padded to a multiple of 8 bytes.
+ */
+public final class GameRecordFormat {
+
+    /** Magic number at the start of a record file: "CUGR". */
+    public static final int MAGIC = 0x43554752;
+
+    /** Version of the format. */
+    public static final short VERSION = 1;
+
+    /** Size of the file header, in bytes. */
+    public static final int HEADER_SIZE = 16;
+
+    /** Maximum number of turns of a record by default, more than any game played by the bots so far. */
+    public static final int DEFAULT_MAX_TURNS = 128;
+
+    /** Maximum number of rounds of a record by default. */
+    public static final int DEFAULT_MAX_ROUNDS = 24;
+
+    /** Move of a turn where the player skipped. */
+    public static final int SKIP = CardBits.NB_CARDS;
+
+    /** Flag of a game which had more turns or rounds than its record can hold. */
+    public static final int TRUNCATED = 1;
+
+    static final int MAGIC_OFFSET = 0;
+    static final int VERSION_OFFSET = 4;
+    static final int MAX_TURNS_OFFSET = 6;
+    static final int MAX_ROUNDS_OFFSET = 8;
+
+    static final int GAME_ID_OFFSET = 0;
+    static final int HANDS_OFFSET = 8;
+    static final int FINAL_SCORES_OFFSET = 40;
+    static final int NB_TURNS_OFFSET = 48;
+    static final int NB_ROUNDS_OFFSET = 50;
+    static final int FIRST_PLAYER_OFFSET = 51;
+    static final int WINNERS_OFFSET = 52;
+    static final int FLAGS_OFFSET = 53;
+    static final int MOVES_OFFSET = 56;
+    static final int ROUND_SIZE = Short.BYTES * (1 + GameState.NB_PLAYERS);
+
+    private GameRecordFormat() {
+    }
+
+    /**
+     * Computes the size of the records of a file.
+     *
+     * @param maxTurns The maximum number of turns of a record.
+     * @param maxRounds The maximum number of rounds of a record.
+     * @return The size of a record, in bytes.
+     */
+    public static int recordSize(int maxTurns, int maxRounds) {
+        int size = MOVES_OFFSET + maxTurns + maxRounds * ROUND_SIZE;
+        return (size + Long.BYTES - 1) / Long.BYTES * Long.BYTES;
+    }
+
+    /**
+     * Computes the offset of a round in a record.
+     *
+     * @param maxTurns The maximum number of turns of a record.
+     * @param round The round index, 0 being the first round.
+     * @return The offset of the round from the start of the record.
+     */
+    static int roundOffset(int maxTurns, int round) {
+        return MOVES_OFFSET + maxTurns + round * ROUND_SIZE;
+    }
+}
@@ -0,0 +1,221 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a file of game records in the format of {@link GameRecordFormat} by memory-mapping it.
+ * Records are accessed by index and every field is read in place from the mapped file, so that
+ * iterating over millions of records creates no object. Files larger than 2 GB are mapped
+ * in several regions, each holding a whole number of records.
+ */
+public class GameRecordReader implements Closeable {
+
+    private final FileChannel channel;
+    private final int maxTurns;
+    private final int maxRounds;
+    private final int recordSize;
+    private final long nbRecords;
+    private final int recordsPerRegion;
+    private final MappedByteBuffer[] regions;
+
+    /**
+     * Opens and maps a record file.
+     *
+     * @param path The path of the file.
+     * @throws IOException If the file cannot be read or is not a record file.
+     */
+    public GameRecordReader(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        ByteBuffer header = ByteBuffer.allocate(GameRecordFormat.HEADER_SIZE);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                break;
+            }
+        }
+        if (header.hasRemaining() || header.getInt(GameRecordFormat.MAGIC_OFFSET) != GameRecordFormat.MAGIC
+                || header.getShort(GameRecordFormat.VERSION_OFFSET) != GameRecordFormat.VERSION) {
+            channel.close();
+            throw new IOException("Not a game record file: " + path);
+        }
+        maxTurns = header.getShort(GameRecordFormat.MAX_TURNS_OFFSET) & 0xFFFF;
+        maxRounds = header.getShort(GameRecordFormat.MAX_ROUNDS_OFFSET) & 0xFFFF;
+        recordSize = GameRecordFormat.recordSize(maxTurns, maxRounds);
+        nbRecords = (channel.size() - GameRecordFormat.HEADER_SIZE) / recordSize;
+
+        recordsPerRegion = Integer.MAX_VALUE / recordSize;
+        regions = new MappedByteBuffer[(int) ((nbRecords + recordsPerRegion - 1) / recordsPerRegion)];
+        for (int i = 0; i < regions.length; i++) {
+            long firstRecord = (long) i * recordsPerRegion;
+            long regionRecords = Math.min(recordsPerRegion, nbRecords - firstRecord);
+            regions[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                    GameRecordFormat.HEADER_SIZE + firstRecord * recordSize, regionRecords * recordSize);
+        }
+    }
+
+    /**
+     * Retrieves the number of records of the file.
+     *
+     * @return The number of records.
+     */
+    public long getNbRecords() {
+        return nbRecords;
+    }
+
+    /**
+     * Retrieves the maximum number of turns of a record.
+     *
+     * @return The maximum number of turns.
+     */
+    public int getMaxTurns() {
+        return maxTurns;
+    }
+
+    /**
+     * Retrieves the maximum number of rounds of a record.
+     *
+     * @return The maximum number of rounds.
+     */
+    public int getMaxRounds() {
+        return maxRounds;
+    }
+
+    private MappedByteBuffer region(long record) {
+        return regions[(int) (record / recordsPerRegion)];
+    }
+
+    private int offset(long record) {
+        return (int) (record % recordsPerRegion) * recordSize;
+    }
+
+    /**
+     * Retrieves the id of a game.
+     *
+     * @param record The record index.
+     * @return The game id given to its recorder.
+     */
+    public long getGameId(long record) {
+        return region(record).getLong(offset(record) + GameRecordFormat.GAME_ID_OFFSET);
+    }
+
+    /**
+     * Retrieves the hand dealt to a player.
+     *
+     * @param record The record index.
+     * @param player The player index.
+     * @return The bitmask of the cards dealt to the player.
+     */
+    public long getHand(long record, int player) {
+        return region(record).getLong(offset(record) + GameRecordFormat.HANDS_OFFSET + player * Long.BYTES);
+    }
+
+    /**
+     * Retrieves the final score of a player.
+     *
+     * @param record The record index.
+     * @param player The player index.
+     * @return The final score of the player.
+     */
+    public int getFinalScore(long record, int player) {
+        return region(record).getShort(offset(record) + GameRecordFormat.FINAL_SCORES_OFFSET + player * Short.BYTES);
+    }
+
+    /**
+     * Retrieves the bitmask of the winners of a game.
+     *
+     * @param record The record index.
+     * @return The bitmask of the winners, bit i being set if player i won.
+     */
+    public int getWinners(long record) {
+        return region(record).get(offset(record) + GameRecordFormat.WINNERS_OFFSET) & 0xFF;
+    }
+
+    /**
+     * Checks whether a game had more turns or rounds than its record holds.
+     *
+     * @param record The record index.
+     * @return true if the moves or rounds of the record are incomplete.
+     */
+    public boolean isTruncated(long record) {
+        return (region(record).get(offset(record) + GameRecordFormat.FLAGS_OFFSET) & GameRecordFormat.TRUNCATED) != 0;
+    }
+
+    /**
+     * Retrieves the number of turns recorded for a game.
+     *
+     * @param record The record index.
+     * @return The number of turns.
+     */
+    public int getNbTurns(long record) {
+        return region(record).getShort(offset(record) + GameRecordFormat.NB_TURNS_OFFSET) & 0xFFFF;
+    }
+
+    /**
+     * Retrieves the player of the first turn of a game, the next turns going round the table.
+     *
+     * @param record The record index.
+     * @return The index of the first player.
+     */
+    public int getFirstPlayer(long record) {
+        return region(record).get(offset(record) + GameRecordFormat.FIRST_PLAYER_OFFSET);
+    }
+
+    /**
+     * Retrieves the move of a turn.
+     *
+     * @param record The record index.
+     * @param turn The turn index, 0 being the first turn of the game.
+     * @return The card id, or {@link CardBits#NO_CARD} if the player skipped.
+     */
+    public int getMove(long record, int turn) {
+        int move = region(record).get(offset(record) + GameRecordFormat.MOVES_OFFSET + turn);
+        return move == GameRecordFormat.SKIP ? CardBits.NO_CARD : move;
+    }
+
+    /**
+     * Retrieves the number of rounds recorded for a game, the last one ending the game.
+     *
+     * @param record The record index.
+     * @return The number of rounds.
+     */
+    public int getNbRounds(long record) {
+        return region(record).get(offset(record) + GameRecordFormat.NB_ROUNDS_OFFSET) & 0xFF;
+    }
+
+    /**
+     * Retrieves the end of a round.
+     *
+     * @param record The record index.
+     * @param round The round index, 0 being the first round.
+     * @return The index of the turn following the last turn of the round.
+     */
+    public int getRoundEndTurn(long record, int round) {
+        return region(record).getShort(offset(record) + GameRecordFormat.roundOffset(maxTurns, round)) & 0xFFFF;
+    }
+
+    /**
+     * Retrieves the score of a player at the end of a round.
+     *
+     * @param record The record index.
+     * @param round The round index, 0 being the first round.
+     * @param player The player index.
+     * @return The score of the player at the end of the round.
+     */
+    public int getRoundScore(long record, int round, int player) {
+        return region(record).getShort(offset(record) + GameRecordFormat.roundOffset(maxTurns, round)
+                + (1 + player) * Short.BYTES);
+    }
+
+    /**
+     * Closes the file. The records must not be read afterwards.
+     *
+     * @throws IOException If the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
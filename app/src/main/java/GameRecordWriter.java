@@ -0,0 +1,129 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes game records in the format of {@link GameRecordFormat} to a file.
+ * Games are recorded by {@link GameRecorder} sinks, which hand over each complete record to the writer,
+ * so games played in parallel can share a writer, each with its own recorder. Records go through a
+ * fixed-size buffer written to the file whenever it is full.
+ */
+public class GameRecordWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final int maxTurns;
+    private final int maxRounds;
+    private final int recordSize;
+    private final ByteBuffer buffer;
+    private long nbRecords = 0;
+
+    /**
+     * Creates a record file with the default maximum numbers of turns and rounds, replacing any existing file.
+     *
+     * @param path The path of the file.
+     * @throws IOException If the file cannot be created.
+     */
+    public GameRecordWriter(Path path) throws IOException {
+        this(path, GameRecordFormat.DEFAULT_MAX_TURNS, GameRecordFormat.DEFAULT_MAX_ROUNDS);
+    }
+
+    /**
+     * Creates a record file, replacing any existing file.
+     *
+     * @param path The path of the file.
+     * @param maxTurns The maximum number of turns of a record, at most 65535.
+     * @param maxRounds The maximum number of rounds of a record, at most 255.
+     * @throws IOException If the file cannot be created.
+     */
+    public GameRecordWriter(Path path, int maxTurns, int maxRounds) throws IOException {
+        if (maxTurns > 0xFFFF || maxRounds > 0xFF) {
+            throw new IllegalArgumentException("Records are limited to 65535 turns and 255 rounds");
+        }
+        this.maxTurns = maxTurns;
+        this.maxRounds = maxRounds;
+        recordSize = GameRecordFormat.recordSize(maxTurns, maxRounds);
+        buffer = ByteBuffer.allocateDirect(Math.max(BUFFER_SIZE, recordSize));
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+
+        buffer.putInt(GameRecordFormat.MAGIC_OFFSET, GameRecordFormat.MAGIC);
+        buffer.putShort(GameRecordFormat.VERSION_OFFSET, GameRecordFormat.VERSION);
+        buffer.putShort(GameRecordFormat.MAX_TURNS_OFFSET, (short) maxTurns);
+        buffer.putShort(GameRecordFormat.MAX_ROUNDS_OFFSET, (short) maxRounds);
+        buffer.position(GameRecordFormat.HEADER_SIZE);
+    }
+
+    /**
+     * Retrieves the maximum number of turns of a record.
+     *
+     * @return The maximum number of turns.
+     */
+    public int getMaxTurns() {
+        return maxTurns;
+    }
+
+    /**
+     * Retrieves the maximum number of rounds of a record.
+     *
+     * @return The maximum number of rounds.
+     */
+    public int getMaxRounds() {
+        return maxRounds;
+    }
+
+    /**
+     * Retrieves the size of a record.
+     *
+     * @return The size of a record, in bytes.
+     */
+    public int getRecordSize() {
+        return recordSize;
+    }
+
+    /**
+     * Retrieves the number of records written so far.
+     *
+     * @return The number of records.
+     */
+    public synchronized long getNbRecords() {
+        return nbRecords;
+    }
+
+    /**
+     * Appends a complete record to the file.
+     *
+     * @param record A buffer holding a record from its position to its limit.
+     * @throws IOException If the file cannot be written.
+     */
+    synchronized void append(ByteBuffer record) throws IOException {
+        if (buffer.remaining() < recordSize) {
+            flush();
+        }
+        buffer.put(record);
+        nbRecords++;
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Writes the buffered records and closes the file.
+     *
+     * @throws IOException If the file cannot be written or closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        flush();
+        channel.close();
+    }
+}
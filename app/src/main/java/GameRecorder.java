@@ -0,0 +1,116 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Records the events of games into records of a {@link GameRecordWriter}.
+ * A recorder fills one record at a time and hands it over to the writer at the end of each game,
+ * so it can record any number of games one after the other, but only one game at a time.
+ * The layout of a record holds the games of {@link GameState#NB_PLAYERS} players, and the events of other
+ * tables are rejected.
+ */
+public class GameRecorder implements GameEventSink {
+
+    private final GameRecordWriter writer;
+    private final ByteBuffer record;
+    private final int maxTurns;
+    private final int maxRounds;
+    private long gameId = 0;
+    private int nbTurns;
+    private int nbRounds;
+    private int flags;
+
+    /**
+     * Constructs a recorder for the given writer.
+     *
+     * @param writer The writer receiving the records.
+     */
+    public GameRecorder(GameRecordWriter writer) {
+        this.writer = writer;
+        maxTurns = writer.getMaxTurns();
+        maxRounds = writer.getMaxRounds();
+        record = ByteBuffer.allocate(writer.getRecordSize());
+    }
+
+    /**
+     * Sets the id stored in the record of the next game, such as its seed or its index in a batch.
+     *
+     * @param gameId The id of the game.
+     */
+    public void setGameId(long gameId) {
+        this.gameId = gameId;
+    }
+
+    @Override
+    public void gameStarted(long[] hands) {
+        checkNbPlayers(hands.length);
+        Arrays.fill(record.array(), (byte) 0);
+        record.putLong(GameRecordFormat.GAME_ID_OFFSET, gameId);
+        for (int i = 0; i < hands.length; i++) {
+            record.putLong(GameRecordFormat.HANDS_OFFSET + i * Long.BYTES, hands[i]);
+        }
+        nbTurns = 0;
+        nbRounds = 0;
+        flags = 0;
+    }
+
+    @Override
+    public void cardPlayed(int player, int card) {
+        addTurn(player, card);
+    }
+
+    @Override
+    public void skipped(int player) {
+        addTurn(player, GameRecordFormat.SKIP);
+    }
+
+    private static void checkNbPlayers(int nbPlayers) {
+        if (nbPlayers != GameState.NB_PLAYERS) {
+            throw new IllegalArgumentException("A record holds games of " + GameState.NB_PLAYERS + " players");
+        }
+    }
+
+    private void addTurn(int player, int move) {
+        if (nbTurns == 0) {
+            record.put(GameRecordFormat.FIRST_PLAYER_OFFSET, (byte) player);
+        }
+        if (nbTurns == maxTurns) {
+            flags |= GameRecordFormat.TRUNCATED;
+            return;
+        }
+        record.put(GameRecordFormat.MOVES_OFFSET + nbTurns++, (byte) move);
+    }
+
+    @Override
+    public void roundEnded(int[] scores) {
+        checkNbPlayers(scores.length);
+        if (nbRounds == maxRounds) {
+            flags |= GameRecordFormat.TRUNCATED;
+            return;
+        }
+        int offset = GameRecordFormat.roundOffset(maxTurns, nbRounds++);
+        record.putShort(offset, (short) nbTurns);
+        for (int i = 0; i < scores.length; i++) {
+            record.putShort(offset + (1 + i) * Short.BYTES, (short) scores[i]);
+        }
+    }
+
+    @Override
+    public void gameEnded(int[] scores, int winners) {
+        checkNbPlayers(scores.length);
+        for (int i = 0; i < scores.length; i++) {
+            record.putShort(GameRecordFormat.FINAL_SCORES_OFFSET + i * Short.BYTES, (short) scores[i]);
+        }
+        record.putShort(GameRecordFormat.NB_TURNS_OFFSET, (short) nbTurns);
+        record.put(GameRecordFormat.NB_ROUNDS_OFFSET, (byte) nbRounds);
+        record.put(GameRecordFormat.WINNERS_OFFSET, (byte) winners);
+        record.put(GameRecordFormat.FLAGS_OFFSET, (byte) flags);
+        record.clear();
+        try {
+            writer.append(record);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,396 @@
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * Replays recorded games against the rules of {@link GameState} to validate them and recompute their scores.
+ * A game can be recorded as a text log in the format of {@link TextGameLog}, as the "players.N.cardsPlayed"
+ * moves of a properties file, or as a record of a {@link GameRecordReader}. Every move is checked against
+ * the player expected to play and the valid cards of its hand, and every recorded score against the score
+ * recomputed by the replay, stopping at the first divergence.
+ * The table has as many players as the hands dealt, the log and the properties of a game of any supported
+ * size being replayed, while the records hold games of {@link GameState#NB_PLAYERS} players.
+ * The log is parsed one character at a time and the same state is reused from game to game of the same
+ * size, so that replaying a game creates no other object than its result. A replayer replays one game at a time.
+ */
+public class GameReplayer {
+    private static final String SKIP = "SKIP";
+    // Suit index of each suit shorthand of the log, -1 for any other character
+    private static final int[] SUIT_BY_SHORT_HAND = new int[128];
+
+    static {
+        Arrays.fill(SUIT_BY_SHORT_HAND, -1);
+        for (Suit suit : Suit.values()) {
+            SUIT_BY_SHORT_HAND[suit.getSuitShortHand().charAt(0)] = suit.ordinal();
+        }
+    }
+
+    private GameState state = new GameState();
+    private String divergence;
+    // Round of the last turn replayed
+    private int roundNumber;
+    // Parsing position in the text log
+    private CharSequence log;
+    private int position;
+
+    /**
+     * Replays a game recorded as a text log, such as the result of {@link HeadlessCountingUpGame#runApp()}.
+     *
+     * @param log The text log of the game.
+     * @param hands The bitmask of the hand dealt to each player, one for each player of the table.
+     * @return The result of the replay.
+     * @throws IllegalArgumentException If the number of players is not supported.
+     */
+    public ReplayResult replayLog(CharSequence log, long[] hands) {
+        start(hands);
+        this.log = log;
+        position = 0;
+        replayLog();
+        this.log = null;
+        return result();
+    }
+
+    /**
+     * Replays a game recorded as a text log, with the cards dealt as {@link HeadlessCountingUpGame} deals
+     * them for the given properties.
+     *
+     * @param log The text log of the game.
+     * @param properties The properties the game was played with.
+     * @return The result of the replay.
+     * @throws IllegalArgumentException If the table cannot be dealt from a single deck.
+     */
+    public ReplayResult replayLog(CharSequence log, Properties properties) {
+        return replayLog(log, new HeadlessCountingUpGame(properties).dealHands());
+    }
+
+    /**
+     * Replays the moves of the "players.N.cardsPlayed" properties, with the cards dealt as
+     * {@link HeadlessCountingUpGame} deals them. The recorded moves must last until the end of the game,
+     * and the moves recorded after it are ignored.
+     *
+     * @param properties The properties of the game.
+     * @return The result of the replay.
+     * @throws IllegalArgumentException If the table cannot be dealt from a single deck.
+     */
+    public ReplayResult replayProperties(Properties properties) {
+        start(new HeadlessCountingUpGame(properties).dealHands());
+        int nbPlayers = state.getNbPlayers();
+        int[][] moves = new int[nbPlayers][];
+        for (int i = 0; i < nbPlayers; i++) {
+            moves[i] = parseMoves(properties.getProperty("players." + i + ".cardsPlayed", ""));
+        }
+
+        int[] nextMoves = new int[nbPlayers];
+        while (!state.isGameOver()) {
+            int player = state.getCurrentPlayer();
+            if (nextMoves[player] == moves[player].length) {
+                divergence = "the moves of P" + player + " end before the end of the game";
+                return result();
+            }
+            if (!playTurn(player, moves[player][nextMoves[player]++])) {
+                return result();
+            }
+        }
+        state.endGame();
+        return result();
+    }
+
+    /**
+     * Replays a game of a record file.
+     * The moves of a truncated record are replayed as far as they go, but the record cannot be valid.
+     *
+     * @param reader The reader of the record file.
+     * @param record The record index.
+     * @return The result of the replay.
+     */
+    public ReplayResult replayRecord(GameRecordReader reader, long record) {
+        long[] hands = new long[GameState.NB_PLAYERS];
+        for (int i = 0; i < hands.length; i++) {
+            hands[i] = reader.getHand(record, i);
+        }
+        start(hands);
+
+        int nbTurns = reader.getNbTurns(record);
+        int nbRounds = reader.getNbRounds(record);
+        if (nbTurns > 0 && reader.getFirstPlayer(record) != state.getCurrentPlayer()) {
+            divergence = "P" + reader.getFirstPlayer(record) + " plays instead of P" + state.getCurrentPlayer();
+            return result();
+        }
+        int round = 0;
+        for (int turn = 0; turn < nbTurns; turn++) {
+            if (state.isGameOver()) {
+                divergence = "moves recorded after the end of the game";
+                return result();
+            }
+            if (!playTurn(state.getCurrentPlayer(), reader.getMove(record, turn))) {
+                return result();
+            }
+            if (state.getRoundNumber() != roundNumber || state.isGameOver()) {
+                if (round < nbRounds) {
+                    if (reader.getRoundEndTurn(record, round) != turn + 1) {
+                        divergence = "round " + roundNumber + " recorded to end after turn "
+                                + reader.getRoundEndTurn(record, round);
+                        return result();
+                    }
+                    for (int i = 0; i < state.getNbPlayers(); i++) {
+                        if (!checkScore(i, reader.getRoundScore(record, round, i))) {
+                            return result();
+                        }
+                    }
+                } else if (!reader.isTruncated(record)) {
+                    divergence = "round " + roundNumber + " not recorded";
+                    return result();
+                }
+                round++;
+            }
+        }
+        if (reader.isTruncated(record)) {
+            divergence = "truncated record";
+            return result();
+        }
+        if (!state.isGameOver()) {
+            divergence = "the moves end before the end of the game";
+            return result();
+        }
+
+        state.endGame();
+        for (int i = 0; i < state.getNbPlayers(); i++) {
+            if (!checkScore(i, reader.getFinalScore(record, i))) {
+                return result();
+            }
+        }
+        if (reader.getWinners(record) != winners()) {
+            divergence = "wrong winners";
+        }
+        return result();
+    }
+
+    private void start(long[] hands) {
+        if (hands.length != state.getNbPlayers()) {
+            state = new GameState(hands.length);
+        }
+        state.reset();
+        roundNumber = state.getRoundNumber();
+        state.dealHands(hands);
+    }
+
+    private ReplayResult result() {
+        int[] scores = new int[state.getNbPlayers()];
+        for (int i = 0; i < state.getNbPlayers(); i++) {
+            scores[i] = state.getScore(i);
+        }
+        ReplayResult result = new ReplayResult(state.getTurnCount(), roundNumber, divergence, scores);
+        divergence = null;
+        return result;
+    }
+
+    /**
+     * Checks a move and plays it.
+     *
+     * @return false if the move diverges from the rules.
+     */
+    private boolean playTurn(int player, int move) {
+        roundNumber = state.getRoundNumber();
+        if (player != state.getCurrentPlayer()) {
+            divergence = "P" + player + " plays instead of P" + state.getCurrentPlayer();
+            return false;
+        }
+        if (move != CardBits.NO_CARD) {
+            if (!CardBits.contains(state.getHand(player), move)) {
+                divergence = "P" + player + " does not hold " + CardBits.toLog(move);
+                return false;
+            }
+            if (!CardBits.contains(CardBits.validCards(state.getHand(player), state.getLastCard()), move)) {
+                divergence = "P" + player + " cannot play " + CardBits.toLog(move);
+                return false;
+            }
+        }
+        state.playTurn(move);
+        return true;
+    }
+
+    private boolean checkScore(int player, int recordedScore) {
+        if (recordedScore != state.getScore(player)) {
+            divergence = "score of P" + player + " recorded as " + recordedScore + " instead of " + state.getScore(player);
+            return false;
+        }
+        return true;
+    }
+
+    private int winners() {
+        int maxScore = 0;
+        for (int i = 0; i < state.getNbPlayers(); i++) {
+            maxScore = Math.max(maxScore, state.getScore(i));
+        }
+        int winners = 0;
+        for (int i = 0; i < state.getNbPlayers(); i++) {
+            if (state.getScore(i) == maxScore) {
+                winners |= 1 << i;
+            }
+        }
+        return winners;
+    }
+
+    private static int[] parseMoves(String movesValue) {
+        String[] movements = movesValue.split(",");
+        int[] moves = new int[movements.length];
+        int nbMoves = 0;
+        for (String movement : movements) {
+            if (movement.equals(SKIP)) {
+                moves[nbMoves++] = CardBits.NO_CARD;
+            } else if (movement.length() > 1) {
+                moves[nbMoves++] = CardBits.fromLog(movement);
+            }
+        }
+        return Arrays.copyOf(moves, nbMoves);
+    }
+
+    // Text log parsing, following the events which the engine logs after each move
+
+    private void replayLog() {
+        if (!expectRound()) {
+            return;
+        }
+        while (!state.isGameOver()) {
+            if (!replayLogTurn()) {
+                return;
+            }
+            if (state.getRoundNumber() != roundNumber) {
+                if (!expectScores("Score:") || !expectRound()) {
+                    return;
+                }
+            }
+        }
+        if (!expectScores("Score:")) {
+            return;
+        }
+        state.endGame();
+        if (!expectScores("EndGame:") || !expect("Winners:")) {
+            return;
+        }
+
+        int winners = 0;
+        while (position < log.length() && Character.isDigit(log.charAt(position))) {
+            winners |= 1 << parseInt();
+            if (!startsWith(", ")) {
+                break;
+            }
+            position += 2;
+        }
+        if (winners != winners()) {
+            divergence = "wrong winners";
+            return;
+        }
+        while (position < log.length() && Character.isWhitespace(log.charAt(position))) {
+            position++;
+        }
+        if (position < log.length()) {
+            divergence = "unexpected text at character " + position + " after the end of the game";
+        }
+    }
+
+    private boolean replayLogTurn() {
+        if (startsWith("Score:")) {
+            divergence = "round " + state.getRoundNumber() + " recorded to end early";
+            return false;
+        }
+        if (!expect("P")) {
+            return false;
+        }
+        int player = parseInt();
+        if (player < 0 || player >= state.getNbPlayers()) {
+            divergence = "no player at character " + position;
+            return false;
+        }
+        if (!expect("-")) {
+            return false;
+        }
+        int move = CardBits.NO_CARD;
+        if (startsWith(SKIP)) {
+            position += SKIP.length();
+        } else {
+            int rankValue = parseInt();
+            int suit = position < log.length() && log.charAt(position) < SUIT_BY_SHORT_HAND.length
+                    ? SUIT_BY_SHORT_HAND[log.charAt(position)] : -1;
+            if (rankValue < 1 || rankValue > CardBits.NB_RANKS || suit < 0) {
+                divergence = "no card at character " + position;
+                return false;
+            }
+            position++;
+            move = suit * CardBits.NB_RANKS + rankValue - 1;
+        }
+        return expect(",") && playTurn(player, move);
+    }
+
+    private boolean expectRound() {
+        if (!expect("Round")) {
+            return false;
+        }
+        int recordedRound = parseInt();
+        if (recordedRound != state.getRoundNumber()) {
+            divergence = "round " + recordedRound + " recorded instead of round " + state.getRoundNumber();
+            return false;
+        }
+        return expect(":");
+    }
+
+    private boolean expectScores(String header) {
+        if (!expect(header)) {
+            return false;
+        }
+        for (int i = 0; i < state.getNbPlayers(); i++) {
+            boolean negative = startsWith("-");
+            if (negative) {
+                position++;
+            }
+            int score = parseInt();
+            if (score < 0) {
+                divergence = "no score at character " + position;
+                return false;
+            }
+            if (!checkScore(i, negative ? -score : score) || !expect(",")) {
+                return false;
+            }
+        }
+        return expect("\n");
+    }
+
+    private boolean expect(String text) {
+        if (!startsWith(text)) {
+            divergence = "\"" + text.replace("\n", "\\n") + "\" expected at character " + position;
+            return false;
+        }
+        position += text.length();
+        return true;
+    }
+
+    private boolean startsWith(String text) {
+        if (position + text.length() > log.length()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (log.charAt(position + i) != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses a non-negative number.
+     *
+     * @return The number, or -1 if there is no digit at the current position.
+     */
+    private int parseInt() {
+        int start = position;
+        int value = 0;
+        while (position < log.length() && position - start < 9) {
+            char c = log.charAt(position);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            value = value * 10 + c - '0';
+            position++;
+        }
+        return position == start ? -1 : value;
+    }
+}
@@ -0,0 +1,365 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Hosts many {@link GameTable}s in one JVM, each mixing bots and remote humans. The humans connect over
+ * TCP and exchange lines of ASCII text with the server. A single I/O thread serves every connection with
+ * a selector, the bots play on a fixed pool of threads, and a table waiting for a human holds no thread,
+ * so that thousands of idle tables cost no CPU. The commands of the clients are:
+ * <ul>
+ *     <li>{@code NEW <lineup> [seed]}: creates a table for a comma-separated lineup of player types, such as
+ *     {@code human,clever,basic,random}, answered by {@code TABLE <table>}. With a seed, the game is the one
+ *     {@link HeadlessCountingUpGame} plays with {@code new SplittableRandom(seed)}.</li>
+ *     <li>{@code SIT <table> <seat>}: takes a human seat, answered by {@code SEATED <table> <seat>}. The game
+ *     starts once every human seat is taken.</li>
+ *     <li>{@code MOVE <table> <seat> <card>}: plays a card given by its log name, such as {@code 1C}, or
+ *     {@code SKIP}, in answer to a {@code TURN}; a move against the rules is answered by {@code INVALID}.</li>
+ *     <li>{@code QUIT}: leaves the server, the seats of the client being played by the strategy of
+ *     {@link HumanPlayer}. A table whose game has not started is closed once no human is seated at it,
+ *     including a table nobody sat at when the client which created it leaves.</li>
+ * </ul>
+ * The tables send {@code DEAL <table> <seat> <cards>}, {@code TURN <table> <seat> <valid cards>},
+ * {@code PLAYED <table> <player> <card>}, {@code ROUND <table> <round> <scores>} and
+ * {@code END <table> <scores> <winners>} to their humans, the cards being separated by commas or
+ * {@code -} if there is none, and the winners being a bitmask. Malformed commands are answered by
+ * {@code ERROR <message>}.
+ */
+public class GameServer implements Closeable {
+    // Longest command line, so that a client cannot make the server buffer without limit
+    private static final int MAX_LINE_LENGTH = 256;
+    private static final int BUFFER_SIZE = 1024;
+
+    private final ServerSocketChannel serverChannel;
+    private final Selector selector;
+    private final ExecutorService executor;
+    private final Thread ioThread;
+    private final Map<Integer, GameTable> tables = new ConcurrentHashMap<>();
+    private final AtomicInteger nextTableId = new AtomicInteger();
+    // Connections with messages to send, whose interest in writing is set by the I/O thread
+    private final Queue<Connection> pendingWrites = new ConcurrentLinkedQueue<>();
+    private volatile boolean running = true;
+
+    /**
+     * Binds a server to a port of the local host. The server accepts connections once started.
+     *
+     * @param port The port to listen on, 0 for any free port.
+     * @param nbThreads The number of threads on which the bots play.
+     * @throws IOException If the port cannot be bound.
+     */
+    public GameServer(int port, int nbThreads) throws IOException {
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        AtomicInteger nbBotThreads = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(nbThreads, runnable -> {
+            Thread thread = new Thread(runnable, "game-server-bots-" + nbBotThreads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        ioThread = new Thread(this::serve, "game-server-io");
+        ioThread.setDaemon(true);
+    }
+
+    /**
+     * Starts accepting connections.
+     */
+    public void start() {
+        ioThread.start();
+    }
+
+    /**
+     * Retrieves the port the server listens on.
+     *
+     * @return The local port.
+     * @throws IOException If the server is closed.
+     */
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+    }
+
+    /**
+     * Retrieves the number of tables whose game is not over, and which are not abandoned by their humans.
+     *
+     * @return The number of open tables.
+     */
+    public int getNbTables() {
+        return tables.size();
+    }
+
+    /**
+     * Stops the server, closing every connection and abandoning the open tables.
+     *
+     * @throws IOException If the server cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        try {
+            ioThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor.shutdownNow();
+        for (SelectionKey key : selector.keys()) {
+            key.channel().close();
+        }
+        selector.close();
+    }
+
+    private void serve() {
+        try {
+            while (running) {
+                selector.select();
+                Connection connection;
+                while ((connection = pendingWrites.poll()) != null) {
+                    connection.enableWrite();
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        acceptConnection();
+                    } else {
+                        connection = (Connection) key.attachment();
+                        try {
+                            if (key.isReadable()) {
+                                connection.read();
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                connection.write();
+                            }
+                        } catch (IOException e) {
+                            connection.close();
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            if (running) {
+                System.err.println("Game server stopped: " + e.getMessage());
+            }
+        }
+    }
+
+    private void execute(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            // the server is closing
+        }
+    }
+
+    private void acceptConnection() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel != null) {
+            channel.configureBlocking(false);
+            // the lines of the protocol are small and answered at once, so they must not wait for an ACK
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            key.attach(new Connection(channel, key));
+        }
+    }
+
+    /**
+     * The connection of a client, read and written by the I/O thread only. The commands are parsed by the
+     * I/O thread and passed to the tables on the pool, so that a table busy with its bots never blocks
+     * the I/O thread. The tables send their messages from any thread, which queue them for the I/O thread.
+     */
+    private class Connection implements Consumer<String> {
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private final ByteBuffer input = ByteBuffer.allocate(BUFFER_SIZE);
+        private final StringBuilder line = new StringBuilder();
+        private final Queue<ByteBuffer> output = new ArrayDeque<>();
+        private final AtomicBoolean writePending = new AtomicBoolean();
+        // The tables the client created or sat at, left when the connection closes
+        private final Set<GameTable> joinedTables = ConcurrentHashMap.newKeySet();
+        private boolean closing = false;
+        private volatile boolean closed = false;
+
+        Connection(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+        }
+
+        @Override
+        public void accept(String message) {
+            synchronized (output) {
+                output.add(ByteBuffer.wrap((message + "\n").getBytes(StandardCharsets.US_ASCII)));
+            }
+            if (writePending.compareAndSet(false, true)) {
+                pendingWrites.add(this);
+                selector.wakeup();
+            }
+        }
+
+        void enableWrite() {
+            writePending.set(false);
+            if (key.isValid()) {
+                key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+            }
+        }
+
+        void write() throws IOException {
+            synchronized (output) {
+                while (!output.isEmpty()) {
+                    ByteBuffer buffer = output.peek();
+                    channel.write(buffer);
+                    if (buffer.hasRemaining()) {
+                        return;
+                    }
+                    output.poll();
+                }
+            }
+            key.interestOps(SelectionKey.OP_READ);
+            if (closing) {
+                close();
+            }
+        }
+
+        void read() throws IOException {
+            if (channel.read(input) < 0) {
+                close();
+                return;
+            }
+            input.flip();
+            while (input.hasRemaining()) {
+                char c = (char) (input.get() & 0xFF);
+                if (c == '\n') {
+                    handle(line.toString().trim());
+                    line.setLength(0);
+                } else if (line.length() < MAX_LINE_LENGTH) {
+                    line.append(c);
+                } else {
+                    accept("ERROR line too long");
+                    closing = true;
+                    break;
+                }
+            }
+            input.clear();
+        }
+
+        void close() {
+            closed = true;
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // the connection is dropped anyway
+            }
+            for (GameTable table : joinedTables) {
+                execute(() -> table.leave(this));
+            }
+        }
+
+        private void handle(String command) {
+            if (command.isEmpty() || closing) {
+                return;
+            }
+            String[] words = command.split("\\s+");
+            try {
+                switch (words[0]) {
+                    case "NEW":
+                        newTable(words);
+                        break;
+                    case "SIT":
+                        sit(words);
+                        break;
+                    case "MOVE":
+                        move(words);
+                        break;
+                    case "QUIT":
+                        closing = true;
+                        accept("BYE");
+                        break;
+                    default:
+                        accept("ERROR unknown command " + words[0]);
+                        break;
+                }
+            } catch (IllegalArgumentException e) {
+                // including the NumberFormatException of a malformed number
+                accept("ERROR " + e.getMessage());
+            }
+        }
+
+        private void newTable(String[] words) {
+            if (words.length != 2 && words.length != 3) {
+                throw new IllegalArgumentException("usage: NEW <lineup> [seed]");
+            }
+            SplittableRandom random = words.length == 3 ? new SplittableRandom(Long.parseLong(words[2]))
+                    : new SplittableRandom();
+            int id = nextTableId.incrementAndGet();
+            GameTable table = new GameTable(id, words[1].split(","), random, executor, () -> tables.remove(id));
+            tables.put(id, table);
+            // the table is abandoned if its creator leaves before anyone sits at it
+            joinedTables.add(table);
+            accept("TABLE " + id);
+            execute(table::startIfFull);
+        }
+
+        private void sit(String[] words) {
+            if (words.length != 3) {
+                throw new IllegalArgumentException("usage: SIT <table> <seat>");
+            }
+            GameTable table = findTable(words[1]);
+            int seat = Integer.parseInt(words[2]);
+            // recorded before seating, so that a connection closing meanwhile leaves the table
+            joinedTables.add(table);
+            execute(() -> {
+                if (!table.sit(seat, this)) {
+                    accept("ERROR seat " + seat + " of table " + table.getId() + " is not free");
+                } else if (closed) {
+                    // the connection closed before the seat was taken, and may have left the table already
+                    table.leave(this);
+                }
+            });
+        }
+
+        private void move(String[] words) {
+            if (words.length != 4) {
+                throw new IllegalArgumentException("usage: MOVE <table> <seat> <card>");
+            }
+            GameTable table = findTable(words[1]);
+            int seat = Integer.parseInt(words[2]);
+            execute(() -> table.move(seat, words[3], this));
+        }
+
+        private GameTable findTable(String id) {
+            GameTable table = tables.get(Integer.parseInt(id));
+            if (table == null) {
+                throw new IllegalArgumentException("no table " + id);
+            }
+            return table;
+        }
+    }
+}
@@ -0,0 +1,462 @@
+import ch.aplu.jcardgame.Card;
+import ch.aplu.jcardgame.Hand;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Represents the state of a CountingUpGame using the primitive card model of {@link CardBits}.
+ * The state is owned and updated by the game, either {@link HeadlessCountingUpGame} or
+ * {@link CountingUpGame}; strategies only read it to decide which card the current player should play.
+ */
+public class GameState {
+
+    /** Number of players at the table by default. */
+    public static final int NB_PLAYERS = 4;
+
+    /** Smallest number of players at a table. */
+    public static final int MIN_PLAYERS = 2;
+
+    /** Largest number of players at a table. */
+    public static final int MAX_PLAYERS = 8;
+
+    // Enough turns for most games: every card played and a few rounds ended by skips
+    private static final int INITIAL_HISTORY_CAPACITY = 128;
+
+    // Sized for the largest table, so that a state can copy the state of a game of any size
+    private final long[] hands = new long[MAX_PLAYERS];
+    private final int[] scores = new int[MAX_PLAYERS];
+    // Score value of the cards held by each player, which they lose if the game ends
+    private final int[] handScores = new int[MAX_PLAYERS];
+    private int nbPlayers;
+    private final int[] trick = new int[CardBits.NB_CARDS];
+    private int trickSize = 0;
+    // Score value and rank card value of the cards of the trick, kept as the cards are played
+    private int trickPoints = 0;
+    private int trickRankTotal = 0;
+    private final CardTracker cardTracker;
+    private int currentPlayer = 0;
+    // All the cards played since the beginning of the game
+    private long playedCards = 0;
+    // Number of players who skipped in a row since the last card played
+    private int skipCount = 0;
+    private int roundNumber = 1;
+    private boolean gameOver = false;
+    // Card played, or NO_CARD for a skip, at each turn played with playTurn, grown when needed
+    private int[] moveHistory = new int[INITIAL_HISTORY_CAPACITY];
+    private int turnCount = 0;
+
+    /**
+     * Constructs the state of a new game, where no card has been dealt or played yet.
+     */
+    public GameState() {
+        this(NB_PLAYERS);
+    }
+
+    /**
+     * Constructs the state of a new game between the given number of players, where no card has been dealt or played yet.
+     *
+     * @param nbPlayers The number of players, from {@link #MIN_PLAYERS} to {@link #MAX_PLAYERS}.
+     */
+    public GameState(int nbPlayers) {
+        this(checkNbPlayers(nbPlayers), new CardTracker());
+    }
+
+    private GameState(int nbPlayers, CardTracker cardTracker) {
+        this.nbPlayers = nbPlayers;
+        this.cardTracker = cardTracker;
+    }
+
+    /**
+     * Checks that a table can seat the given number of players.
+     *
+     * @param nbPlayers The number of players.
+     * @return The number of players.
+     * @throws IllegalArgumentException If the number is not from {@link #MIN_PLAYERS} to {@link #MAX_PLAYERS}.
+     */
+    public static int checkNbPlayers(int nbPlayers) {
+        if (nbPlayers < MIN_PLAYERS || nbPlayers > MAX_PLAYERS) {
+            throw new IllegalArgumentException("A table seats " + MIN_PLAYERS + " to " + MAX_PLAYERS
+                    + " players, not " + nbPlayers);
+        }
+        return nbPlayers;
+    }
+
+    /**
+     * Builds the state seen by a player of a jcardgame game, so that strategies can be called
+     * through the Hand-based API. The player is player 0 and the other hands are unknown.
+     *
+     * @param hand The current hand of the player.
+     * @param playedCards The cards that have been played in the current round.
+     * @param cardTracker The tracker of the cards played so far in this game.
+     * @return The state of the game seen by the player.
+     */
+    static GameState forHand(Hand hand, List<Card> playedCards, CardTracker cardTracker) {
+        int[] trick = new int[playedCards.size()];
+        for (int i = 0; i < trick.length; i++) {
+            trick[i] = CardBits.cardId(playedCards.get(i));
+        }
+        return forHand(CardBits.toMask(hand.getCardList()), trick, cardTracker);
+    }
+
+    /**
+     * Builds the state seen by player 0 from its hand, the trick and the tracker of a game.
+     * The cards of the trick and the cards known to the tracker are the played cards, so that they are
+     * never dealt to the other players, whose hands are unknown.
+     *
+     * @param hand The bitmask of the current hand of the player.
+     * @param trick The ids of the cards played in the current round, in the order they were played.
+     * @param cardTracker The tracker of the cards played so far in this game.
+     * @return The state of the game seen by the player.
+     */
+    static GameState forHand(long hand, int[] trick, CardTracker cardTracker) {
+        GameState state = new GameState(NB_PLAYERS, cardTracker);
+        state.setHand(0, hand);
+        state.playedCards = cardTracker.getPlayedCards();
+        for (int card : trick) {
+            state.addToTrick(card);
+            state.playedCards |= CardBits.bit(card);
+        }
+        return state;
+    }
+
+    /**
+     * Retrieves the number of players at the table.
+     *
+     * @return The number of players.
+     */
+    public int getNbPlayers() {
+        return nbPlayers;
+    }
+
+    /**
+     * Retrieves the hand of a player.
+     *
+     * @param player The player index.
+     * @return The bitmask of the cards held by the player.
+     */
+    public long getHand(int player) {
+        return hands[player];
+    }
+
+    /**
+     * Retrieves the number of cards held by a player, which is known by every player.
+     *
+     * @param player The player index.
+     * @return The number of cards in the hand of the player.
+     */
+    public int getHandSize(int player) {
+        return CardBits.size(hands[player]);
+    }
+
+    /**
+     * Retrieves the hand of the player to move.
+     *
+     * @return The bitmask of the cards held by the current player.
+     */
+    public long getCurrentHand() {
+        return hands[currentPlayer];
+    }
+
+    /**
+     * Retrieves the index of the player to move.
+     *
+     * @return The current player index.
+     */
+    public int getCurrentPlayer() {
+        return currentPlayer;
+    }
+
+    /**
+     * Retrieves the score of a player.
+     *
+     * @param player The player index.
+     * @return The score of the player.
+     */
+    public int getScore(int player) {
+        return scores[player];
+    }
+
+    /**
+     * Retrieves the total score value of the cards held by a player, which they lose if the game ends now.
+     *
+     * @param player The player index.
+     * @return The score value of the hand of the player.
+     */
+    public int getHandScore(int player) {
+        return handScores[player];
+    }
+
+    /**
+     * Retrieves the number of cards played in the current round.
+     *
+     * @return The size of the trick.
+     */
+    public int getTrickSize() {
+        return trickSize;
+    }
+
+    /**
+     * Retrieves a card played in the current round.
+     *
+     * @param index The position of the card in the trick, 0 being the first card played.
+     * @return The card id.
+     */
+    public int getTrickCard(int index) {
+        return trick[index];
+    }
+
+    /**
+     * Retrieves the total score value of the cards played in the current round, won by the winner of the round.
+     *
+     * @return The points of the trick.
+     */
+    public int getTrickPoints() {
+        return trickPoints;
+    }
+
+    /**
+     * Retrieves the total rank card value of the cards played in the current round.
+     *
+     * @return The sum of the rank card values of the trick.
+     */
+    public int getTrickRankTotal() {
+        return trickRankTotal;
+    }
+
+    /**
+     * Retrieves the last card played in the current round.
+     *
+     * @return The card id, or {@link CardBits#NO_CARD} if no card has been played in this round.
+     */
+    public int getLastCard() {
+        return trickSize == 0 ? CardBits.NO_CARD : trick[trickSize - 1];
+    }
+
+    /**
+     * Retrieves the cards played since the beginning of the game, in every round.
+     *
+     * @return The bitmask of the played cards.
+     */
+    public long getPlayedCards() {
+        return playedCards;
+    }
+
+    /**
+     * Retrieves the number of players who skipped in a row since the last card played.
+     *
+     * @return The skip count, which ends the round when it reaches the number of players - 1.
+     */
+    public int getSkipCount() {
+        return skipCount;
+    }
+
+    /**
+     * Retrieves the number of the current round, starting from 1.
+     *
+     * @return The round number.
+     */
+    public int getRoundNumber() {
+        return roundNumber;
+    }
+
+    /**
+     * Retrieves the number of turns played since the beginning of the game, skips included.
+     *
+     * @return The number of turns.
+     */
+    public int getTurnCount() {
+        return turnCount;
+    }
+
+    /**
+     * Retrieves the move played at a turn of the game.
+     *
+     * @param turn The turn index, 0 being the first turn of the game.
+     * @return The card id, or {@link CardBits#NO_CARD} if the player skipped.
+     */
+    public int getMove(int turn) {
+        return moveHistory[turn];
+    }
+
+    /**
+     * Checks whether a player has played all of their cards, which ends the game.
+     *
+     * @return true if the game is over.
+     */
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    /**
+     * Retrieves the tracker of the cards played so far in this game.
+     *
+     * @return The card tracker of the game.
+     */
+    public CardTracker getCardTracker() {
+        return cardTracker;
+    }
+
+    /**
+     * Makes this state a copy of another state, reusing the arrays of this state.
+     *
+     * @param other The state to copy.
+     */
+    void copyFrom(GameState other) {
+        nbPlayers = other.nbPlayers;
+        System.arraycopy(other.hands, 0, hands, 0, nbPlayers);
+        System.arraycopy(other.scores, 0, scores, 0, nbPlayers);
+        System.arraycopy(other.handScores, 0, handScores, 0, nbPlayers);
+        System.arraycopy(other.trick, 0, trick, 0, other.trickSize);
+        trickSize = other.trickSize;
+        trickPoints = other.trickPoints;
+        trickRankTotal = other.trickRankTotal;
+        cardTracker.copyFrom(other.cardTracker);
+        currentPlayer = other.currentPlayer;
+        playedCards = other.playedCards;
+        skipCount = other.skipCount;
+        roundNumber = other.roundNumber;
+        gameOver = other.gameOver;
+        if (moveHistory.length < other.turnCount) {
+            moveHistory = new int[other.moveHistory.length];
+        }
+        System.arraycopy(other.moveHistory, 0, moveHistory, 0, other.turnCount);
+        turnCount = other.turnCount;
+    }
+
+    /**
+     * Brings this state back to the start of a new game, where no card has been dealt or played yet.
+     */
+    void reset() {
+        Arrays.fill(hands, 0);
+        Arrays.fill(scores, 0);
+        Arrays.fill(handScores, 0);
+        clearTrick();
+        cardTracker.reset();
+        currentPlayer = 0;
+        playedCards = 0;
+        skipCount = 0;
+        roundNumber = 1;
+        gameOver = false;
+        turnCount = 0;
+    }
+
+    void setCurrentPlayer(int player) {
+        currentPlayer = player;
+    }
+
+    void setHand(int player, long hand) {
+        hands[player] = hand;
+        handScores[player] = CardBits.scoreOf(hand);
+    }
+
+    void deal(int player, int card) {
+        hands[player] |= CardBits.bit(card);
+        handScores[player] += CardBits.scoreValue(card);
+    }
+
+    /**
+     * Deals the hands of a new game and gives the lead to the player holding the Ace of Clubs,
+     * or to player 0 if the Ace of Clubs was not dealt.
+     *
+     * @param dealtHands The bitmask of the hand dealt to each player.
+     */
+    void dealHands(long[] dealtHands) {
+        currentPlayer = 0;
+        for (int player = 0; player < dealtHands.length; player++) {
+            hands[player] |= dealtHands[player];
+            handScores[player] += CardBits.scoreOf(dealtHands[player]);
+            if (CardBits.contains(dealtHands[player], CardBits.ACE_OF_CLUBS)) {
+                currentPlayer = player;
+            }
+        }
+    }
+
+    /**
+     * Moves a card from the hand of a player to the trick.
+     */
+    void play(int player, int card) {
+        hands[player] &= ~CardBits.bit(card);
+        handScores[player] -= CardBits.scoreValue(card);
+        addToTrick(card);
+        playedCards |= CardBits.bit(card);
+        cardTracker.cardPlayed(card);
+    }
+
+    private void addToTrick(int card) {
+        trick[trickSize++] = card;
+        trickPoints += CardBits.scoreValue(card);
+        trickRankTotal += CardBits.rankValue(card);
+    }
+
+    /**
+     * Plays the turn of the current player with the rules of CountingUpGame, then moves to the next player.
+     * The round ends after every other player skipped in a row, and the game is over as soon as a hand is
+     * empty, the player who emptied it taking the trick. The cards left in the hands are not scored here,
+     * see {@link #endGame()}.
+     *
+     * @param card The card played by the current player, or {@link CardBits#NO_CARD} to skip.
+     */
+    void playTurn(int card) {
+        if (turnCount == moveHistory.length) {
+            moveHistory = Arrays.copyOf(moveHistory, 2 * turnCount);
+        }
+        moveHistory[turnCount++] = card;
+        if (card != CardBits.NO_CARD) {
+            skipCount = 0;
+            play(currentPlayer, card);
+        } else {
+            skipCount++;
+        }
+
+        // the next player without a division, the number of players not being a constant
+        int nextPlayer = currentPlayer + 1 == nbPlayers ? 0 : currentPlayer + 1;
+        if (skipCount == nbPlayers - 1) {
+            skipCount = 0;
+            endRound(nextPlayer);
+            roundNumber++;
+        }
+
+        if (hasEmptyHand()) {
+            endRound(currentPlayer);
+            gameOver = true;
+        } else {
+            currentPlayer = nextPlayer;
+        }
+    }
+
+    private boolean hasEmptyHand() {
+        for (int i = 0; i < nbPlayers; i++) {
+            if (hands[i] == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds the score of the trick to a player and starts a new round.
+     */
+    void endRound(int winner) {
+        scores[winner] += trickPoints;
+        clearTrick();
+    }
+
+    /**
+     * Starts a new round without scoring the trick, for games which keep their own scores.
+     */
+    void clearTrick() {
+        trickSize = 0;
+        trickPoints = 0;
+        trickRankTotal = 0;
+    }
+
+    /**
+     * Removes the score of the cards left in each hand at the end of the game.
+     */
+    void endGame() {
+        for (int i = 0; i < nbPlayers; i++) {
+            scores[i] -= handScores[i];
+        }
+    }
+}
@@ -0,0 +1,279 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.StringJoiner;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * A table of the {@link GameServer}, playing one game between bots and remote humans with the rules,
+ * dealing and scoring of {@link HeadlessCountingUpGame}. A table is a state machine rather than a loop:
+ * the bots play on the executor until a human has to move, and the table then holds no thread until the
+ * move of the human arrives, so that idle tables cost no CPU. Each table has its own state and strategies.
+ * The calls of a table are synchronized on the table, as the moves arrive from the I/O thread of the server
+ * while the bots play on the executor.
+ */
+public class GameTable {
+    /** Player type of the seats played by remote humans. */
+    public static final String HUMAN = "human";
+    static final String SKIP = "SKIP";
+
+    private final int id;
+    private final String[] playerTypes;
+    private final SplittableRandom random;
+    private final Executor executor;
+    private final Runnable onClosed;
+    private final GameState state;
+    private final IPlayStrategy[] strategies;
+    // The client of each human seat once taken, receiving the messages of the table
+    private final List<Consumer<String>> clients;
+    // The check of the moves of the humans, the strategy of HumanPlayer
+    private final IPlayStrategy humanRules = PlayerFactory.getInstance().getPlayerStrategy(HUMAN);
+    private final int[] roundScores;
+    private boolean started = false;
+    // Whether every human left before the game started, so that no seat can be taken any more
+    private boolean abandoned = false;
+    // Whether the human to move has been told, so that the turn is announced once
+    private boolean turnAnnounced = false;
+
+    /**
+     * Constructs a table waiting for its human seats to be taken.
+     *
+     * @param id The id of the table in its server.
+     * @param playerTypes The type of each player, as in the "players.N" properties, {@link #HUMAN} for remote humans.
+     * @param random The random generator of the game, dealing the cards and then split for each bot,
+     *               as in {@link HeadlessCountingUpGame}.
+     * @param executor The executor on which the bots play.
+     * @param onClosed Called once, when the game is over and its end has been sent to the clients, or when
+     *                 the table is abandoned before its game starts.
+     * @throws IllegalArgumentException If the number of players is not supported.
+     */
+    public GameTable(int id, String[] playerTypes, SplittableRandom random, Executor executor, Runnable onClosed) {
+        GameState.checkNbPlayers(playerTypes.length);
+        this.id = id;
+        this.playerTypes = playerTypes.clone();
+        this.random = random;
+        this.executor = executor;
+        this.onClosed = onClosed;
+        state = new GameState(playerTypes.length);
+        strategies = new IPlayStrategy[playerTypes.length];
+        clients = new ArrayList<>(Collections.nCopies(playerTypes.length, null));
+        roundScores = new int[playerTypes.length];
+    }
+
+    /**
+     * Retrieves the id of the table.
+     *
+     * @return The id of the table in its server.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Seats a remote human. Once every human seat is taken, the cards are dealt and the bots play
+     * until a human has to move; a table without human seats starts at once.
+     *
+     * @param seat The player index of a human seat.
+     * @param client The client receiving the messages of the table.
+     * @return true if the seat was free, false if it is taken, not a human seat or the table is abandoned.
+     */
+    public synchronized boolean sit(int seat, Consumer<String> client) {
+        if (abandoned || seat < 0 || seat >= clients.size() || !playerTypes[seat].equals(HUMAN)
+                || clients.get(seat) != null) {
+            return false;
+        }
+        clients.set(seat, client);
+        client.accept("SEATED " + id + " " + seat);
+        startIfFull();
+        return true;
+    }
+
+    /**
+     * Starts the game once every human seat is taken, at once for a table of bots.
+     */
+    public synchronized void startIfFull() {
+        if (started || abandoned) {
+            return;
+        }
+        for (int i = 0; i < clients.size(); i++) {
+            if (playerTypes[i].equals(HUMAN) && clients.get(i) == null) {
+                return;
+            }
+        }
+        started = true;
+        executor.execute(this::start);
+    }
+
+    private synchronized void start() {
+        long[] hands = Dealer.deal(new long[playerTypes.length], Dealer.defaultNbStartCards(playerTypes.length), random);
+        state.dealHands(hands);
+        // the bots get their generators after dealing, as in HeadlessCountingUpGame
+        for (int i = 0; i < strategies.length; i++) {
+            strategies[i] = PlayerFactory.getInstance().getPlayerStrategy(playerTypes[i], random.split());
+        }
+        for (int i = 0; i < clients.size(); i++) {
+            if (clients.get(i) != null) {
+                clients.get(i).accept("DEAL " + id + " " + i + " " + cardsToString(hands[i]));
+            }
+        }
+        playBots();
+    }
+
+    /**
+     * Plays a move of a remote human, if it is the turn of the seat and the move follows the rules
+     * checked for {@link HumanPlayer}. The bots then play on the executor.
+     *
+     * @param seat The player index of the seat.
+     * @param move The log name of the card, such as "1C", or {@code SKIP}.
+     * @param client The client sending the move, which must have taken the seat.
+     */
+    public synchronized void move(int seat, String move, Consumer<String> client) {
+        if (seat < 0 || seat >= clients.size() || clients.get(seat) != client) {
+            client.accept("INVALID " + id + " not your seat");
+            return;
+        }
+        if (!started || state.isGameOver() || state.getCurrentPlayer() != seat || strategies[seat] == null) {
+            client.accept("INVALID " + id + " not your turn");
+            return;
+        }
+        int card = parseMove(move);
+        if (card != CardBits.NO_CARD && !CardBits.contains(humanRules.selectCandidateCards(state), card)) {
+            client.accept("INVALID " + id + " " + move);
+            return;
+        }
+        playTurn(card);
+        executor.execute(this::playBots);
+    }
+
+    /**
+     * Frees the seats of a client which left the server. Before the game starts, the seats can be taken
+     * again, unless no human is seated any more: the table is then abandoned and closed. Once the game has
+     * started, the seats are played by the strategy of {@link HumanPlayer}, as human players are played
+     * without graphics, so that the game still ends.
+     *
+     * @param client The client which left.
+     */
+    public synchronized void leave(Consumer<String> client) {
+        boolean left = false;
+        for (int i = 0; i < clients.size(); i++) {
+            if (clients.get(i) == client) {
+                clients.set(i, null);
+                left = true;
+            }
+        }
+        if (started) {
+            if (left) {
+                executor.execute(this::playBots);
+            }
+        } else if (!abandoned && Collections.frequency(clients, null) == clients.size()) {
+            abandoned = true;
+            onClosed.run();
+        }
+    }
+
+    // The card id of a move, NO_CARD for a skip, or -2 if the move cannot be read
+    private static int parseMove(String move) {
+        if (move.equals(SKIP)) {
+            return CardBits.NO_CARD;
+        }
+        try {
+            int card = CardBits.fromLog(move);
+            return move.equals(CardBits.toLog(card)) || move.equals("0" + CardBits.toLog(card)) ? card : -2;
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return -2;
+        }
+    }
+
+    /**
+     * Plays the turns of the bots until a human has to move or the game is over.
+     */
+    private synchronized void playBots() {
+        while (!state.isGameOver()) {
+            int player = state.getCurrentPlayer();
+            if (clients.get(player) != null) {
+                if (turnAnnounced) {
+                    return;
+                }
+                turnAnnounced = true;
+                clients.get(player).accept("TURN " + id + " " + player + " " + cardsToString(humanRules.selectCandidateCards(state)));
+                return;
+            }
+            playTurn(strategies[player].selectCard(state));
+        }
+    }
+
+    private void playTurn(int card) {
+        int player = state.getCurrentPlayer();
+        int roundNumber = state.getRoundNumber();
+        state.playTurn(card);
+        turnAnnounced = false;
+        broadcast("PLAYED " + id + " " + player + " " + (card == CardBits.NO_CARD ? SKIP : CardBits.toLog(card)));
+        if (state.getRoundNumber() != roundNumber || state.isGameOver()) {
+            for (int i = 0; i < roundScores.length; i++) {
+                roundScores[i] = state.getScore(i);
+            }
+            broadcast("ROUND " + id + " " + roundNumber + " " + scoresToString());
+        }
+        if (state.isGameOver()) {
+            state.endGame();
+            int maxScore = 0;
+            for (int i = 0; i < roundScores.length; i++) if (state.getScore(i) > maxScore) maxScore = state.getScore(i);
+            int winners = 0;
+            for (int i = 0; i < roundScores.length; i++) if (state.getScore(i) == maxScore) winners |= 1 << i;
+            for (int i = 0; i < roundScores.length; i++) {
+                roundScores[i] = state.getScore(i);
+            }
+            broadcast("END " + id + " " + scoresToString() + " " + winners);
+            onClosed.run();
+        }
+    }
+
+    /**
+     * Tells whether the game of the table is over.
+     *
+     * @return true once the final scores are known.
+     */
+    public synchronized boolean isOver() {
+        return state.isGameOver();
+    }
+
+    /**
+     * Retrieves the score of a player.
+     *
+     * @param player The player index.
+     * @return The score of the player, final once the game is over.
+     */
+    public synchronized int getScore(int player) {
+        return state.getScore(player);
+    }
+
+    private void broadcast(String message) {
+        for (Consumer<String> client : clients) {
+            if (client != null) {
+                client.accept(message);
+            }
+        }
+    }
+
+    private String scoresToString() {
+        StringJoiner joiner = new StringJoiner(",");
+        for (int score : roundScores) {
+            joiner.add(String.valueOf(score));
+        }
+        return joiner.toString();
+    }
+
+    // The log names of the cards, separated by commas, or "-" if there is none
+    static String cardsToString(long cards) {
+        if (cards == 0) {
+            return "-";
+        }
+        StringJoiner joiner = new StringJoiner(",");
+        for (long rest = cards; rest != 0; rest &= rest - 1) {
+            joiner.add(CardBits.toLog(Long.numberOfTrailingZeros(rest)));
+        }
+        return joiner.toString();
+    }
+}
@@ -0,0 +1,301 @@
+// HeadlessCountingUpGame.java
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.SplittableRandom;
+
+/**
+ * Plays a CountingUpGame without any graphics, using the primitive card model of {@link CardBits}.
+ * This engine follows the same rules, dealing, scoring and logging as {@link CountingUpGame},
+ * but never builds a CardGame window, never sleeps and never touches AWT, so that bot games
+ * can be simulated in bulk. Human players are not supported and play the first valid card.
+ * A table seats from {@link GameState#MIN_PLAYERS} to {@link GameState#MAX_PLAYERS} players, set by the
+ * "nbPlayers" property, and each player is dealt the "nbStartCards" property, by default
+ * {@link Dealer#defaultNbStartCards(int)}.
+ */
+public class HeadlessCountingUpGame {
+    static private final int SEED = 30008;
+    private static final String SKIP = "SKIP";
+    private final int nbPlayers;
+    private final int nbStartCards;
+    private final String[] playerTypes;
+    private final long[] presetHands;
+    private final String[] cardsPlayedValues;
+    private final SplittableRandom random;
+    private final GameState state;
+    private final IPlayStrategy[] strategies;
+    private final int[][] playerAutoMovements;
+    private final int[] autoIndexHands;
+    private final boolean isAuto;
+    private GameEventSink eventSink = GameEventSink.NONE;
+    // Arrays passed to the event sink
+    private final long[] hands;
+    private final int[] scores;
+    private List<Integer> winners;
+
+    /**
+     * Constructs a new headless game with the specified game properties, dealing as the first game
+     * of the "seed" property, or of the default seed.
+     *
+     * @param properties The properties to configure the game.
+     */
+    public HeadlessCountingUpGame(Properties properties) {
+        this(properties, new Dealer(Long.parseLong(properties.getProperty("seed", String.valueOf(SEED))))
+                .gameRandom(0));
+    }
+
+    /**
+     * Constructs a new headless game with the specified game properties.
+     *
+     * @param properties The properties to configure the game.
+     * @param random The random generator of the game, dealing the cards not set by the properties
+     *               and then split for each player.
+     */
+    public HeadlessCountingUpGame(Properties properties, SplittableRandom random) {
+        this(Integer.parseInt(properties.getProperty("nbPlayers", String.valueOf(GameState.NB_PLAYERS)).trim()),
+                properties.getProperty("nbStartCards"), random, Boolean.parseBoolean(properties.getProperty("isAuto")));
+        for (int i = 0; i < nbPlayers; i++) {
+            playerTypes[i] = properties.getProperty("players." + i);
+            presetHands[i] = Dealer.parseCards(properties.getProperty("players." + i + ".initialcards"));
+            cardsPlayedValues[i] = properties.getProperty("players." + i + ".cardsPlayed", "");
+        }
+    }
+
+    /**
+     * Constructs a new headless game between players of the specified types, with all cards dealt at random,
+     * each player being dealt the default number of cards of the table.
+     *
+     * @param playerTypes The type of each player, as in the "players.N" properties.
+     * @param random The random generator of the game, dealing the cards and then split for each player.
+     */
+    public HeadlessCountingUpGame(String[] playerTypes, SplittableRandom random) {
+        this(playerTypes, Dealer.defaultNbStartCards(playerTypes.length), random);
+    }
+
+    /**
+     * Constructs a new headless game between players of the specified types, with all cards dealt at random.
+     *
+     * @param playerTypes The type of each player, as in the "players.N" properties.
+     * @param nbStartCards The number of cards dealt to each player.
+     * @param random The random generator of the game, dealing the cards and then split for each player.
+     */
+    public HeadlessCountingUpGame(String[] playerTypes, int nbStartCards, SplittableRandom random) {
+        this(playerTypes.length, String.valueOf(nbStartCards), random, false);
+        for (int i = 0; i < nbPlayers; i++) {
+            this.playerTypes[i] = playerTypes[i];
+            cardsPlayedValues[i] = "";
+        }
+    }
+
+    private HeadlessCountingUpGame(int nbPlayers, String nbStartCardsValue, SplittableRandom random, boolean isAuto) {
+        this.nbPlayers = GameState.checkNbPlayers(nbPlayers);
+        nbStartCards = Dealer.checkNbStartCards(nbPlayers, nbStartCardsValue == null
+                ? Dealer.defaultNbStartCards(nbPlayers) : Integer.parseInt(nbStartCardsValue.trim()));
+        this.random = random;
+        this.isAuto = isAuto;
+        playerTypes = new String[nbPlayers];
+        presetHands = new long[nbPlayers];
+        cardsPlayedValues = new String[nbPlayers];
+        state = new GameState(nbPlayers);
+        strategies = new IPlayStrategy[nbPlayers];
+        playerAutoMovements = new int[nbPlayers][];
+        autoIndexHands = new int[nbPlayers];
+        hands = new long[nbPlayers];
+        scores = new int[nbPlayers];
+    }
+
+    /**
+     * Method used to create the strategy of each player based on player types.
+     * Each player gets its own generator split from the game generator after dealing,
+     * so that the game is reproducible from the seed of its generator.
+     */
+    private void createPlayers() {
+        for (int i = 0; i < nbPlayers; i++) {
+            strategies[i] = PlayerFactory.getInstance().getPlayerStrategy(playerTypes[i], random.split());
+        }
+    }
+
+    private void dealingOut() {
+        state.dealHands(Dealer.deal(presetHands, nbStartCards, random));
+    }
+
+    private void setupPlayerAutoMovements() {
+        for (int i = 0; i < nbPlayers; i++) {
+            String movementString = cardsPlayedValues[i];
+            List<Integer> movements = new ArrayList<>();
+            for (String movement : movementString.split(",")) {
+                if (movement.equals(SKIP)) {
+                    movements.add(CardBits.NO_CARD);
+                } else if (movement.length() > 1) {
+                    movements.add(CardBits.fromLog(movement));
+                }
+            }
+            playerAutoMovements[i] = movements.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    private void addCardPlayedToLog(int player, int selectedCard) {
+        if (selectedCard == CardBits.NO_CARD) {
+            eventSink.skipped(player);
+        } else {
+            eventSink.cardPlayed(player, selectedCard);
+        }
+    }
+
+    private void addRoundInfoToLog(int roundNumber) {
+        eventSink.roundStarted(roundNumber);
+    }
+
+    private void addEndOfRoundToLog(int roundNumber, int winner, int trickSize) {
+        // the scores still hold the scores of the previous round
+        FlightEvents.roundEnded(roundNumber, winner, state.getScore(winner) - scores[winner], trickSize);
+        eventSink.roundEnded(getScores());
+    }
+
+    private void addEndOfGameToLog() {
+        int winnersMask = 0;
+        for (int winner : winners) {
+            winnersMask |= 1 << winner;
+        }
+        eventSink.gameEnded(getScores(), winnersMask);
+    }
+
+    private int[] getScores() {
+        for (int i = 0; i < nbPlayers; i++) {
+            scores[i] = state.getScore(i);
+        }
+        return scores;
+    }
+
+    private void addDealToLog() {
+        for (int i = 0; i < nbPlayers; i++) {
+            hands[i] = state.getHand(i);
+        }
+        eventSink.gameStarted(hands);
+    }
+
+    /**
+     * Plays the game by handling each player's turn and updating scores, as CountingUpGame does.
+     */
+    private void playGame() {
+        GameMetrics metrics = GameMetrics.getInstance();
+        metrics.gameStarted();
+        FlightEvents.gameStarted(playerTypes);
+        FlightEvents.GameEnd gameEvent = FlightEvents.beginGame();
+        addRoundInfoToLog(state.getRoundNumber());
+
+        // the player holding the Ace of Clubs leads, as dealt
+        while (!state.isGameOver()) {
+            int nextPlayer = state.getCurrentPlayer();
+            int selected = CardBits.NO_CARD;
+            boolean finishedAuto = false;
+            if (isAuto) {
+                int[] nextPlayerMovement = playerAutoMovements[nextPlayer];
+                if (nextPlayerMovement.length > autoIndexHands[nextPlayer]) {
+                    int nextMovement = nextPlayerMovement[autoIndexHands[nextPlayer]++];
+                    // a recorded card which is not in the hand is played as a skip
+                    if (nextMovement != CardBits.NO_CARD && CardBits.contains(state.getHand(nextPlayer), nextMovement)) {
+                        selected = nextMovement;
+                    }
+                } else {
+                    finishedAuto = true;
+                }
+            }
+
+            if (!isAuto || finishedAuto) {
+                long startTime = metrics.startDecision();
+                FlightEvents.Decision decisionEvent = FlightEvents.beginDecision();
+                selected = strategies[nextPlayer].selectCard(state);
+                FlightEvents.commitDecision(decisionEvent, strategies[nextPlayer], state, selected);
+                metrics.recordDecision(strategies[nextPlayer], startTime);
+            }
+
+            addCardPlayedToLog(nextPlayer, selected);
+            int roundNumber = state.getRoundNumber();
+            int trickSize = state.getTrickSize() + (selected == CardBits.NO_CARD ? 0 : 1);
+            state.playTurn(selected);
+            metrics.turnPlayed(selected == CardBits.NO_CARD);
+
+            if (state.getRoundNumber() != roundNumber) {
+                addEndOfRoundToLog(roundNumber, (nextPlayer + 1) % nbPlayers, trickSize);
+                addRoundInfoToLog(state.getRoundNumber());
+            }
+
+            if (state.isGameOver()) {
+                addEndOfRoundToLog(roundNumber, nextPlayer, trickSize);
+            }
+        }
+
+        state.endGame();
+        metrics.gameEnded(state.getRoundNumber());
+        FlightEvents.commitGameEnd(gameEvent, state.getRoundNumber(), state.getTurnCount(), getScores());
+    }
+
+    private void findWinners() {
+        int maxScore = 0;
+        for (int i = 0; i < nbPlayers; i++) if (state.getScore(i) > maxScore) maxScore = state.getScore(i);
+        winners = new ArrayList<>();
+        for (int i = 0; i < nbPlayers; i++) if (state.getScore(i) == maxScore) winners.add(i);
+    }
+
+    /**
+     * Deals the cards as {@link #runApp()} does, without playing the game.
+     *
+     * @return The bitmask of the hand dealt to each player.
+     */
+    long[] dealHands() {
+        dealingOut();
+        long[] dealtHands = new long[nbPlayers];
+        for (int i = 0; i < nbPlayers; i++) {
+            dealtHands[i] = state.getHand(i);
+        }
+        return dealtHands;
+    }
+
+    /**
+     * Runs the whole game, from dealing the cards to the end of game scoring.
+     *
+     * @return A string representation of the game log, in the same format as {@link CountingUpGame#runApp()}.
+     */
+    public String runApp() {
+        StringBuilder logResult = new StringBuilder();
+        run(new TextGameLog(logResult));
+        return logResult.toString();
+    }
+
+    /**
+     * Runs the whole game, from dealing the cards to the end of game scoring, sending its events to a sink.
+     *
+     * @param eventSink The sink receiving the events of the game, {@link GameEventSink#NONE} to log nothing.
+     */
+    public void run(GameEventSink eventSink) {
+        this.eventSink = eventSink;
+        setupPlayerAutoMovements();
+        dealingOut();
+        createPlayers();
+        addDealToLog();
+        playGame();
+        findWinners();
+        addEndOfGameToLog();
+    }
+
+    /**
+     * Retrieves the final score of a player once the game has been run.
+     *
+     * @param player The player index.
+     * @return The score of the player.
+     */
+    public int getScore(int player) {
+        return state.getScore(player);
+    }
+
+    /**
+     * Retrieves the winners once the game has been run.
+     *
+     * @return The indexes of the players with the highest score.
+     */
+    public List<Integer> getWinners() {
+        return winners;
+    }
+}
@@ -27,6 +27,10 @@ public class HumanPlayer extends Player {
      * @return A list of card(s) that human player can play.
      */
     public ArrayList<Card> getValidCards(Hand hand, ArrayList<Card> playedCard){
-        return strategy.getCardsToPlay(hand, playedCard);
+        GameMetrics metrics = GameMetrics.getInstance();
+        long startTime = metrics.startDecision();
+        ArrayList<Card> validCards = strategy.getCardsToPlay(hand, playedCard);
+        metrics.recordDecision(strategy, startTime);
+        return validCards;
     }
 }
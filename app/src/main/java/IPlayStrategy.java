@@ -8,6 +8,11 @@ import java.util.ArrayList;
  */
 public interface IPlayStrategy {
 
+    /**
+     * Card id returned by {@link #selectCard(GameState)} when the player skips the turn.
+     */
+    int NO_MOVE = CardBits.NO_CARD;
+
     /**
      * Determines which card(s) to play based on the current state of the game.
      *
@@ -16,4 +21,51 @@ public interface IPlayStrategy {
      * @return A list of valid card(s) that the player can play.
      */
     ArrayList<Card> getCardsToPlay(Hand hand, ArrayList<Card> playedCard);
+
+    /**
+     * Determines which card(s) to play based on the current state of the game and the cards played so far.
+     * Strategies which do not look at the previous rounds can rely on this default implementation.
+     *
+     * @param hand The current hand of the player.
+     * @param playedCard The cards that have been played in the current round.
+     * @param cardTracker The tracker of the cards played so far in this game.
+     * @return A list of valid card(s) that the player can play.
+     */
+    default ArrayList<Card> getCardsToPlay(Hand hand, ArrayList<Card> playedCard, CardTracker cardTracker) {
+        return getCardsToPlay(hand, playedCard);
+    }
+
+    /**
+     * Determines which card to play using the primitive card model, without any allocation.
+     * This is the chosen card of the strategy, one of its {@link #selectCandidateCards(GameState) candidate cards}.
+     *
+     * @param state The state of the game, where the player to move is the current player.
+     * @return The id of the card to play, or {@link #NO_MOVE} if the player skips.
+     */
+    int selectCard(GameState state);
+
+    /**
+     * Determines which card to play before a deadline. Searching strategies are anytime: they search
+     * until the deadline, instead of their own time budget, and return the best move found by then.
+     * Strategies which decide at once can rely on this default implementation, ignoring the deadline.
+     *
+     * @param state The state of the game, where the player to move is the current player.
+     * @param deadline The {@link System#nanoTime()} by which the move is needed.
+     * @return The id of the card to play, or {@link #NO_MOVE} if the player skips.
+     */
+    default int selectCard(GameState state, long deadline) {
+        return selectCard(state);
+    }
+
+    /**
+     * Determines the candidate cards of the player to move, among which a strategy chooses its card with
+     * {@link #selectCard(GameState)}. They are the cards the rules allow, whatever the strategy, so this
+     * default implementation is not meant to be overridden by strategies choosing differently.
+     *
+     * @param state The state of the game, where the player to move is the current player.
+     * @return The bitmask of the valid cards, 0 if the player must skip.
+     */
+    default long selectCandidateCards(GameState state) {
+        return CardBits.validCards(state.getCurrentHand(), state.getLastCard());
+    }
 }
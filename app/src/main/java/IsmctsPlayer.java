@@ -0,0 +1,30 @@
+import ch.aplu.jcardgame.Hand;
+
+import java.util.SplittableRandom;
+
+/**
+ * Represents a player that searches a tree of the possible moves of every player.
+ * The ISMCTS strategy is determined by the PlayStrategyFactory.
+ */
+public class IsmctsPlayer extends ComputerPlayer {
+
+    /**
+     * Constructs an IsmctsPlayer with the given hand of cards.
+     * The player uses an information set Monte Carlo tree search strategy for playing cards.
+     *
+     * @param hand The hand of cards assigned to the player.
+     */
+    public IsmctsPlayer(Hand hand) {
+        super(hand, PlayStrategyFactory.getInstance().getStrategy("Ismcts"));
+    }
+
+    /**
+     * Constructs a IsmctsPlayer with the given hand of cards, whose searches are drawn from the given generator.
+     *
+     * @param hand The hand of cards assigned to the player.
+     * @param random The random generator of the player.
+     */
+    public IsmctsPlayer(Hand hand, SplittableRandom random) {
+        super(hand, PlayStrategyFactory.getInstance().getStrategy("Ismcts", random));
+    }
+}
@@ -0,0 +1,272 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Represents an information set Monte Carlo tree search strategy (single observer ISMCTS).
+ * Each iteration samples a deal of the unseen cards with a {@link Determinizer}, descends the tree
+ * through the moves which are valid in this deal with UCB, expands one new move, plays the game out
+ * with a fast rollout and backs the final score of each player up to the moves they played.
+ * Iterations stop at the iteration budget, at the time budget or at the deadline given to
+ * {@link #selectCard(GameState, long)}. The most visited move is played. The tree is kept in a {@link SearchTree} and survives from one
+ * turn to the next: the subtree reached by the moves played since the last decision becomes the new root.
+ * Once few cards are left, the sampled deals are solved exactly by an {@link EndgameSolver} instead of rolled out.
+ * The deals, expansions and rollouts are drawn from the generator of the player, so that a search stopped by
+ * its iteration budget rather than by the clock can be reproduced.
+ */
+public class IsmctsStrategy extends CompositePlayStrategy {
+
+    // Number of iterations for each decision
+    private static final int DEFAULT_NB_ITERATIONS = 5000;
+    // Time allowed for each decision, in milliseconds
+    private static final long DEFAULT_TIME_BUDGET_MILLIS = 50;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+    // Maximum number of nodes of the tree, beyond which iterations stop expanding it
+    private static final int MAX_NODES = 1 << 20;
+    // Exploration constant of UCB, for rewards around 1
+    private static final double EXPLORATION = 0.7;
+    // Final score worth a reward of 1
+    private static final double SCORE_SCALE = 100;
+    // Bit of the skip in the masks of moves, next to the bits of the cards
+    private static final long SKIP_BIT = 1L << CardBits.NB_CARDS;
+
+    private final int nbIterations;
+    private final long timeBudgetNanos;
+    private final int endgameCardThreshold;
+
+    // The tree and a spare tree of the same size, receiving the subtree kept for the next decision
+    private SearchTree tree = new SearchTree(MAX_NODES);
+    private SearchTree spareTree = new SearchTree(MAX_NODES);
+    private int root = SearchTree.NO_NODE;
+    // Game, turn and cards played at the root of the tree
+    private GameState rootState = null;
+    private int rootTurn = 0;
+    private long rootPlayedCards = 0;
+
+    private final GameState sample = new GameState();
+    private int[] path = new int[CardBits.NB_CARDS];
+
+    // Random generator of the deals, the expansions and the rollouts.
+    private final SplittableRandom RANDOM;
+
+    // Moves played without search in the first plies
+    private OpeningBook openingBook = OpeningBook.getInstance();
+
+    /**
+     * Constructs an ISMCTS strategy with the default budgets and an unseeded random generator.
+     */
+    public IsmctsStrategy() {
+        this(new SplittableRandom());
+    }
+
+    /**
+     * Constructs an ISMCTS strategy with the default budgets.
+     *
+     * @param random The random generator of the player, not shared with another thread.
+     */
+    public IsmctsStrategy(SplittableRandom random) {
+        this(DEFAULT_NB_ITERATIONS, DEFAULT_TIME_BUDGET_MILLIS, EndgameSolver.DEFAULT_CARD_THRESHOLD, random);
+    }
+
+    /**
+     * Constructs an ISMCTS strategy with the given budgets and an unseeded random generator.
+     *
+     * @param nbIterations The maximum number of iterations for each decision.
+     * @param timeBudgetMillis The maximum time spent on each decision, in milliseconds.
+     * @param endgameCardThreshold The number of cards left in all hands below which deals are solved exactly,
+     *                             0 to always play rollouts.
+     */
+    public IsmctsStrategy(int nbIterations, long timeBudgetMillis, int endgameCardThreshold) {
+        this(nbIterations, timeBudgetMillis, endgameCardThreshold, new SplittableRandom());
+    }
+
+    /**
+     * Constructs an ISMCTS strategy with the given budgets.
+     *
+     * @param nbIterations The maximum number of iterations for each decision.
+     * @param timeBudgetMillis The maximum time spent on each decision, in milliseconds.
+     * @param endgameCardThreshold The number of cards left in all hands below which deals are solved exactly,
+     *                             0 to always play rollouts.
+     * @param random The random generator of the player, not shared with another thread.
+     */
+    public IsmctsStrategy(int nbIterations, long timeBudgetMillis, int endgameCardThreshold, SplittableRandom random) {
+        RANDOM = random;
+        this.nbIterations = nbIterations;
+        this.timeBudgetNanos = timeBudgetMillis * NANOS_PER_MILLI;
+        this.endgameCardThreshold = endgameCardThreshold;
+    }
+
+    /**
+     * Sets the opening book played instead of searching in the first plies, {@link OpeningBook#getInstance()} by default.
+     *
+     * @param openingBook The opening book, {@link OpeningBook#EMPTY} to always search.
+     */
+    public void setOpeningBook(OpeningBook openingBook) {
+        this.openingBook = openingBook;
+    }
+
+    /**
+     * Determines the card to play by searching the tree of the moves of every player.
+     *
+     * @param state The state of the game.
+     * @return The id of the selected card, or {@link #NO_MOVE} if no card is valid or skipping is the best move.
+     */
+    @Override
+    public int selectCard(GameState state) {
+        return selectCard(state, System.nanoTime() + timeBudgetNanos);
+    }
+
+    /**
+     * Determines the card to play by searching the tree of the moves of every player until the deadline.
+     *
+     * @param state The state of the game.
+     * @param deadline The {@link System#nanoTime()} after which no more iteration starts.
+     * @return The id of the selected card, or {@link #NO_MOVE} if no card is valid or skipping is the best move.
+     */
+    @Override
+    public int selectCard(GameState state, long deadline) {
+        int bookMove = openingBook.lookup(state);
+        if (bookMove != OpeningBook.NOT_IN_BOOK) {
+            return bookMove;
+        }
+        moveRoot(state);
+        long validCards = strategies.get(0).selectCandidateCards(state);
+        if (validCards == 0) {
+            return NO_MOVE;
+        }
+
+        Determinizer determinizer = new Determinizer(state);
+        for (int i = 0; i < nbIterations && System.nanoTime() < deadline; i++) {
+            determinizer.deal(sample, RANDOM);
+            iterate();
+        }
+
+        // the most visited of the moves valid now, a kept subtree holding none other than these
+        long validMoves = validCards | SKIP_BIT;
+        int bestChild = SearchTree.NO_NODE;
+        for (int child = tree.getFirstChild(root); child != SearchTree.NO_NODE; child = tree.getNextSibling(child)) {
+            if ((validMoves & moveBit(tree.getMove(child))) == 0) {
+                continue;
+            }
+            if (bestChild == SearchTree.NO_NODE || tree.getVisits(child) > tree.getVisits(bestChild)) {
+                bestChild = child;
+            }
+        }
+        return bestChild == SearchTree.NO_NODE ? NO_MOVE : tree.getMove(bestChild);
+    }
+
+    /**
+     * Moves the root of the tree down the moves played since the last decision of the same game,
+     * or starts a new tree when these moves have not been explored. The moves must account for the cards
+     * played since, so that a state object reset for another game does not walk the tree of the last one.
+     */
+    private void moveRoot(GameState state) {
+        int node = SearchTree.NO_NODE;
+        if (state == rootState && state.getTurnCount() >= rootTurn) {
+            node = root;
+            long movedCards = 0;
+            for (int turn = rootTurn; turn < state.getTurnCount() && node != SearchTree.NO_NODE; turn++) {
+                int move = state.getMove(turn);
+                node = tree.findChild(node, move);
+                movedCards |= move == NO_MOVE ? 0 : CardBits.bit(move);
+            }
+            if ((rootPlayedCards | movedCards) != state.getPlayedCards()) {
+                node = SearchTree.NO_NODE;
+            }
+        }
+
+        if (node == SearchTree.NO_NODE) {
+            tree.clear();
+            root = tree.newNode(NO_MOVE, SearchTree.NO_NODE);
+        } else if (node != root) {
+            root = spareTree.copySubtree(tree, node);
+            SearchTree previousTree = tree;
+            tree = spareTree;
+            spareTree = previousTree;
+        }
+        rootState = state;
+        rootTurn = state.getTurnCount();
+        rootPlayedCards = state.getPlayedCards();
+    }
+
+    /**
+     * Runs one iteration of the search on the sampled deal.
+     */
+    private void iterate() {
+        int node = root;
+        int pathLength = 0;
+        path[pathLength++] = node;
+        while (!sample.isGameOver()) {
+            long validCards = CardBits.validCards(sample.getCurrentHand(), sample.getLastCard());
+            long validMoves = validCards | SKIP_BIT;
+
+            // selection among the children whose move is valid in this deal
+            long exploredMoves = 0;
+            int bestChild = SearchTree.NO_NODE;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (int child = tree.getFirstChild(node); child != SearchTree.NO_NODE; child = tree.getNextSibling(child)) {
+                long moveBit = moveBit(tree.getMove(child));
+                if ((validMoves & moveBit) == 0) {
+                    continue;
+                }
+                exploredMoves |= moveBit;
+                tree.addAvailability(child);
+                double value = tree.getTotalReward(child) / tree.getVisits(child)
+                        + EXPLORATION * Math.sqrt(Math.log(tree.getAvailability(child)) / tree.getVisits(child));
+                if (value > bestValue) {
+                    bestValue = value;
+                    bestChild = child;
+                }
+            }
+
+            long unexploredMoves = validMoves & ~exploredMoves;
+            if (unexploredMoves != 0) {
+                int move = randomMove(unexploredMoves);
+                int child = tree.newNode(move, sample.getCurrentPlayer());
+                if (child != SearchTree.NO_NODE) {
+                    tree.addChild(node, child);
+                    tree.addAvailability(child);
+                    pathLength = addToPath(pathLength, child);
+                }
+                sample.playTurn(move);
+                break;
+            }
+
+            node = bestChild;
+            pathLength = addToPath(pathLength, node);
+            sample.playTurn(tree.getMove(node));
+        }
+
+        long endgameGains = 0;
+        if (EndgameSolver.canSolve(sample, endgameCardThreshold)) {
+            endgameGains = EndgameSolver.forCurrentThread().solve(sample);
+        } else {
+            Determinizer.playOut(sample, RANDOM);
+        }
+        tree.addVisit(path[0], 0);
+        for (int i = 1; i < pathLength; i++) {
+            int mover = tree.getMover(path[i]);
+            tree.addVisit(path[i], (sample.getScore(mover) + EndgameSolver.getGain(endgameGains, mover)) / SCORE_SCALE);
+        }
+    }
+
+    private int addToPath(int pathLength, int node) {
+        if (pathLength == path.length) {
+            path = Arrays.copyOf(path, 2 * pathLength);
+        }
+        path[pathLength] = node;
+        return pathLength + 1;
+    }
+
+    private static long moveBit(int move) {
+        return move == NO_MOVE ? SKIP_BIT : CardBits.bit(move);
+    }
+
+    private int randomMove(long moves) {
+        long rest = moves;
+        for (int i = RANDOM.nextInt(Long.bitCount(moves)); i > 0; i--) {
+            rest &= rest - 1;
+        }
+        int index = Long.numberOfTrailingZeros(rest);
+        return index == CardBits.NB_CARDS ? NO_MOVE : index;
+    }
+}
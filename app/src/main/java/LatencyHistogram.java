@@ -0,0 +1,128 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts latencies in nanoseconds in log-linear buckets, as HdrHistogram does: each power of two is split
+ * into 32 buckets, so that a percentile is reported within about 3% of the recorded value whatever its
+ * magnitude, with a fixed array and no allocation per value.
+ * A histogram is written by a single thread, and may be read by others at any time, for example to
+ * merge the histograms of several threads into a report.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    // Values below twice the sub-bucket count have a bucket each
+    private static final int LINEAR_COUNT = 2 * SUB_BUCKET_COUNT;
+    private static final int NB_BUCKETS = LINEAR_COUNT + (Long.SIZE - 1 - (SUB_BUCKET_BITS + 1)) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(NB_BUCKETS);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalValue = new AtomicLong();
+    private final AtomicLong maxValue = new AtomicLong();
+
+    /**
+     * Records a value. Only the thread owning the histogram may record.
+     *
+     * @param value The value in nanoseconds, negative values being counted as 0.
+     */
+    public void record(long value) {
+        value = Math.max(0, value);
+        int index = bucketIndex(value);
+        // single writer, so plain increments published with ordered stores are enough
+        counts.lazySet(index, counts.get(index) + 1);
+        totalCount.lazySet(totalCount.get() + 1);
+        totalValue.lazySet(totalValue.get() + value);
+        if (value > maxValue.get()) {
+            maxValue.lazySet(value);
+        }
+    }
+
+    /**
+     * Adds the counts of another histogram to this one. Only the thread owning this histogram may add.
+     *
+     * @param other The histogram to add.
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < NB_BUCKETS; i++) {
+            long count = other.counts.get(i);
+            if (count != 0) {
+                counts.lazySet(i, counts.get(i) + count);
+            }
+        }
+        totalCount.lazySet(totalCount.get() + other.totalCount.get());
+        totalValue.lazySet(totalValue.get() + other.totalValue.get());
+        maxValue.lazySet(Math.max(maxValue.get(), other.maxValue.get()));
+    }
+
+    private static int bucketIndex(long value) {
+        if (value < LINEAR_COUNT) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return LINEAR_COUNT + (exponent - SUB_BUCKET_BITS - 1) * SUB_BUCKET_COUNT
+                + (int) (value >>> shift) - SUB_BUCKET_COUNT;
+    }
+
+    // Highest value counted in the bucket of the given index
+    private static long highestValue(int index) {
+        if (index < LINEAR_COUNT) {
+            return index;
+        }
+        int exponent = (index - LINEAR_COUNT) / SUB_BUCKET_COUNT + SUB_BUCKET_BITS + 1;
+        int shift = exponent - SUB_BUCKET_BITS;
+        long lowestValue = (long) ((index - LINEAR_COUNT) % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT) << shift;
+        return lowestValue + (1L << shift) - 1;
+    }
+
+    /**
+     * Retrieves the number of recorded values.
+     *
+     * @return The count of values.
+     */
+    public long getCount() {
+        return totalCount.get();
+    }
+
+    /**
+     * Computes the mean of the recorded values.
+     *
+     * @return The mean in nanoseconds, or 0 if nothing was recorded.
+     */
+    public double getMean() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) totalValue.get() / count;
+    }
+
+    /**
+     * Retrieves the highest recorded value.
+     *
+     * @return The maximum in nanoseconds, or 0 if nothing was recorded.
+     */
+    public long getMax() {
+        return maxValue.get();
+    }
+
+    /**
+     * Computes the value below which the given share of the recorded values falls.
+     *
+     * @param percentile The percentile, between 0 and 100.
+     * @return The highest value of the bucket reaching the percentile, capped by the maximum, or 0 if nothing was recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long count = getCount();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100, percentile) / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < NB_BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValue(i), getMax());
+            }
+        }
+        return getMax();
+    }
+}
@@ -0,0 +1,77 @@
+import java.io.PrintStream;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prints the {@link GameMetrics} periodically while games are played, as text or as CSV lines,
+ * from a daemon thread. Each report gives the rates since the previous report and the latencies
+ * of all the decisions so far.
+ */
+public class MetricsReporter implements AutoCloseable {
+
+    /**
+     * The formats of the reports.
+     */
+    public enum Format {
+        /** Lines of text, one for the games and one per strategy. */
+        TEXT,
+        /** CSV lines under a header printed once, one line per strategy. */
+        CSV
+    }
+
+    private final GameMetrics metrics = GameMetrics.getInstance();
+    private final PrintStream out;
+    private final Format format;
+    private final ScheduledExecutorService scheduler;
+    private GameMetrics.Snapshot previous;
+
+    private MetricsReporter(PrintStream out, Format format) {
+        this.out = out;
+        this.format = format;
+        metrics.setEnabled(true);
+        previous = metrics.snapshot();
+        if (format == Format.CSV) {
+            out.println(GameMetrics.Snapshot.CSV_HEADER);
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts reporting the metrics, which are turned on. The reports are scheduled once the reporter
+     * is fully built, so that the reporting thread never sees it half-initialized.
+     *
+     * @param out The stream the reports are printed to.
+     * @param format The format of the reports.
+     * @param periodMillis The time between two reports, in milliseconds.
+     * @return The reporter, to be closed once the games are over.
+     */
+    public static MetricsReporter start(PrintStream out, Format format, long periodMillis) {
+        MetricsReporter reporter = new MetricsReporter(out, format);
+        reporter.scheduler.scheduleAtFixedRate(reporter::report, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+        return reporter;
+    }
+
+    /**
+     * Prints the metrics since the previous report.
+     */
+    public synchronized void report() {
+        GameMetrics.Snapshot snapshot = metrics.snapshot();
+        out.print(format == Format.CSV ? snapshot.toCsv(previous) : snapshot.toText(previous));
+        out.flush();
+        previous = snapshot;
+    }
+
+    /**
+     * Stops the periodic reports and prints a last one.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        report();
+    }
+}
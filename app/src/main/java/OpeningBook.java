@@ -0,0 +1,330 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Holds the moves to play in the first plies of a game, so that search strategies can skip their search there.
+ * The book is keyed on a coarse signature of the decision which recurs from deal to deal: the ply, the rank
+ * of the last card of the trick, a band of the rank total of the trick and the number of valid cards in each
+ * band of ranks (the aces, 2 to 5, 6 to 9 and 10 to King). The signature ignores the suits, so a move is
+ * kept as its order among the valid cards sorted by rank, which gives the card to play in any hand of the
+ * same signature. The move of a signature is the one the expert strategy chose most often for it.
+ * A book is built by playing the first plies of a batch of deals with an expert strategy, and saved to a
+ * compact file: a header of {@link #HEADER_SIZE} bytes (magic number, version, number of plies and of entries),
+ * the sorted signatures of the entries as longs, then the move of each entry as a byte.
+ * A default book built from the moves of {@link SimulationStrategy} is shipped as the {@link #DEFAULT_RESOURCE}
+ * resource.
+ */
+public class OpeningBook {
+
+    /** Magic number at the start of a book file: "CUOB". */
+    public static final int MAGIC = 0x43554F42;
+
+    /** Version of the file format. */
+    public static final short VERSION = 2;
+
+    /** Size of the file header, in bytes. */
+    public static final int HEADER_SIZE = 12;
+
+    /** Number of plies covered by a book by default. */
+    public static final int DEFAULT_NB_PLIES = 4;
+
+    /** Maximum number of plies covered by a book. */
+    public static final int MAX_NB_PLIES = 8;
+
+    /** Result of {@link #lookup(GameState)} when the book has no move for a state. */
+    public static final int NOT_IN_BOOK = -2;
+
+    /** Name of the system property holding the path of the book loaded by {@link #getInstance()}. */
+    public static final String PATH_PROPERTY = "openingBook";
+
+    /** Name of the resource of the book loaded by {@link #getInstance()} when no path is set. */
+    public static final String DEFAULT_RESOURCE = "opening.book";
+
+    /** A book without any entry. */
+    public static final OpeningBook EMPTY = new OpeningBook(DEFAULT_NB_PLIES, new long[0], new byte[0]);
+
+    // Order of a skip among the moves of the book
+    private static final byte SKIP_ORDER = -1;
+    // Bits of the ply, of the rank of the last card and of the band of the rank total of the trick,
+    // followed by 4 bits for the number of valid cards of each band of ranks
+    private static final int PLY_BITS = 3;
+    private static final int RANK_BITS = 4;
+    private static final int TRICK_BAND_BITS = 3;
+    private static final int COUNT_BITS = 4;
+    private static final int TRICK_BAND_WIDTH = 16;
+    private static final int NB_RANK_BANDS = 4;
+    private static final int RANKS_PER_BAND = 4;
+
+    private static OpeningBook instance = null;
+
+    private final int nbPlies;
+    // Entries sorted by signature
+    private final long[] signatures;
+    private final byte[] moves;
+
+    private OpeningBook(int nbPlies, long[] signatures, byte[] moves) {
+        this.nbPlies = nbPlies;
+        this.signatures = signatures;
+        this.moves = moves;
+    }
+
+    /**
+     * Returns the book consulted by the search strategies by default, loaded the first time from the file
+     * named by the {@link #PATH_PROPERTY} system property, or from the {@link #DEFAULT_RESOURCE} resource if
+     * the property is not set. The book is empty if the property is set to an empty path or the book cannot
+     * be loaded.
+     *
+     * @return The default book.
+     */
+    public static synchronized OpeningBook getInstance() {
+        if (instance == null) {
+            String path = System.getProperty(PATH_PROPERTY);
+            instance = EMPTY;
+            try {
+                if (path == null) {
+                    try (InputStream input = OpeningBook.class.getClassLoader().getResourceAsStream(DEFAULT_RESOURCE)) {
+                        if (input != null) {
+                            instance = load(input.readAllBytes(), DEFAULT_RESOURCE);
+                        }
+                    }
+                } else if (!path.isEmpty()) {
+                    instance = load(Paths.get(path));
+                }
+            } catch (IOException e) {
+                System.err.println("Cannot load the opening book: " + e.getMessage());
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Retrieves the number of plies covered by the book.
+     *
+     * @return The number of plies from the start of a game.
+     */
+    public int getNbPlies() {
+        return nbPlies;
+    }
+
+    /**
+     * Retrieves the number of entries of the book.
+     *
+     * @return The number of entries.
+     */
+    public int size() {
+        return moves.length;
+    }
+
+    /**
+     * Looks up the move of the current player.
+     *
+     * @param state The state of the game.
+     * @return The id of the card to play, {@link IPlayStrategy#NO_MOVE} to skip, or {@link #NOT_IN_BOOK}
+     *         if the book has no move for this state.
+     */
+    public int lookup(GameState state) {
+        // the book is built from the deals of four players
+        if (moves.length == 0 || state.getTurnCount() >= nbPlies || state.getNbPlayers() != GameState.NB_PLAYERS) {
+            return NOT_IN_BOOK;
+        }
+        long validCards = CardBits.validCards(state.getCurrentHand(), state.getLastCard());
+        int index = Arrays.binarySearch(signatures, signature(state, validCards));
+        if (index < 0) {
+            return NOT_IN_BOOK;
+        }
+        return moves[index] == SKIP_ORDER ? IPlayStrategy.NO_MOVE : cardAt(validCards, moves[index]);
+    }
+
+    /**
+     * Builds a book by playing the first plies of a batch of deals, every player playing the moves
+     * of the expert strategy.
+     *
+     * @param expert The strategy deciding the moves of the book.
+     * @param nbGames The number of deals.
+     * @param baseSeed The seed of the {@link Dealer} of the deals.
+     * @param nbPlies The number of plies covered by the book, at most {@link #MAX_NB_PLIES}.
+     * @return The new book.
+     */
+    public static OpeningBook build(IPlayStrategy expert, int nbGames, long baseSeed, int nbPlies) {
+        Builder builder = new Builder(nbPlies);
+        Dealer dealer = new Dealer(baseSeed);
+        long[] noPresetHands = new long[GameState.NB_PLAYERS];
+        GameState state = new GameState();
+        for (int gameIndex = 0; gameIndex < nbGames; gameIndex++) {
+            state.reset();
+            state.dealHands(dealer.deal(gameIndex, noPresetHands, Dealer.DEFAULT_NB_START_CARDS));
+            while (state.getTurnCount() < nbPlies && !state.isGameOver()) {
+                int move = expert.selectCard(state);
+                builder.add(state, move);
+                state.playTurn(move);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Collects the entries of a new book.
+     */
+    public static class Builder {
+        private final int nbPlies;
+        private final List<long[]> entries = new ArrayList<>();
+
+        /**
+         * Constructs a builder of a book covering the given number of plies.
+         *
+         * @param nbPlies The number of plies from the start of a game, at most {@link #MAX_NB_PLIES}.
+         */
+        public Builder(int nbPlies) {
+            if (nbPlies > MAX_NB_PLIES) {
+                throw new IllegalArgumentException("A book covers at most " + MAX_NB_PLIES + " plies");
+            }
+            this.nbPlies = nbPlies;
+        }
+
+        /**
+         * Adds the move of the current player in a state. The book plays the move added most often
+         * for the signature of the state, the lowest in the order of the valid cards on a tie.
+         *
+         * @param state The state of the game.
+         * @param move The id of a valid card to play, or {@link IPlayStrategy#NO_MOVE} to skip.
+         * @return false if the state is beyond the plies of the book.
+         */
+        public boolean add(GameState state, int move) {
+            if (state.getTurnCount() >= nbPlies) {
+                return false;
+            }
+            long validCards = CardBits.validCards(state.getCurrentHand(), state.getLastCard());
+            entries.add(new long[] { signature(state, validCards),
+                    move == IPlayStrategy.NO_MOVE ? SKIP_ORDER : orderOf(validCards, move) });
+            return true;
+        }
+
+        /**
+         * Builds the book of the entries added so far.
+         *
+         * @return The new book.
+         */
+        public OpeningBook build() {
+            entries.sort(Comparator.<long[]>comparingLong(entry -> entry[0]).thenComparingLong(entry -> entry[1]));
+            long[] signatures = new long[entries.size()];
+            byte[] moves = new byte[entries.size()];
+            int size = 0;
+            int bestCount = 0;
+            int count = 0;
+            for (int i = 0; i < entries.size(); i++) {
+                long[] entry = entries.get(i);
+                boolean isNewSignature = size == 0 || signatures[size - 1] != entry[0];
+                if (isNewSignature) {
+                    signatures[size] = entry[0];
+                    moves[size++] = (byte) entry[1];
+                    bestCount = 0;
+                    count = 0;
+                }
+                // the entries of a signature are sorted by move, so that a run counts the times a move was added
+                count = isNewSignature || entries.get(i - 1)[1] == entry[1] ? count + 1 : 1;
+                if (count > bestCount) {
+                    bestCount = count;
+                    moves[size - 1] = (byte) entry[1];
+                }
+            }
+            return new OpeningBook(nbPlies, Arrays.copyOf(signatures, size), Arrays.copyOf(moves, size));
+        }
+    }
+
+    /**
+     * Loads a book from a file written by {@link #save(Path)}.
+     *
+     * @param path The path of the file.
+     * @return The book.
+     * @throws IOException If the file cannot be read or is not a book file.
+     */
+    public static OpeningBook load(Path path) throws IOException {
+        return load(Files.readAllBytes(path), path.toString());
+    }
+
+    private static OpeningBook load(byte[] bytes, String name) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getShort() != VERSION) {
+            throw new IOException("Not an opening book file: " + name);
+        }
+        int nbPlies = buffer.getShort();
+        int size = buffer.getInt();
+        if (nbPlies > MAX_NB_PLIES || size < 0 || buffer.remaining() != size * (Long.BYTES + 1L)) {
+            throw new IOException("Corrupted opening book file: " + name);
+        }
+        long[] signatures = new long[size];
+        byte[] moves = new byte[size];
+        for (int i = 0; i < size; i++) {
+            signatures[i] = buffer.getLong();
+        }
+        buffer.get(moves);
+        return new OpeningBook(nbPlies, signatures, moves);
+    }
+
+    /**
+     * Saves the book to a file, replacing any existing file.
+     *
+     * @param path The path of the file.
+     * @throws IOException If the file cannot be written.
+     */
+    public void save(Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + moves.length * (Long.BYTES + 1));
+        buffer.putInt(MAGIC).putShort(VERSION).putShort((short) nbPlies).putInt(moves.length);
+        for (long signature : signatures) {
+            buffer.putLong(signature);
+        }
+        buffer.put(moves);
+        Files.write(path, buffer.array());
+    }
+
+    /**
+     * Packs the ply, the rank of the last card, the band of the rank total of the trick and the number of
+     * valid cards in each band of ranks.
+     */
+    private static long signature(GameState state, long validCards) {
+        int lastCard = state.getLastCard();
+        long signature = state.getTurnCount();
+        signature |= (long) (lastCard == CardBits.NO_CARD ? 0 : CardBits.rankValue(lastCard)) << PLY_BITS;
+        signature |= (long) Math.min(state.getTrickRankTotal() / TRICK_BAND_WIDTH, (1 << TRICK_BAND_BITS) - 1)
+                << PLY_BITS + RANK_BITS;
+        for (int rankValue = 1; rankValue <= CardBits.NB_RANKS; rankValue++) {
+            int band = rankValue == 1 ? 0 : (rankValue - 2) / RANKS_PER_BAND + 1;
+            signature += (long) CardBits.size(validCards & CardBits.rankMask(rankValue))
+                    << PLY_BITS + RANK_BITS + TRICK_BAND_BITS + band * COUNT_BITS;
+        }
+        return signature;
+    }
+
+    /**
+     * Finds the order of a valid card among the valid cards sorted by rank, then by card id.
+     */
+    private static int orderOf(long validCards, int card) {
+        int order = CardBits.size(validCards & CardBits.rankMask(CardBits.rankValue(card)) & CardBits.bit(card) - 1);
+        for (int rankValue = 1; rankValue < CardBits.rankValue(card); rankValue++) {
+            order += CardBits.size(validCards & CardBits.rankMask(rankValue));
+        }
+        return order;
+    }
+
+    /**
+     * Finds the valid card of the given order among the valid cards sorted by rank, then by card id.
+     */
+    private static int cardAt(long validCards, int order) {
+        for (int rankValue = 1; rankValue <= CardBits.NB_RANKS; rankValue++) {
+            long cards = validCards & CardBits.rankMask(rankValue);
+            if (order < CardBits.size(cards)) {
+                return CardBits.nthCard(cards, order);
+            }
+            order -= CardBits.size(cards);
+        }
+        return NOT_IN_BOOK;
+    }
+}
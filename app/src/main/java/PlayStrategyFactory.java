@@ -1,3 +1,5 @@
+import java.util.SplittableRandom;
+
 /**
  * Factory class for creating and retrieving play strategies.
  * This class provides a mechanism to get instances of different play strategies using the Singleton pattern.
@@ -20,29 +22,51 @@ public class PlayStrategyFactory {
      * If the strategy instance does not exist, it creates one and returns it.
      * If the strategy instance already exists, it returns the existing instance.
      *
-     * @param type The type of play strategy requested. Valid values are "Random", "Basic", "Clever", and "Fundamental".
+     * @param type The type of play strategy requested. Valid values are "Random", "Basic", "Clever", "Simulation", "Ismcts", and "Fundamental".
      * @return An instance of the requested play strategy or null if the type is not recognized.
      */
     public IPlayStrategy getStrategy(String type) {
-        if (type.equals("Random")) return getRandomStrategy();
-        if (type.equals("Basic")) return getBasicStrategy();
+        return getStrategy(type, new SplittableRandom());
+    }
+
+    /**
+     * Returns an instance of the requested play strategy, whose random choices are drawn from the given generator.
+     * Strategies without random choices ignore the generator.
+     *
+     * @param type The type of play strategy requested, as in {@link #getStrategy(String)}.
+     * @param random The random generator of the player, not shared with another thread.
+     * @return An instance of the requested play strategy or null if the type is not recognized.
+     */
+    public IPlayStrategy getStrategy(String type, SplittableRandom random) {
+        if (type.equals("Random")) return getRandomStrategy(random);
+        if (type.equals("Basic")) return getBasicStrategy(random);
         if (type.equals("Clever")) return getCleverStrategy();
+        if (type.equals("Simulation")) return getSimulationStrategy(random);
+        if (type.equals("Ismcts")) return getIsmctsStrategy(random);
         if (type.equals("Fundamental")) return getFundamentalStrategy();
         return null;
     }
 
-    private IPlayStrategy getRandomStrategy(){
-        return new RandomStrategy();
+    private IPlayStrategy getRandomStrategy(SplittableRandom random){
+        return new RandomStrategy(random);
     }
 
-    private IPlayStrategy getBasicStrategy(){
-        return new BasicStrategy();
+    private IPlayStrategy getBasicStrategy(SplittableRandom random){
+        return new BasicStrategy(random);
     }
 
     private IPlayStrategy getCleverStrategy(){
         return new CleverStrategy();
     }
 
+    private IPlayStrategy getSimulationStrategy(SplittableRandom random){
+        return new SimulationStrategy(random);
+    }
+
+    private IPlayStrategy getIsmctsStrategy(SplittableRandom random){
+        return new IsmctsStrategy(random);
+    }
+
     private IPlayStrategy getFundamentalStrategy(){
         return new FundamentalStrategy();
     }
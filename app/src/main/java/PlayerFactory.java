@@ -1,5 +1,7 @@
 import ch.aplu.jcardgame.Hand;
 
+import java.util.SplittableRandom;
+
 /**
  * Factory class to create and return instances of different types of players.
  * This class provides a method to instantiate players based on a specified type.
@@ -12,6 +14,12 @@ public class PlayerFactory {
 
     }
 
+    /**
+     * Suffix of the player types whose decisions go through the {@link DecisionCache} shared by all players
+     * of the same type, such as "simulation-cached".
+     */
+    public static final String CACHED_SUFFIX = "-cached";
+
     public static PlayerFactory getInstance(){
         return playerFactory == null ? playerFactory = new PlayerFactory() : playerFactory;
     }
@@ -19,31 +27,111 @@ public class PlayerFactory {
     /**
      * Returns a player of the specified type with the given hand of cards.
      *
-     * @param type The type of player to be created. Valid types are "random", "basic", "clever", and "human".
+     * @param type The type of player to be created. Valid types are "random", "basic", "clever", "simulation", "ismcts", and "human".
      * @param hand The hand of cards for the player.
      * @return A player of the specified type or null if the type is not recognized.
      */
     public Player getPlayer(String type, Hand hand){
-        if(type.equals("random")) return getRandomPlayer(hand);
-        if(type.equals("basic")) return getBasicPlayer(hand);
+        return getPlayer(type, hand, new SplittableRandom());
+    }
+
+    /**
+     * Returns a player of the specified type with the given hand of cards, whose random choices are drawn
+     * from the given generator.
+     *
+     * A type ending with {@link #CACHED_SUFFIX} gets the player of its base type, whose strategy is behind
+     * the cache shared by all players of this type, as in {@link #getPlayerStrategy(String, SplittableRandom)}.
+     *
+     * @param type The type of player to be created, as in {@link #getPlayer(String, Hand)}.
+     * @param hand The hand of cards for the player.
+     * @param random The random generator of the player, not shared with another thread.
+     * @return A player of the specified type.
+     * @throws IllegalArgumentException If a cached type is not the type of a computer player.
+     */
+    public Player getPlayer(String type, Hand hand, SplittableRandom random){
+        if(type.endsWith(CACHED_SUFFIX)) {
+            String baseType = type.substring(0, type.length() - CACHED_SUFFIX.length());
+            Player player = getPlayer(baseType, hand, random);
+            if (!(player instanceof ComputerPlayer)) {
+                throw new IllegalArgumentException("Only computer players can be cached: " + type);
+            }
+            ((ComputerPlayer) player).cacheDecisions(getSharedCache(baseType));
+            return player;
+        }
+        if(type.equals("random")) return getRandomPlayer(hand, random);
+        if(type.equals("basic")) return getBasicPlayer(hand, random);
         if(type.equals("clever")) return getCleverPlayer(hand);
+        if(type.equals("simulation")) return getSimulationPlayer(hand, random);
+        if(type.equals("ismcts")) return getIsmctsPlayer(hand, random);
         if(type.equals("human")) return getHumanPlayer(hand);
         // set default player type as random when the player configuration type in property is empty
-        return getRandomPlayer(hand);
+        return getRandomPlayer(hand, random);
     }
 
-    private Player getRandomPlayer(Hand hand){
-        return new RandomPlayer(hand);
+    /**
+     * Returns the play strategy used by players of the specified type, for games played without a Hand.
+     * Human players are not supported without graphics, so they get the fundamental strategy.
+     *
+     * @param type The type of player. Valid types are "random", "basic", "clever", "simulation", "ismcts", and "human".
+     * @return The play strategy of a player of the specified type.
+     */
+    public IPlayStrategy getPlayerStrategy(String type){
+        return getPlayerStrategy(type, new SplittableRandom());
     }
 
-    private Player getBasicPlayer(Hand hand){
-        return new BasicPlayer(hand);
+    /**
+     * Returns the play strategy used by players of the specified type, whose random choices are drawn
+     * from the given generator.
+     *
+     * A type ending with {@link #CACHED_SUFFIX} gets the strategy of its base type behind the cache shared
+     * by all players of this type.
+     *
+     * @param type The type of player, as in {@link #getPlayerStrategy(String)}.
+     * @param random The random generator of the player, not shared with another thread.
+     * @return The play strategy of a player of the specified type.
+     */
+    public IPlayStrategy getPlayerStrategy(String type, SplittableRandom random){
+        if(type.endsWith(CACHED_SUFFIX)) {
+            String baseType = type.substring(0, type.length() - CACHED_SUFFIX.length());
+            return new CachingStrategy(getPlayerStrategy(baseType, random), getSharedCache(baseType));
+        }
+        PlayStrategyFactory playStrategyFactory = PlayStrategyFactory.getInstance();
+        if(type.equals("random")) return playStrategyFactory.getStrategy("Random", random);
+        if(type.equals("basic")) return playStrategyFactory.getStrategy("Basic", random);
+        if(type.equals("clever")) return playStrategyFactory.getStrategy("Clever");
+        if(type.equals("simulation")) return playStrategyFactory.getStrategy("Simulation", random);
+        if(type.equals("ismcts")) return playStrategyFactory.getStrategy("Ismcts", random);
+        if(type.equals("human")) return playStrategyFactory.getStrategy("Fundamental");
+        // set default player type as random when the player configuration type in property is empty
+        return playStrategyFactory.getStrategy("Random", random);
+    }
+
+    private DecisionCache getSharedCache(String baseType) {
+        // the clever strategy only looks at the ranks left, so that its states recur much more
+        DecisionCache.KeyType keyType = baseType.equals("clever") ? DecisionCache.KeyType.RANKS : DecisionCache.KeyType.GAME;
+        return DecisionCache.getShared(baseType, keyType);
+    }
+
+    private Player getRandomPlayer(Hand hand, SplittableRandom random){
+        return new RandomPlayer(hand, random);
+    }
+
+    private Player getBasicPlayer(Hand hand, SplittableRandom random){
+        return new BasicPlayer(hand, random);
     }
 
     private Player getCleverPlayer(Hand hand){
         return new CleverPlayer(hand);
     }
 
+    private Player getSimulationPlayer(Hand hand, SplittableRandom random){
+        return new SimulationPlayer(hand, random);
+    }
+
+    private Player getIsmctsPlayer(Hand hand, SplittableRandom random){
+        return new IsmctsPlayer(hand, random);
+    }
+
     private Player getHumanPlayer(Hand hand){
         return new HumanPlayer(hand);
     }
@@ -1,5 +1,7 @@
 import ch.aplu.jcardgame.Hand;
 
+import java.util.SplittableRandom;
+
 /**
  * Represents a player that uses a random strategy to play cards.
  * This player type makes decisions based on a random strategy provided by the {@link PlayStrategyFactory}.
@@ -15,4 +17,14 @@ public class RandomPlayer extends ComputerPlayer {
     public RandomPlayer(Hand hand) {
         super(hand, PlayStrategyFactory.getInstance().getStrategy("Random"));
     }
+
+    /**
+     * Constructs a new RandomPlayer with the specified hand, drawing its cards from the given generator.
+     *
+     * @param hand The hand of cards assigned to the player.
+     * @param random The random generator of the player.
+     */
+    public RandomPlayer(Hand hand, SplittableRandom random) {
+        super(hand, PlayStrategyFactory.getInstance().getStrategy("Random", random));
+    }
 }
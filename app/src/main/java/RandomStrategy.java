@@ -1,8 +1,4 @@
-import ch.aplu.jcardgame.Card;
-import ch.aplu.jcardgame.Hand;
-
-import java.util.ArrayList;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * Represents a random strategy for playing cards.
@@ -11,28 +7,39 @@ import java.util.Random;
 public class RandomStrategy extends CompositePlayStrategy {
 
     /** Random number generator for selecting cards. */
-    private final Random RANDOM = new Random();
+    private final SplittableRandom RANDOM;
+
+    /**
+     * Constructs a random strategy with an unseeded random generator.
+     */
+    public RandomStrategy() {
+        this(new SplittableRandom());
+    }
+
+    /**
+     * Constructs a random strategy drawing its cards from the given generator, so that its games can be
+     * reproduced from the seed of the generator. The generator must not be shared with another thread.
+     *
+     * @param random The random generator of the player.
+     */
+    public RandomStrategy(SplittableRandom random) {
+        RANDOM = random;
+    }
 
     /**
      * Plays a card from the hand based on the random strategy.
      * If there are valid cards to play, one is selected at random.
-     * If there are no valid cards, an empty list is returned indicating the player must pass.
+     * If there are no valid cards, the player must pass.
      *
-     * @param hand The current hand of the player.
-     * @param playedCards The list of cards that have been played in the current round.
-     * @return A list containing the selected card to play or an empty list if no valid cards.
+     * @param state The state of the game.
+     * @return The id of the selected card, or {@link #NO_MOVE} if no card is valid.
      */
     @Override
-    public ArrayList<Card> getCardsToPlay(Hand hand, ArrayList<Card> playedCards) {
-        ArrayList<Card> validCardsToPlay = strategies.get(0).getCardsToPlay(hand, playedCards);
-        ArrayList<Card> selectedCard = new ArrayList<>();
-        // If there are valid cards, select one at random
-        if (!validCardsToPlay.isEmpty()) {
-            Card cardToPlay = validCardsToPlay.get(RANDOM.nextInt(validCardsToPlay.size()));
-            selectedCard.add(cardToPlay);
+    public int selectCard(GameState state) {
+        long validCards = strategies.get(0).selectCandidateCards(state);
+        if (validCards == 0) {
+            return NO_MOVE;
         }
-
-        // If no valid cards, return an empty list (player must pass)
-        return selectedCard;
+        return CardBits.nthCard(validCards, RANDOM.nextInt(CardBits.size(validCards)));
     }
 }
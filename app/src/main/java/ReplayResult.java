@@ -0,0 +1,74 @@
+/**
+ * The outcome of replaying a recorded game with {@link GameReplayer}: either the game is valid and
+ * the recorded scores match the rules, or the replay stopped at the first divergence between the
+ * record and the rules, such as an illegal move or a wrong score.
+ */
+public class ReplayResult {
+
+    private final int nbTurns;
+    private final int roundNumber;
+    private final String divergence;
+    private final int[] scores;
+
+    ReplayResult(int nbTurns, int roundNumber, String divergence, int[] scores) {
+        this.nbTurns = nbTurns;
+        this.roundNumber = roundNumber;
+        this.divergence = divergence;
+        this.scores = scores;
+    }
+
+    /**
+     * Checks whether the whole game was replayed without any divergence from the record.
+     *
+     * @return true if the record is valid.
+     */
+    public boolean isValid() {
+        return divergence == null;
+    }
+
+    /**
+     * Retrieves the number of turns replayed, up to the first divergence if any.
+     * A divergence on a move is reported at the index of its turn, so that turn is not counted.
+     *
+     * @return The number of turns replayed.
+     */
+    public int getNbTurns() {
+        return nbTurns;
+    }
+
+    /**
+     * Retrieves the round being replayed at the first divergence, or the last round of a valid game.
+     *
+     * @return The round number, starting at 1.
+     */
+    public int getRoundNumber() {
+        return roundNumber;
+    }
+
+    /**
+     * Describes the first divergence between the record and the rules.
+     *
+     * @return The description of the divergence, or null if the record is valid.
+     */
+    public String getDivergence() {
+        return divergence;
+    }
+
+    /**
+     * Retrieves the score of a player as recomputed by the replay, up to the first divergence if any.
+     *
+     * @param player The player index.
+     * @return The score of the player.
+     */
+    public int getScore(int player) {
+        return scores[player];
+    }
+
+    @Override
+    public String toString() {
+        if (isValid()) {
+            return "Valid game of " + nbTurns + " turns and " + roundNumber + " rounds";
+        }
+        return "Divergence at turn " + nbTurns + " of round " + roundNumber + ": " + divergence;
+    }
+}
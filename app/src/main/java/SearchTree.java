@@ -0,0 +1,236 @@
+import java.util.Arrays;
+
+/**
+ * Stores the nodes of a game search tree in flat primitive arrays, a node being an index in these arrays.
+ * The children of a node are linked through their first child and next sibling indexes, so that
+ * no object is allocated per node; the arrays grow by doubling up to a maximum number of nodes
+ * and are reused when the tree is cleared.
+ */
+public class SearchTree {
+
+    /** Index returned when there is no such node. */
+    public static final int NO_NODE = -1;
+
+    private static final int INITIAL_CAPACITY = 4096;
+
+    private final int maxNodes;
+    private int size = 0;
+    // Move leading to each node: the card id, or NO_CARD for a skip
+    private int[] moves;
+    // Player who played the move leading to each node
+    private int[] movers;
+    private int[] firstChildren;
+    private int[] nextSiblings;
+    private int[] visits;
+    // Number of times each node could be selected, its move being valid in the sampled deal
+    private int[] availabilities;
+    private double[] totalRewards;
+    // Queue of the nodes to copy by copySubtree
+    private int[] copyQueue = new int[0];
+
+    /**
+     * Constructs an empty tree.
+     *
+     * @param maxNodes The maximum number of nodes of the tree.
+     */
+    public SearchTree(int maxNodes) {
+        this.maxNodes = maxNodes;
+        int capacity = Math.min(INITIAL_CAPACITY, maxNodes);
+        moves = new int[capacity];
+        movers = new int[capacity];
+        firstChildren = new int[capacity];
+        nextSiblings = new int[capacity];
+        visits = new int[capacity];
+        availabilities = new int[capacity];
+        totalRewards = new double[capacity];
+    }
+
+    /**
+     * Removes every node of the tree, keeping its arrays.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Retrieves the number of nodes of the tree.
+     *
+     * @return The number of nodes.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds a node without any child or statistics.
+     *
+     * @param move The move leading to the node.
+     * @param mover The player who played the move.
+     * @return The index of the new node, or {@link #NO_NODE} if the tree is full.
+     */
+    public int newNode(int move, int mover) {
+        if (size == moves.length && !grow()) {
+            return NO_NODE;
+        }
+        int node = size++;
+        moves[node] = move;
+        movers[node] = mover;
+        firstChildren[node] = NO_NODE;
+        nextSiblings[node] = NO_NODE;
+        visits[node] = 0;
+        availabilities[node] = 0;
+        totalRewards[node] = 0;
+        return node;
+    }
+
+    private boolean grow() {
+        if (moves.length >= maxNodes) {
+            return false;
+        }
+        int capacity = (int) Math.min((long) moves.length * 2, maxNodes);
+        moves = Arrays.copyOf(moves, capacity);
+        movers = Arrays.copyOf(movers, capacity);
+        firstChildren = Arrays.copyOf(firstChildren, capacity);
+        nextSiblings = Arrays.copyOf(nextSiblings, capacity);
+        visits = Arrays.copyOf(visits, capacity);
+        availabilities = Arrays.copyOf(availabilities, capacity);
+        totalRewards = Arrays.copyOf(totalRewards, capacity);
+        return true;
+    }
+
+    /**
+     * Links a node as a child of another node.
+     *
+     * @param parent The parent node.
+     * @param child The new child node.
+     */
+    public void addChild(int parent, int child) {
+        nextSiblings[child] = firstChildren[parent];
+        firstChildren[parent] = child;
+    }
+
+    /**
+     * Finds the child of a node reached by a move.
+     *
+     * @param node The parent node.
+     * @param move The move.
+     * @return The child node, or {@link #NO_NODE} if the move has not been explored.
+     */
+    public int findChild(int node, int move) {
+        for (int child = firstChildren[node]; child != NO_NODE; child = nextSiblings[child]) {
+            if (moves[child] == move) {
+                return child;
+            }
+        }
+        return NO_NODE;
+    }
+
+    /**
+     * Retrieves the move leading to a node: the card id, or {@link CardBits#NO_CARD} for a skip.
+     */
+    public int getMove(int node) {
+        return moves[node];
+    }
+
+    /**
+     * Retrieves the player who played the move leading to a node.
+     */
+    public int getMover(int node) {
+        return movers[node];
+    }
+
+    /**
+     * Retrieves the first child of a node, or {@link #NO_NODE} if it has no child.
+     */
+    public int getFirstChild(int node) {
+        return firstChildren[node];
+    }
+
+    /**
+     * Retrieves the next child of the parent of a node, or {@link #NO_NODE} if it is the last one.
+     */
+    public int getNextSibling(int node) {
+        return nextSiblings[node];
+    }
+
+    /**
+     * Retrieves the number of visits of a node.
+     */
+    public int getVisits(int node) {
+        return visits[node];
+    }
+
+    /**
+     * Retrieves the number of times a node could have been selected.
+     */
+    public int getAvailability(int node) {
+        return availabilities[node];
+    }
+
+    /**
+     * Retrieves the sum of the rewards of the visits of a node.
+     */
+    public double getTotalReward(int node) {
+        return totalRewards[node];
+    }
+
+    /**
+     * Records that a node could have been selected.
+     *
+     * @param node The node.
+     */
+    public void addAvailability(int node) {
+        availabilities[node]++;
+    }
+
+    /**
+     * Records a visit of a node.
+     *
+     * @param node The node.
+     * @param reward The reward of the visit for the player who played the move of the node.
+     */
+    public void addVisit(int node, double reward) {
+        visits[node]++;
+        totalRewards[node] += reward;
+    }
+
+    /**
+     * Replaces this tree by a copy of a subtree of another tree, whose root becomes node 0.
+     * Nodes which do not fit in this tree are dropped with their children.
+     *
+     * @param other The tree to copy from, which must not be this tree.
+     * @param root The root of the subtree to copy.
+     * @return The root of the copy, always 0.
+     */
+    public int copySubtree(SearchTree other, int root) {
+        clear();
+        if (copyQueue.length < other.size) {
+            copyQueue = new int[other.size];
+        }
+        // the queue holds the nodes of the other tree, in the order of their copies in this tree
+        copyNode(other, root);
+        copyQueue[0] = root;
+        for (int head = 0; head < size; head++) {
+            int source = copyQueue[head];
+            for (int child = other.firstChildren[source]; child != NO_NODE; child = other.nextSiblings[child]) {
+                int copy = copyNode(other, child);
+                if (copy == NO_NODE) {
+                    break;
+                }
+                addChild(head, copy);
+                copyQueue[copy] = child;
+            }
+        }
+        return 0;
+    }
+
+    private int copyNode(SearchTree other, int node) {
+        int copy = newNode(other.moves[node], other.movers[node]);
+        if (copy != NO_NODE) {
+            visits[copy] = other.visits[node];
+            availabilities[copy] = other.availabilities[node];
+            totalRewards[copy] = other.totalRewards[node];
+        }
+        return copy;
+    }
+}
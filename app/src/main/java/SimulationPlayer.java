@@ -0,0 +1,30 @@
+import ch.aplu.jcardgame.Hand;
+
+import java.util.SplittableRandom;
+
+/**
+ * Represents a player that simulates the rest of the game to choose its cards.
+ * The simulation strategy is determined by the PlayStrategyFactory.
+ */
+public class SimulationPlayer extends ComputerPlayer {
+
+    /**
+     * Constructs a SimulationPlayer with the given hand of cards.
+     * The player uses a Monte Carlo simulation strategy for playing cards.
+     *
+     * @param hand The hand of cards assigned to the player.
+     */
+    public SimulationPlayer(Hand hand) {
+        super(hand, PlayStrategyFactory.getInstance().getStrategy("Simulation"));
+    }
+
+    /**
+     * Constructs a SimulationPlayer with the given hand of cards, whose searches are drawn from the given generator.
+     *
+     * @param hand The hand of cards assigned to the player.
+     * @param random The random generator of the player.
+     */
+    public SimulationPlayer(Hand hand, SplittableRandom random) {
+        super(hand, PlayStrategyFactory.getInstance().getStrategy("Simulation", random));
+    }
+}
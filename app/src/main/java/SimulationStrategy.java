@@ -0,0 +1,204 @@
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Represents a Monte Carlo lookahead strategy. For each decision, the strategy samples deals of the
+ * unseen cards to the other players, consistent with the public play history (the cards played so far
+ * and the size of each hand). Each valid card, and skipping, is then tried on every sampled deal and the
+ * rest of the game is played out with fast rollouts where every player plays its lowest valid card.
+ * The move with the best mean final score for the player is selected.
+ * Samples are spread over the fork-join pool, a chunk at a time, and stop at the rollout budget or at the time budget,
+ * or at the deadline given to {@link #selectCard(GameState, long)}.
+ * Once few cards are left, the sampled deals are solved exactly by an {@link EndgameSolver} instead.
+ * The samples of each decision are seeded from the generator of the player, so that a decision stopped by
+ * its rollout budget rather than by the clock can be reproduced.
+ */
+public class SimulationStrategy extends CompositePlayStrategy {
+
+    // Number of sampled deals for each decision
+    private static final int DEFAULT_NB_SAMPLES = 256;
+    // Number of samples spread over the pool at once, the deadline being checked between chunks as well
+    private static final int SAMPLES_PER_CHUNK = 256;
+    // Time allowed for each decision, in milliseconds
+    private static final long DEFAULT_TIME_BUDGET_MILLIS = 50;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private final int nbSamples;
+    private final long timeBudgetNanos;
+    private final ForkJoinPool pool;
+    private final int endgameCardThreshold;
+
+    // Random generator seeding the samples of each decision.
+    private final SplittableRandom RANDOM;
+
+    // Moves played without search in the first plies
+    private OpeningBook openingBook = OpeningBook.getInstance();
+
+    /**
+     * Constructs a simulation strategy with the default budgets, using the common fork-join pool
+     * and an unseeded random generator.
+     */
+    public SimulationStrategy() {
+        this(new SplittableRandom());
+    }
+
+    /**
+     * Constructs a simulation strategy with the default budgets, using the common fork-join pool.
+     *
+     * @param random The random generator of the player, not shared with another thread.
+     */
+    public SimulationStrategy(SplittableRandom random) {
+        this(DEFAULT_NB_SAMPLES, DEFAULT_TIME_BUDGET_MILLIS, ForkJoinPool.commonPool(),
+                EndgameSolver.DEFAULT_CARD_THRESHOLD, random);
+    }
+
+    /**
+     * Constructs a simulation strategy with the given budgets and an unseeded random generator.
+     *
+     * @param nbSamples The maximum number of sampled deals for each decision.
+     * @param timeBudgetMillis The maximum time spent on each decision, in milliseconds.
+     * @param pool The pool running the rollouts.
+     * @param endgameCardThreshold The number of cards left in all hands below which deals are solved exactly,
+     *                             0 to always play rollouts.
+     */
+    public SimulationStrategy(int nbSamples, long timeBudgetMillis, ForkJoinPool pool, int endgameCardThreshold) {
+        this(nbSamples, timeBudgetMillis, pool, endgameCardThreshold, new SplittableRandom());
+    }
+
+    /**
+     * Constructs a simulation strategy with the given budgets.
+     *
+     * @param nbSamples The maximum number of sampled deals for each decision.
+     * @param timeBudgetMillis The maximum time spent on each decision, in milliseconds.
+     * @param pool The pool running the rollouts.
+     * @param endgameCardThreshold The number of cards left in all hands below which deals are solved exactly,
+     *                             0 to always play rollouts.
+     * @param random The random generator of the player, not shared with another thread.
+     */
+    public SimulationStrategy(int nbSamples, long timeBudgetMillis, ForkJoinPool pool, int endgameCardThreshold,
+                              SplittableRandom random) {
+        RANDOM = random;
+        this.nbSamples = nbSamples;
+        this.timeBudgetNanos = timeBudgetMillis * NANOS_PER_MILLI;
+        this.pool = pool;
+        this.endgameCardThreshold = endgameCardThreshold;
+    }
+
+    /**
+     * Sets the opening book played instead of searching in the first plies, {@link OpeningBook#getInstance()} by default.
+     *
+     * @param openingBook The opening book, {@link OpeningBook#EMPTY} to always search.
+     */
+    public void setOpeningBook(OpeningBook openingBook) {
+        this.openingBook = openingBook;
+    }
+
+    /**
+     * Determines the card to play by simulating the rest of the game for each valid move.
+     *
+     * @param state The state of the game.
+     * @return The id of the selected card, or {@link #NO_MOVE} if no card is valid or skipping is the best move.
+     */
+    @Override
+    public int selectCard(GameState state) {
+        return selectCard(state, System.nanoTime() + timeBudgetNanos);
+    }
+
+    /**
+     * Determines the card to play by simulating the rest of the game for each valid move until the deadline.
+     *
+     * @param state The state of the game.
+     * @param deadline The {@link System#nanoTime()} after which no more deal is sampled.
+     * @return The id of the selected card, or {@link #NO_MOVE} if no card is valid or skipping is the best move.
+     */
+    @Override
+    public int selectCard(GameState state, long deadline) {
+        int bookMove = openingBook.lookup(state);
+        if (bookMove != OpeningBook.NOT_IN_BOOK) {
+            return bookMove;
+        }
+        long validCards = strategies.get(0).selectCandidateCards(state);
+        if (validCards == 0) {
+            return NO_MOVE;
+        }
+
+        // every valid card, then skipping
+        int[] moves = new int[CardBits.size(validCards) + 1];
+        for (int i = 0; i < moves.length - 1; i++) {
+            moves[i] = CardBits.nthCard(validCards, i);
+        }
+        moves[moves.length - 1] = NO_MOVE;
+
+        long seed = RANDOM.nextLong();
+        long[] totalScores = new long[moves.length];
+        for (int start = 0; start < nbSamples && System.nanoTime() < deadline; start += SAMPLES_PER_CHUNK) {
+            int chunkStart = start;
+            int chunkEnd = (int) Math.min((long) start + SAMPLES_PER_CHUNK, nbSamples);
+            Samples samples = pool.submit(() -> IntStream.range(chunkStart, chunkEnd).parallel().collect(
+                    () -> new Samples(state, moves.length, endgameCardThreshold, EndgameSolver.forCurrentThread()),
+                    (result, sampleIndex) -> {
+                        if (System.nanoTime() < deadline) {
+                            result.simulate(moves, new SplittableRandom(seed + sampleIndex));
+                        }
+                    },
+                    Samples::merge)).join();
+            for (int i = 0; i < moves.length; i++) {
+                totalScores[i] += samples.totalScores[i];
+            }
+        }
+
+        int bestMove = 0;
+        for (int i = 1; i < moves.length; i++) {
+            if (totalScores[i] > totalScores[bestMove]) {
+                bestMove = i;
+            }
+        }
+        return moves[bestMove];
+    }
+
+    /**
+     * Sums the final scores reached by each move over the samples run by one worker,
+     * with the states and the determinizer reused from one sample to the next.
+     */
+    private static class Samples {
+        private final long[] totalScores;
+        private final int player;
+        private final int endgameCardThreshold;
+        private final EndgameSolver solver;
+        private final Determinizer determinizer;
+        private final GameState sample = new GameState();
+        private final GameState rollout = new GameState();
+
+        Samples(GameState state, int nbMoves, int endgameCardThreshold, EndgameSolver solver) {
+            totalScores = new long[nbMoves];
+            player = state.getCurrentPlayer();
+            this.endgameCardThreshold = endgameCardThreshold;
+            this.solver = solver;
+            determinizer = new Determinizer(state);
+        }
+
+        void simulate(int[] moves, SplittableRandom random) {
+            determinizer.deal(sample, random);
+
+            // every move is played out with the same rollout choices, so that only the move makes a difference
+            long rolloutSeed = random.nextLong();
+            for (int i = 0; i < moves.length; i++) {
+                rollout.copyFrom(sample);
+                rollout.playTurn(moves[i]);
+                if (EndgameSolver.canSolve(rollout, endgameCardThreshold)) {
+                    totalScores[i] += rollout.getScore(player) + EndgameSolver.getGain(solver.solve(rollout), player);
+                } else {
+                    Determinizer.playOut(rollout, new SplittableRandom(rolloutSeed));
+                    totalScores[i] += rollout.getScore(player);
+                }
+            }
+        }
+
+        void merge(Samples other) {
+            for (int i = 0; i < totalScores.length; i++) {
+                totalScores[i] += other.totalScores[i];
+            }
+        }
+    }
+}
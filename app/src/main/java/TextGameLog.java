@@ -0,0 +1,85 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes the events of a game in the text format of {@link CountingUpGame#runApp()}, for example
+ * {@code Round1:P0-1C,P1-SKIP,...,Score:0,13,0,0,} with one line per round, an {@code EndGame:} line
+ * with the final scores and a {@code Winners:} line.
+ */
+public class TextGameLog implements GameEventSink {
+
+    private final Appendable out;
+
+    /**
+     * Constructs a text log writing to the given output, such as a StringBuilder or a Writer.
+     *
+     * @param out The output of the log.
+     */
+    public TextGameLog(Appendable out) {
+        this.out = out;
+    }
+
+    @Override
+    public void roundStarted(int roundNumber) {
+        append("Round").append(roundNumber).append(':');
+    }
+
+    @Override
+    public void cardPlayed(int player, int card) {
+        append('P').append(player).append('-').append(CardBits.toLog(card)).append(',');
+    }
+
+    @Override
+    public void skipped(int player) {
+        append('P').append(player).append("-SKIP,");
+    }
+
+    @Override
+    public void roundEnded(int[] scores) {
+        append("Score:");
+        appendScores(scores);
+    }
+
+    @Override
+    public void gameEnded(int[] scores, int winners) {
+        append("EndGame:");
+        appendScores(scores);
+        append("Winners:");
+        String separator = "";
+        for (int i = 0; i < scores.length; i++) {
+            if ((winners & 1 << i) != 0) {
+                append(separator).append(i);
+                separator = ", ";
+            }
+        }
+    }
+
+    private void appendScores(int[] scores) {
+        for (int score : scores) {
+            append(score).append(',');
+        }
+        append('\n');
+    }
+
+    private TextGameLog append(int value) {
+        return append(Integer.toString(value));
+    }
+
+    private TextGameLog append(CharSequence text) {
+        try {
+            out.append(text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    private TextGameLog append(char c) {
+        try {
+            out.append(c);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+}
@@ -0,0 +1,178 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Aggregated results of a batch of headless games played by the same lineup of players.
+ * Each seat tracks its wins and the distribution of its final scores. A drawn game
+ * gives each winner an equal share of the win.
+ */
+public class TournamentResult {
+
+    // Highest final score: every card of the deck won by one player
+    private static final int MAX_SCORE = CardBits.scoreOf(CardBits.ALL_CARDS);
+
+    private final String[] playerTypes;
+    // Lowest final score: the best cards of the deck left in a whole hand at the end of the game
+    private final int minScore;
+    private long nbGames = 0;
+    private final double[] wins;
+    private final long[] totalScores;
+    private final long[] totalSquaredScores;
+    // Number of games ending with each score, indexed by score - minScore
+    private final long[][] scoreCounts;
+
+    /**
+     * Constructs an empty result for the given lineup, dealt the default number of cards of the table.
+     *
+     * @param playerTypes The type of each player of the lineup.
+     */
+    public TournamentResult(String[] playerTypes) {
+        this(playerTypes, Dealer.defaultNbStartCards(GameState.checkNbPlayers(playerTypes.length)));
+    }
+
+    /**
+     * Constructs an empty result for the given lineup.
+     *
+     * @param playerTypes The type of each player of the lineup.
+     * @param nbStartCards The number of cards dealt to each player, which bounds the cards left in a hand.
+     * @throws IllegalArgumentException If the table cannot be dealt from a single deck.
+     */
+    public TournamentResult(String[] playerTypes, int nbStartCards) {
+        this.playerTypes = playerTypes.clone();
+        minScore = -maxHandScore(Dealer.checkNbStartCards(playerTypes.length, nbStartCards));
+        wins = new double[playerTypes.length];
+        totalScores = new long[playerTypes.length];
+        totalSquaredScores = new long[playerTypes.length];
+        scoreCounts = new long[playerTypes.length][MAX_SCORE - minScore + 1];
+    }
+
+    // Score of the hand holding the given number of the best cards of the deck
+    private static int maxHandScore(int nbCards) {
+        int[] scoreValues = new int[CardBits.NB_CARDS];
+        for (int card = 0; card < CardBits.NB_CARDS; card++) {
+            scoreValues[card] = CardBits.scoreValue(card);
+        }
+        Arrays.sort(scoreValues);
+        int score = 0;
+        for (int i = 0; i < nbCards; i++) {
+            score += scoreValues[CardBits.NB_CARDS - 1 - i];
+        }
+        return score;
+    }
+
+    /**
+     * Adds the outcome of one game to the result.
+     *
+     * @param game A headless game that has been run.
+     */
+    public void addGame(HeadlessCountingUpGame game) {
+        nbGames++;
+        List<Integer> winners = game.getWinners();
+        for (int winner : winners) {
+            wins[winner] += 1.0 / winners.size();
+        }
+        for (int i = 0; i < playerTypes.length; i++) {
+            int score = game.getScore(i);
+            totalScores[i] += score;
+            totalSquaredScores[i] += (long) score * score;
+            scoreCounts[i][score - minScore]++;
+        }
+    }
+
+    /**
+     * Adds all the games of another result of the same lineup and number of cards to this result.
+     *
+     * @param other The result to merge into this one.
+     */
+    public void merge(TournamentResult other) {
+        nbGames += other.nbGames;
+        for (int i = 0; i < playerTypes.length; i++) {
+            wins[i] += other.wins[i];
+            totalScores[i] += other.totalScores[i];
+            totalSquaredScores[i] += other.totalSquaredScores[i];
+            for (int j = 0; j < scoreCounts[i].length; j++) {
+                scoreCounts[i][j] += other.scoreCounts[i][j];
+            }
+        }
+    }
+
+    /**
+     * Retrieves the number of games in the result.
+     *
+     * @return The number of games.
+     */
+    public long getNbGames() {
+        return nbGames;
+    }
+
+    /**
+     * Retrieves the share of games won by a player.
+     *
+     * @param player The player index.
+     * @return The win rate, between 0 and 1.
+     */
+    public double getWinRate(int player) {
+        return nbGames == 0 ? 0 : wins[player] / nbGames;
+    }
+
+    /**
+     * Retrieves the mean final score of a player.
+     *
+     * @param player The player index.
+     * @return The mean score.
+     */
+    public double getMeanScore(int player) {
+        return nbGames == 0 ? 0 : (double) totalScores[player] / nbGames;
+    }
+
+    /**
+     * Retrieves the standard deviation of the final scores of a player.
+     *
+     * @param player The player index.
+     * @return The standard deviation of the scores.
+     */
+    public double getScoreStandardDeviation(int player) {
+        if (nbGames == 0) {
+            return 0;
+        }
+        double mean = getMeanScore(player);
+        return Math.sqrt(Math.max(0, (double) totalSquaredScores[player] / nbGames - mean * mean));
+    }
+
+    /**
+     * Retrieves a percentile of the final scores of a player.
+     *
+     * @param player The player index.
+     * @param percentile The percentile, between 0 and 100.
+     * @return The lowest score such that the given percentage of games ended at or below it.
+     */
+    public int getScorePercentile(int player, double percentile) {
+        long threshold = (long) Math.ceil(nbGames * percentile / 100);
+        long count = 0;
+        for (int j = 0; j < scoreCounts[player].length; j++) {
+            count += scoreCounts[player][j];
+            if (count >= threshold && count > 0) {
+                return j + minScore;
+            }
+        }
+        return MAX_SCORE;
+    }
+
+    /**
+     * Formats the result as a table with one line per player.
+     *
+     * @return The text report.
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder();
+        report.append("Games: ").append(nbGames).append('\n');
+        report.append("Player,Type,WinRate,MeanScore,StdDev,Min,P25,Median,P75,Max\n");
+        for (int i = 0; i < playerTypes.length; i++) {
+            report.append(String.format("P%d,%s,%.4f,%.2f,%.2f,%d,%d,%d,%d,%d%n", i, playerTypes[i],
+                    getWinRate(i), getMeanScore(i), getScoreStandardDeviation(i),
+                    getScorePercentile(i, 0), getScorePercentile(i, 25), getScorePercentile(i, 50),
+                    getScorePercentile(i, 75), getScorePercentile(i, 100)));
+        }
+        return report.toString();
+    }
+}
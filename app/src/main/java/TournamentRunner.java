@@ -0,0 +1,93 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Plays a batch of headless games between a fixed lineup of players, in parallel on a fork-join pool.
+ * Game i is dealt by the {@link Dealer} of the base seed from its index i, so any game of a batch is
+ * reproducible from the base seed and its index alone, and each worker thread aggregates its own {@link TournamentResult} before they are merged.
+ */
+public class TournamentRunner {
+
+    private final String[] playerTypes;
+    private final int nbStartCards;
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructs a runner for the given lineup, using the common fork-join pool and dealing
+     * the default number of cards of the table.
+     *
+     * @param playerTypes The type of each player, as in the "players.N" properties.
+     */
+    public TournamentRunner(String[] playerTypes) {
+        this(playerTypes, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a runner for the given lineup, dealing the default number of cards of the table.
+     *
+     * @param playerTypes The type of each player, as in the "players.N" properties.
+     * @param pool The pool running the games.
+     */
+    public TournamentRunner(String[] playerTypes, ForkJoinPool pool) {
+        this(playerTypes, Dealer.defaultNbStartCards(GameState.checkNbPlayers(playerTypes.length)), pool);
+    }
+
+    /**
+     * Constructs a runner for the given lineup.
+     *
+     * @param playerTypes The type of each player, as in the "players.N" properties, from
+     *                    {@link GameState#MIN_PLAYERS} to {@link GameState#MAX_PLAYERS} players.
+     * @param nbStartCards The number of cards dealt to each player.
+     * @param pool The pool running the games.
+     */
+    public TournamentRunner(String[] playerTypes, int nbStartCards, ForkJoinPool pool) {
+        this.nbStartCards = Dealer.checkNbStartCards(playerTypes.length, nbStartCards);
+        this.playerTypes = playerTypes.clone();
+        this.pool = pool;
+    }
+
+    /**
+     * Plays the given number of games and aggregates their results.
+     *
+     * @param nbGames The number of games to play.
+     * @param baseSeed The seed of the batch.
+     * @return The aggregated results of all games.
+     */
+    public TournamentResult run(int nbGames, long baseSeed) {
+        return run(nbGames, baseSeed, null);
+    }
+
+    /**
+     * Plays the given number of games, aggregates their results and records them.
+     * The records are written in the order the games end, each with its index as game id.
+     *
+     * @param nbGames The number of games to play.
+     * @param baseSeed The seed of the batch.
+     * @param writer The writer of the game records, or null to record nothing.
+     * @return The aggregated results of all games.
+     * @throws IllegalArgumentException If games are recorded with another number of players than
+     *                                  {@link GameState#NB_PLAYERS}, the only one of the record format.
+     */
+    public TournamentResult run(int nbGames, long baseSeed, GameRecordWriter writer) {
+        if (writer != null && playerTypes.length != GameState.NB_PLAYERS) {
+            throw new IllegalArgumentException("Records hold games of " + GameState.NB_PLAYERS + " players");
+        }
+        Dealer dealer = new Dealer(baseSeed);
+        return pool.submit(() -> IntStream.range(0, nbGames).parallel().collect(
+                () -> new TournamentResult(playerTypes, nbStartCards),
+                (result, gameIndex) -> result.addGame(playGame(gameIndex, dealer, writer)),
+                TournamentResult::merge)).join();
+    }
+
+    private HeadlessCountingUpGame playGame(int gameIndex, Dealer dealer, GameRecordWriter writer) {
+        HeadlessCountingUpGame game = new HeadlessCountingUpGame(playerTypes, nbStartCards, dealer.gameRandom(gameIndex));
+        if (writer == null) {
+            game.run(GameEventSink.NONE);
+        } else {
+            GameRecorder recorder = new GameRecorder(writer);
+            recorder.setGameId(gameIndex);
+            game.run(recorder);
+        }
+        return game;
+    }
+}
@@ -0,0 +1,40 @@
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class CleverStrategyTest {
+
+    // Player 3 leads the Five of the given suit, and player 0 holds the other Five and the Nine of the suit led,
+    // whose ranks are as near the middle Seven. The few cards left keep the trick in the range of the middle card.
+    private static GameState middleTie(Suit ledSuit, Suit otherSuit) {
+        int ledFive = CardBits.cardId(ledSuit, Rank.FIVE);
+        int otherFive = CardBits.cardId(otherSuit, Rank.FIVE);
+        int nine = CardBits.cardId(ledSuit, Rank.NINE);
+        int two = CardBits.cardId(Suit.DIAMONDS, Rank.TWO);
+        int king = CardBits.cardId(Suit.HEARTS, Rank.KING);
+        int queen = CardBits.cardId(Suit.HEARTS, Rank.QUEEN);
+        GameState state = new GameState();
+        state.deal(0, otherFive);
+        state.deal(0, nine);
+        state.deal(1, king);
+        state.deal(2, queen);
+        state.deal(3, ledFive);
+        state.deal(3, two);
+        for (int card = 0; card < CardBits.NB_CARDS; card++) {
+            if (card != ledFive && card != otherFive && card != nine && card != two && card != king && card != queen) {
+                state.getCardTracker().cardPlayed(card);
+            }
+        }
+        state.setCurrentPlayer(3);
+        state.playTurn(ledFive);
+        return state;
+    }
+
+    @Test
+    public void testNearestMiddleTiePrefersTheLowerRank() {
+        CleverStrategy clever = new CleverStrategy();
+        // the Nine of Diamonds comes before the Five of Clubs in the order of the card ids
+        assertEquals(CardBits.cardId(Suit.CLUBS, Rank.FIVE), clever.selectCard(middleTie(Suit.DIAMONDS, Suit.CLUBS)));
+        assertEquals(CardBits.cardId(Suit.SPADES, Rank.FIVE), clever.selectCard(middleTie(Suit.HEARTS, Suit.SPADES)));
+    }
+}
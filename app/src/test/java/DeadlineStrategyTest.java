@@ -0,0 +1,123 @@
+import ch.aplu.jcardgame.Card;
+import ch.aplu.jcardgame.Hand;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+
+public class DeadlineStrategyTest {
+
+    /**
+     * A strategy which ignores its deadline and decides once released.
+     */
+    private static class SlowStrategy implements IPlayStrategy {
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public ArrayList<Card> getCardsToPlay(Hand hand, ArrayList<Card> playedCard) {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public int selectCard(GameState state) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            // the last valid card, never the fallback of a hand of several valid cards
+            long validCards = CardBits.validCards(state.getCurrentHand(), state.getLastCard());
+            return 63 - Long.numberOfLeadingZeros(validCards);
+        }
+    }
+
+    // States of random games at any turn, the players playing random valid cards
+    private static GameState[] deal(int nbStates) {
+        return TestGames.randomStates(1, nbStates, 60);
+    }
+
+    // A state where the player to move holds several valid cards, so that the fallback is not the last one
+    private static GameState severalValidCards() {
+        for (GameState state : deal(100)) {
+            if (CardBits.size(CardBits.validCards(state.getCurrentHand(), state.getLastCard())) > 1) {
+                return state;
+            }
+        }
+        throw new AssertionError("No state where the player to move holds several valid cards");
+    }
+
+    @Test(timeout = 10000)
+    public void testLateStrategyFallsBackToFirstValidCard() throws Exception {
+        SlowStrategy slow = new SlowStrategy();
+        DeadlineStrategy strategy = new DeadlineStrategy(slow, 20);
+        IPlayStrategy fundamental = PlayStrategyFactory.getInstance().getStrategy("Fundamental");
+        GameState state = severalValidCards();
+
+        long startTime = System.nanoTime();
+        assertEquals(fundamental.selectCard(state), strategy.selectCard(state));
+        long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+        assertTrue(elapsedMillis + " ms", elapsedMillis >= 20 && elapsedMillis < 500);
+        assertEquals(1, strategy.getNbFallbacks());
+
+        // the strategy is still searching, so the next move falls back at once
+        startTime = System.nanoTime();
+        assertEquals(fundamental.selectCard(state), (int) strategy.requestMove(state).get());
+        assertTrue((System.nanoTime() - startTime) / 1_000_000 < 20);
+        assertEquals(2, strategy.getNbFallbacks());
+
+        slow.release.countDown();
+        Thread.sleep(50);
+        assertEquals(slow.selectCard(state), strategy.selectCard(state));
+        assertEquals(2, strategy.getNbFallbacks());
+    }
+
+    @Test(timeout = 10000)
+    public void testChangedBudgetIsKept() {
+        SlowStrategy slow = new SlowStrategy();
+        DeadlineStrategy strategy = new DeadlineStrategy(slow, 60_000);
+        IPlayStrategy fundamental = PlayStrategyFactory.getInstance().getStrategy("Fundamental");
+        GameState state = severalValidCards();
+
+        strategy.setTimeBudgetMillis(20);
+        long startTime = System.nanoTime();
+        assertEquals(fundamental.selectCard(state), strategy.selectCard(state));
+        long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+        assertTrue(elapsedMillis + " ms", elapsedMillis >= 20 && elapsedMillis < 500);
+        slow.release.countDown();
+    }
+
+    @Test(timeout = 10000)
+    public void testFastStrategyDecidesAsItself() {
+        IPlayStrategy clever = PlayStrategyFactory.getInstance().getStrategy("Clever");
+        DeadlineStrategy strategy = new DeadlineStrategy(PlayStrategyFactory.getInstance().getStrategy("Clever"), 1000);
+        for (GameState state : deal(200)) {
+            assertEquals(clever.selectCard(state), strategy.selectCard(state));
+        }
+        assertEquals(0, strategy.getNbFallbacks());
+    }
+
+    @Test(timeout = 30000)
+    public void testSearchesStopAtTheDeadline() {
+        IsmctsStrategy ismcts = new IsmctsStrategy(1_000_000, 10_000, 0);
+        ismcts.setOpeningBook(OpeningBook.EMPTY);
+        SimulationStrategy simulation = new SimulationStrategy(1_000_000, 10_000,
+                java.util.concurrent.ForkJoinPool.commonPool(), 0);
+        simulation.setOpeningBook(OpeningBook.EMPTY);
+        for (IPlayStrategy search : new IPlayStrategy[] { ismcts, simulation }) {
+            DeadlineStrategy strategy = new DeadlineStrategy(search, 20);
+            long maxMillis = 0;
+            for (GameState state : deal(20)) {
+                long startTime = System.nanoTime();
+                int card = strategy.selectCard(state);
+                maxMillis = Math.max(maxMillis, (System.nanoTime() - startTime) / 1_000_000);
+                assertTrue(card == IPlayStrategy.NO_MOVE
+                        || CardBits.contains(CardBits.validCards(state.getCurrentHand(), state.getLastCard()), card));
+            }
+            // searches without a budget of their own still move by the deadline and the grace
+            assertTrue(maxMillis + " ms", maxMillis < 200);
+        }
+    }
+}
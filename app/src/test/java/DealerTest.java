@@ -0,0 +1,68 @@
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.SplittableRandom;
+
+public class DealerTest {
+
+    @Test
+    public void testGameRandomFollowsSequenceOfBaseSeed() {
+        SplittableRandom sequence = new SplittableRandom(42);
+        Dealer dealer = new Dealer(42);
+        for (int gameIndex = 0; gameIndex < 100; gameIndex++) {
+            assertEquals(new SplittableRandom(sequence.nextLong()).nextLong(), dealer.gameRandom(gameIndex).nextLong());
+        }
+    }
+
+    @Test
+    public void testGamesAreReproducibleFromTheirIndex() {
+        Dealer dealer = new Dealer(7);
+        long[][] hands = new long[1000][];
+        for (int gameIndex = 0; gameIndex < hands.length; gameIndex++) {
+            hands[gameIndex] = dealer.deal(gameIndex, TestGames.NO_PRESET, Dealer.DEFAULT_NB_START_CARDS);
+        }
+        // in reverse order, with another dealer of the same seed
+        Dealer otherDealer = new Dealer(7);
+        for (int gameIndex = hands.length - 1; gameIndex >= 0; gameIndex--) {
+            assertArrayEquals(hands[gameIndex],
+                    otherDealer.deal(gameIndex, TestGames.NO_PRESET, Dealer.DEFAULT_NB_START_CARDS));
+        }
+    }
+
+    @Test
+    public void testHandsAreDisjointAndFull() {
+        Dealer dealer = new Dealer(3);
+        for (int gameIndex = 0; gameIndex < 1000; gameIndex++) {
+            long[] hands = dealer.deal(gameIndex, TestGames.NO_PRESET, Dealer.DEFAULT_NB_START_CARDS);
+            long allCards = 0;
+            for (long hand : hands) {
+                assertEquals(Dealer.DEFAULT_NB_START_CARDS, CardBits.size(hand));
+                assertEquals(0, allCards & hand);
+                allCards |= hand;
+            }
+            assertEquals(CardBits.ALL_CARDS, allCards);
+        }
+    }
+
+    @Test
+    public void testPresetCardsAreKept() {
+        long[] presetHands = {
+                Dealer.parseCards("1C,11C,12S,13C"),
+                Dealer.parseCards("11S,12C,13S"),
+                Dealer.parseCards("11D,12D,13D,1C"),
+                0
+        };
+        long[] hands = new Dealer(30008).deal(0, presetHands, Dealer.DEFAULT_NB_START_CARDS);
+
+        assertEquals(presetHands[0], hands[0] & presetHands[0]);
+        assertEquals(presetHands[1], hands[1] & presetHands[1]);
+        // the Ace of Clubs already went to P0
+        assertTrue(CardBits.contains(hands[0], CardBits.ACE_OF_CLUBS));
+        for (long hand : hands) {
+            assertEquals(Dealer.DEFAULT_NB_START_CARDS, CardBits.size(hand));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.SplittableRandom;
+
+public class DecisionBatchTest {
+
+    // States of random games at any turn, the players playing random valid cards
+    private static GameState[] states(int nbStates) {
+        return TestGames.randomStates(5, nbStates, 60);
+    }
+
+    private DecisionBatch batch(GameState[] states) {
+        DecisionBatch batch = new DecisionBatch(states.length);
+        for (GameState state : states) {
+            batch.add(state);
+        }
+        return batch;
+    }
+
+    @Test
+    public void testBatchesDecideAsSingleDecisions() {
+        GameState[] states = states(5000);
+        DecisionBatch batch = batch(states);
+        FundamentalStrategy fundamental = new FundamentalStrategy();
+        BasicStrategy basic = new BasicStrategy(new SplittableRandom(9));
+        CleverStrategy clever = new CleverStrategy();
+        BasicStrategy otherBasic = new BasicStrategy(new SplittableRandom(9));
+
+        int[][] expected = new int[3][states.length];
+        for (int i = 0; i < states.length; i++) {
+            expected[0][i] = fundamental.selectCard(states[i]);
+            expected[1][i] = otherBasic.selectCard(states[i]);
+            expected[2][i] = clever.selectCard(states[i]);
+        }
+        int[] moves = new int[states.length];
+        fundamental.selectCards(batch, moves);
+        assertArrayEquals(expected[0], moves);
+        basic.selectCards(batch, moves);
+        assertArrayEquals(expected[1], moves);
+        clever.selectCards(batch, moves);
+        assertArrayEquals(expected[2], moves);
+    }
+
+    @Test
+    public void testRankTotalsMatchTheCardTracker() {
+        for (GameState state : states(1000)) {
+            long remainingCards = CardBits.ALL_CARDS & ~state.getPlayedCards();
+            assertEquals(state.getCardTracker().getRemainingRankTotal(), CardBits.rankTotal(remainingCards));
+        }
+        assertEquals(4 * 13 * 14 / 2, CardBits.rankTotal(CardBits.ALL_CARDS));
+        assertEquals(0, CardBits.rankTotal(0));
+    }
+
+    @Test
+    public void testFullBatchesRejectDecisions() {
+        DecisionBatch batch = batch(states(2));
+        assertEquals(2, batch.size());
+        try {
+            batch.add(0, CardBits.NO_CARD, 0, 0);
+            fail("A full batch should reject a decision");
+        } catch (IllegalStateException e) {
+            assertEquals(2, batch.size());
+        }
+    }
+
+    @Test
+    public void testClearedBatchesAreFilledAgain() {
+        GameState[] states = states(10);
+        DecisionBatch batch = batch(states);
+        batch.clear();
+        assertEquals(0, batch.size());
+        assertEquals(0, batch.add(states[3]));
+        int[] moves = { 99, 99 };
+        new FundamentalStrategy().selectCards(batch, moves);
+        assertEquals(new FundamentalStrategy().selectCard(states[3]), moves[0]);
+        assertEquals(99, moves[1]);
+    }
+}
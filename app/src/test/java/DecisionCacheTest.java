@@ -0,0 +1,100 @@
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.SplittableRandom;
+
+public class DecisionCacheTest {
+
+    private GameState newGame(long gameIndex) {
+        GameState state = new GameState();
+        state.dealHands(new Dealer(1).deal(gameIndex, TestGames.NO_PRESET, Dealer.DEFAULT_NB_START_CARDS));
+        return state;
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntryIsEvicted() {
+        DecisionCache cache = new DecisionCache(2);
+        GameState first = newGame(0);
+        GameState second = newGame(1);
+        GameState third = newGame(2);
+
+        cache.put(first, CardBits.ACE_OF_CLUBS);
+        cache.put(second, IPlayStrategy.NO_MOVE);
+        assertEquals(CardBits.ACE_OF_CLUBS, cache.get(first));
+        cache.put(third, CardBits.ACE_OF_CLUBS);
+
+        assertEquals(DecisionCache.MISS, cache.get(second));
+        assertEquals(CardBits.ACE_OF_CLUBS, cache.get(first));
+        assertEquals(CardBits.ACE_OF_CLUBS, cache.get(third));
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getNbEvictions());
+        assertEquals(3, cache.getNbHits());
+        assertEquals(1, cache.getNbMisses());
+    }
+
+    @Test
+    public void testCachedStrategyDecidesAsStrategy() {
+        for (DecisionCache.KeyType keyType : DecisionCache.KeyType.values()) {
+            IPlayStrategy clever = new CleverStrategy();
+            CachingStrategy cachedClever = new CachingStrategy(clever, new DecisionCache(1 << 20, keyType));
+            for (int pass = 0; pass < 2; pass++) {
+                for (int gameIndex = 0; gameIndex < 200; gameIndex++) {
+                    GameState state = newGame(gameIndex);
+                    while (!state.isGameOver()) {
+                        int move = clever.selectCard(state);
+                        assertEquals(move, cachedClever.selectCard(state));
+                        state.playTurn(move);
+                    }
+                }
+            }
+            // the second pass meets the states of the first pass again
+            DecisionCache cache = cachedClever.getCache();
+            assertTrue(cache.getNbHits() >= cache.getNbMisses());
+        }
+    }
+
+    @Test
+    public void testSharedCacheGivesSameTournamentResults() {
+        String[] lineup = { "clever", "clever", "basic", "random" };
+        String[] cachedLineup = { "clever" + PlayerFactory.CACHED_SUFFIX, "clever" + PlayerFactory.CACHED_SUFFIX,
+                "basic", "random" };
+        DecisionCache.clearSharedCaches();
+        // few enough games for their decisions to fit in the shared cache
+        String report = new TournamentRunner(lineup).run(500, 1).report();
+        String cachedReport = new TournamentRunner(cachedLineup).run(500, 1).report();
+        assertEquals(report, cachedReport.replace(PlayerFactory.CACHED_SUFFIX, ""));
+        DecisionCache cache = DecisionCache.getSharedCaches().get("clever");
+        long nbFirstPassMisses = cache.getNbMisses();
+
+        // the second pass replays the deals of the first pass, whose decisions were all kept
+        cachedReport = new TournamentRunner(cachedLineup).run(500, 1).report();
+        assertEquals(report, cachedReport.replace(PlayerFactory.CACHED_SUFFIX, ""));
+        assertEquals(0, cache.getNbEvictions());
+        assertEquals(nbFirstPassMisses, cache.getNbMisses());
+        assertTrue(cache.report(), cache.getNbHits() >= nbFirstPassMisses);
+        DecisionCache.clearSharedCaches();
+    }
+
+    @Test
+    public void testCachedPlayersShareTheCacheOfTheirType() {
+        // the hand of cards needs a display and is not looked at before the game
+        SplittableRandom random = new SplittableRandom(1);
+        DecisionCache.clearSharedCaches();
+        Player player = PlayerFactory.getInstance().getPlayer("clever" + PlayerFactory.CACHED_SUFFIX, null, random);
+        assertTrue(player instanceof CleverPlayer);
+        assertTrue(player.strategy instanceof CachingStrategy);
+        assertSame(DecisionCache.getSharedCaches().get("clever"), ((CachingStrategy) player.strategy).getCache());
+
+        try {
+            PlayerFactory.getInstance().getPlayer("human" + PlayerFactory.CACHED_SUFFIX, null, random);
+            fail("a human player cannot be cached");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        DecisionCache.clearSharedCaches();
+    }
+}
@@ -0,0 +1,109 @@
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+public class EndgameSolverTest {
+
+    /**
+     * Deals a game at random and plays random valid cards until at most the given number of cards are left.
+     */
+    private GameState randomEndgame(Random random, int nbCardsLeft) {
+        while (true) {
+            GameState state = new GameState();
+            int[] deck = new int[CardBits.NB_CARDS];
+            for (int i = 0; i < deck.length; i++) {
+                deck[i] = i;
+            }
+            for (int i = deck.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int card = deck[i];
+                deck[i] = deck[j];
+                deck[j] = card;
+            }
+            for (int i = 0; i < deck.length; i++) {
+                state.deal(i % GameState.NB_PLAYERS, deck[i]);
+                if (deck[i] == CardBits.ACE_OF_CLUBS) {
+                    state.setCurrentPlayer(i % GameState.NB_PLAYERS);
+                }
+            }
+            while (!state.isGameOver() && !EndgameSolver.canSolve(state, nbCardsLeft)) {
+                long validCards = CardBits.validCards(state.getCurrentHand(), state.getLastCard());
+                state.playTurn(validCards == 0 ? CardBits.NO_CARD
+                        : CardBits.nthCard(validCards, random.nextInt(CardBits.size(validCards))));
+            }
+            if (!state.isGameOver()) {
+                return state;
+            }
+        }
+    }
+
+    /**
+     * Plays every line of the game with the rules of GameState, without any transposition table,
+     * and returns the final score of each player.
+     */
+    private int[] naiveSolve(GameState state) {
+        if (state.isGameOver()) {
+            GameState end = new GameState();
+            end.copyFrom(state);
+            end.endGame();
+            int[] scores = new int[GameState.NB_PLAYERS];
+            for (int i = 0; i < scores.length; i++) {
+                scores[i] = end.getScore(i);
+            }
+            return scores;
+        }
+
+        int player = state.getCurrentPlayer();
+        long validCards = CardBits.validCards(state.getCurrentHand(), state.getLastCard());
+        int[] bestScores = null;
+        for (long rest = validCards; rest != 0; rest &= rest - 1) {
+            int[] scores = naiveSolveAfter(state, Long.numberOfTrailingZeros(rest));
+            if (bestScores == null || scores[player] > bestScores[player]) {
+                bestScores = scores;
+            }
+        }
+        if (state.getLastCard() != CardBits.NO_CARD || validCards == 0) {
+            int[] scores = naiveSolveAfter(state, CardBits.NO_CARD);
+            if (bestScores == null || scores[player] > bestScores[player]) {
+                bestScores = scores;
+            }
+        }
+        return bestScores;
+    }
+
+    private int[] naiveSolveAfter(GameState state, int move) {
+        GameState next = new GameState();
+        next.copyFrom(state);
+        next.playTurn(move);
+        return naiveSolve(next);
+    }
+
+    @Test(timeout = 60000)
+    public void testSolverMatchesNaiveSearch() {
+        Random random = new Random(1);
+        EndgameSolver solver = new EndgameSolver(10);
+        for (int i = 0; i < 200; i++) {
+            GameState state = randomEndgame(random, 7);
+            int[] expectedScores = naiveSolve(state);
+            long gains = solver.solve(state);
+            for (int player = 0; player < GameState.NB_PLAYERS; player++) {
+                assertEquals(expectedScores[player], state.getScore(player) + EndgameSolver.getGain(gains, player));
+            }
+        }
+    }
+
+    @Test
+    public void testSolverReusesPositions() {
+        Random random = new Random(2);
+        EndgameSolver solver = new EndgameSolver();
+        GameState state = randomEndgame(random, 8);
+        long gains = solver.solve(state);
+        long nbPositions = solver.getNbPositions();
+        long nbTableHits = solver.getNbTableHits();
+        assertEquals(gains, solver.solve(state));
+        assertEquals(nbPositions + 1, solver.getNbPositions());
+        assertEquals(nbTableHits + 1, solver.getNbTableHits());
+    }
+}
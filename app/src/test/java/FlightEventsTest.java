@@ -0,0 +1,78 @@
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class FlightEventsTest {
+
+    private static final String[] LINEUP = { "random", "basic", "clever", "random" };
+
+    @Test
+    public void testGameIsRecorded() throws IOException {
+        Path path = Files.createTempFile("games", ".jfr");
+        HeadlessCountingUpGame game = new HeadlessCountingUpGame(LINEUP, new SplittableRandom(1));
+        try (Recording recording = new Recording()) {
+            recording.enable(FlightEvents.GameStart.class);
+            recording.enable(FlightEvents.GameEnd.class);
+            recording.enable(FlightEvents.RoundEnd.class);
+            recording.enable(FlightEvents.Decision.class);
+            recording.start();
+            game.run(GameEventSink.NONE);
+            recording.stop();
+            recording.dump(path);
+        }
+
+        try {
+            List<RecordedEvent> events = RecordingFile.readAllEvents(path);
+            int nbDecisions = 0;
+            int nbRounds = 0;
+            int points = 0;
+            RecordedEvent gameEnd = null;
+            for (RecordedEvent event : events) {
+                switch (event.getEventType().getName()) {
+                    case "countingup.GameStart":
+                        assertEquals(String.join(",", LINEUP), event.getString("players"));
+                        break;
+                    case "countingup.Decision":
+                        nbDecisions++;
+                        assertTrue(event.getInt("validCards") >= 0);
+                        assertTrue(event.getString("strategy").endsWith("Strategy"));
+                        break;
+                    case "countingup.RoundEnd":
+                        nbRounds++;
+                        points += event.getInt("points");
+                        break;
+                    case "countingup.GameEnd":
+                        gameEnd = event;
+                        break;
+                    default:
+                        break;
+                }
+            }
+
+            assertTrue(gameEnd != null);
+            // every turn of a bot game is a decision, and every round is recorded
+            assertEquals(gameEnd.getInt("turns"), nbDecisions);
+            assertEquals(gameEnd.getInt("rounds"), nbRounds);
+            String[] scores = gameEnd.getString("scores").split(",");
+            int totalScore = 0;
+            for (int i = 0; i < scores.length; i++) {
+                assertEquals(game.getScore(i), Integer.parseInt(scores[i]));
+                totalScore += Integer.parseInt(scores[i]);
+            }
+            // the points of the tricks, less those of the cards left in hand, are the scores
+            assertTrue(points >= totalScore);
+        } finally {
+            Files.delete(path);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.SplittableRandom;
+
+public class GameLogTest {
+
+    private static final String[] PLAYER_TYPES = { "random", "basic", "clever", "random" };
+
+    @Test
+    public void testBinaryLogConvertsBackToTextLog() throws IOException {
+        StringBuilder expectedLog = new StringBuilder();
+        ByteArrayOutputStream binaryOutput = new ByteArrayOutputStream();
+        try (BinaryGameLog binaryLog = new BinaryGameLog(Channels.newChannel(binaryOutput))) {
+            for (int seed = 0; seed < 100; seed++) {
+                new HeadlessCountingUpGame(PLAYER_TYPES, new SplittableRandom(seed))
+                        .run(new CompositeEventSink(new TextGameLog(expectedLog), binaryLog));
+            }
+        }
+
+        StringBuilder convertedLog = new StringBuilder();
+        BinaryGameLog.read(Channels.newChannel(new ByteArrayInputStream(binaryOutput.toByteArray())),
+                new TextGameLog(convertedLog));
+        assertEquals(expectedLog.toString(), convertedLog.toString());
+        // a few bytes per move instead of about 6 characters
+        assertTrue(binaryOutput.size() < expectedLog.length() / 3);
+    }
+
+    @Test
+    public void testBinaryLogReadsHandsOfEachGame() throws IOException {
+        ByteArrayOutputStream binaryOutput = new ByteArrayOutputStream();
+        try (BinaryGameLog binaryLog = new BinaryGameLog(Channels.newChannel(binaryOutput))) {
+            new HeadlessCountingUpGame(PLAYER_TYPES, new SplittableRandom(1)).run(binaryLog);
+        }
+
+        long[] dealtCards = new long[1];
+        BinaryGameLog.read(Channels.newChannel(new ByteArrayInputStream(binaryOutput.toByteArray())),
+                new GameEventSink() {
+                    @Override
+                    public void gameStarted(long[] hands) {
+                        for (long hand : hands) {
+                            assertEquals(13, CardBits.size(hand));
+                            dealtCards[0] |= hand;
+                        }
+                    }
+                });
+        assertEquals(CardBits.ALL_CARDS, dealtCards[0]);
+    }
+}
@@ -0,0 +1,86 @@
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+public class GameMetricsTest {
+
+    private static final String[] LINEUP = { "random", "basic", "clever", "random" };
+    private static final String[] STRATEGIES = { "RandomStrategy", "BasicStrategy", "CleverStrategy" };
+
+    @Test
+    public void testPercentilesAreWithinPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        SplittableRandom random = new SplittableRandom(1);
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            // latencies spread over six orders of magnitude
+            values[i] = (long) Math.pow(10, random.nextDouble(1, 7));
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        assertEquals(values.length, histogram.getCount());
+        assertEquals(values[values.length - 1], histogram.getMax());
+        for (double percentile : new double[] { 1, 50, 90, 99, 99.9, 100 }) {
+            long expected = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+            long actual = histogram.getValueAtPercentile(percentile);
+            assertTrue(percentile + ": " + actual + " for " + expected,
+                    actual >= expected && actual <= expected * 1.04);
+        }
+
+        LatencyHistogram small = new LatencyHistogram();
+        for (long value = 0; value < 64; value++) {
+            small.record(value);
+        }
+        assertEquals(31, small.getValueAtPercentile(50));
+        assertEquals(63, small.getValueAtPercentile(100));
+        assertEquals(0, new LatencyHistogram().getValueAtPercentile(50));
+    }
+
+    @Test
+    public void testBatchIsCountedOnlyWhenEnabled() {
+        GameMetrics metrics = GameMetrics.getInstance();
+        TournamentRunner runner = new TournamentRunner(LINEUP);
+        boolean wasEnabled = metrics.isEnabled();
+        try {
+            metrics.setEnabled(false);
+            GameMetrics.Snapshot before = metrics.snapshot();
+            runner.run(500, 1);
+            assertEquals(before.getNbGames(), metrics.snapshot().getNbGames());
+            assertEquals(before.getNbTurns(), metrics.snapshot().getNbTurns());
+
+            metrics.setEnabled(true);
+            before = metrics.snapshot();
+            runner.run(1000, 1);
+            GameMetrics.Snapshot after = metrics.snapshot();
+
+            assertEquals(1000, after.getNbGames() - before.getNbGames());
+            long nbTurns = after.getNbTurns() - before.getNbTurns();
+            long nbDecisions = 0;
+            for (String strategy : STRATEGIES) {
+                long count = after.getLatencies(strategy).getCount();
+                LatencyHistogram beforeLatencies = before.getLatencies(strategy);
+                nbDecisions += count - (beforeLatencies == null ? 0 : beforeLatencies.getCount());
+            }
+            // every turn of a bot game is a decision
+            assertEquals(nbTurns, nbDecisions);
+            long nbSkips = after.getNbSkips() - before.getNbSkips();
+            assertTrue(nbSkips > 0 && nbSkips < nbTurns);
+            long nbRounds = after.getNbRounds() - before.getNbRounds();
+            assertTrue(nbRounds >= 1000 && nbRounds < nbTurns);
+
+            String csv = after.toCsv(before);
+            assertEquals(STRATEGIES.length, csv.split(System.lineSeparator()).length);
+            for (String line : csv.split(System.lineSeparator())) {
+                assertEquals(GameMetrics.Snapshot.CSV_HEADER.split(",").length, line.split(",", -1).length);
+            }
+            assertTrue(after.toText(before).contains("CleverStrategy"));
+        } finally {
+            metrics.setEnabled(wasEnabled);
+        }
+    }
+}
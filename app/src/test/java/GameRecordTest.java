@@ -0,0 +1,150 @@
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class GameRecordTest {
+
+    private static final String[] PLAYER_TYPES = { "random", "basic", "clever", "random" };
+
+    /**
+     * Keeps the events of one game, to compare them with its record.
+     */
+    private static class RecordedGame implements GameEventSink {
+        private final long[] hands = new long[GameState.NB_PLAYERS];
+        private final List<Integer> moves = new ArrayList<>();
+        private final List<Integer> roundEndTurns = new ArrayList<>();
+        private final List<int[]> roundScores = new ArrayList<>();
+        private int[] finalScores;
+        private int winners;
+        private int firstPlayer = -1;
+
+        @Override
+        public void gameStarted(long[] hands) {
+            System.arraycopy(hands, 0, this.hands, 0, hands.length);
+        }
+
+        @Override
+        public void cardPlayed(int player, int card) {
+            addMove(player, card);
+        }
+
+        @Override
+        public void skipped(int player) {
+            addMove(player, CardBits.NO_CARD);
+        }
+
+        private void addMove(int player, int move) {
+            if (firstPlayer < 0) {
+                firstPlayer = player;
+            }
+            moves.add(move);
+        }
+
+        @Override
+        public void roundEnded(int[] scores) {
+            roundEndTurns.add(moves.size());
+            roundScores.add(scores.clone());
+        }
+
+        @Override
+        public void gameEnded(int[] scores, int winners) {
+            finalScores = scores.clone();
+            this.winners = winners;
+        }
+    }
+
+    @Test
+    public void testRecordsMatchGameEvents() throws IOException {
+        Path path = Files.createTempFile("games", ".rec");
+        List<RecordedGame> games = new ArrayList<>();
+        try (GameRecordWriter writer = new GameRecordWriter(path)) {
+            GameRecorder recorder = new GameRecorder(writer);
+            for (int seed = 0; seed < 500; seed++) {
+                RecordedGame game = new RecordedGame();
+                recorder.setGameId(seed);
+                new HeadlessCountingUpGame(PLAYER_TYPES, new SplittableRandom(seed)).run(new CompositeEventSink(recorder, game));
+                games.add(game);
+            }
+        }
+
+        try (GameRecordReader reader = new GameRecordReader(path)) {
+            assertEquals(games.size(), reader.getNbRecords());
+            for (int record = 0; record < games.size(); record++) {
+                RecordedGame game = games.get(record);
+                assertEquals(record, reader.getGameId(record));
+                assertFalse(reader.isTruncated(record));
+                assertEquals(game.firstPlayer, reader.getFirstPlayer(record));
+                assertEquals(game.winners, reader.getWinners(record));
+                for (int player = 0; player < GameState.NB_PLAYERS; player++) {
+                    assertEquals(game.hands[player], reader.getHand(record, player));
+                    assertEquals(game.finalScores[player], reader.getFinalScore(record, player));
+                }
+                assertEquals(game.moves.size(), reader.getNbTurns(record));
+                for (int turn = 0; turn < game.moves.size(); turn++) {
+                    assertEquals((int) game.moves.get(turn), reader.getMove(record, turn));
+                }
+                assertEquals(game.roundEndTurns.size(), reader.getNbRounds(record));
+                for (int round = 0; round < game.roundEndTurns.size(); round++) {
+                    assertEquals((int) game.roundEndTurns.get(round), reader.getRoundEndTurn(record, round));
+                    for (int player = 0; player < GameState.NB_PLAYERS; player++) {
+                        assertEquals(game.roundScores.get(round)[player], reader.getRoundScore(record, round, player));
+                    }
+                }
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testLongGamesAreTruncated() throws IOException {
+        Path path = Files.createTempFile("games", ".rec");
+        try (GameRecordWriter writer = new GameRecordWriter(path, 16, 2)) {
+            new HeadlessCountingUpGame(PLAYER_TYPES, new SplittableRandom(1)).run(new GameRecorder(writer));
+        }
+        try (GameRecordReader reader = new GameRecordReader(path)) {
+            assertEquals(1, reader.getNbRecords());
+            assertTrue(reader.isTruncated(0));
+            assertEquals(16, reader.getNbTurns(0));
+            assertEquals(2, reader.getNbRounds(0));
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testOtherTableSizesAreRejected() throws IOException {
+        Path path = Files.createTempFile("games", ".rec");
+        try (GameRecordWriter writer = new GameRecordWriter(path)) {
+            GameRecorder recorder = new GameRecorder(writer);
+            try {
+                new HeadlessCountingUpGame(new String[] { "random", "basic", "clever" }, new SplittableRandom(1))
+                        .run(recorder);
+                fail("a game of 3 players should be rejected");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+            try {
+                recorder.gameEnded(new int[GameState.NB_PLAYERS + 1], 1);
+                fail("the scores of 5 players should be rejected");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+        try (GameRecordReader reader = new GameRecordReader(path)) {
+            assertEquals(0, reader.getNbRecords());
+        } finally {
+            Files.delete(path);
+        }
+    }
+}
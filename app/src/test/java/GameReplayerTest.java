@@ -0,0 +1,161 @@
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.SplittableRandom;
+
+public class GameReplayerTest {
+
+    private static final String[] PLAYER_TYPES = { "random", "basic", "clever", "random" };
+
+    private String loadResource(String resource) throws IOException {
+        try (InputStream input = getClass().getClassLoader().getResourceAsStream(resource)) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void testSampleLogIsValid() throws IOException {
+        final Properties properties = PropertiesLoader.loadPropertiesFile("properties/test1.properties");
+        ReplayResult result = new GameReplayer().replayLog(loadResource("sample_test1.log"), properties);
+
+        assertTrue(result.toString(), result.isValid());
+        assertEquals(-79, result.getScore(0));
+        assertEquals(64, result.getScore(1));
+        assertEquals(94, result.getScore(2));
+        assertEquals(-39, result.getScore(3));
+    }
+
+    @Test
+    public void testSamplePropertiesAreValid() {
+        final Properties properties = PropertiesLoader.loadPropertiesFile("properties/test1.properties");
+        ReplayResult result = new GameReplayer().replayProperties(properties);
+
+        assertTrue(result.toString(), result.isValid());
+        assertEquals(94, result.getScore(2));
+    }
+
+    @Test
+    public void testPlayedLogsAreValid() {
+        GameReplayer replayer = new GameReplayer();
+        for (int seed = 0; seed < 200; seed++) {
+            HeadlessCountingUpGame game = new HeadlessCountingUpGame(PLAYER_TYPES, new SplittableRandom(seed));
+            long[] hands = new long[GameState.NB_PLAYERS];
+            StringBuilder log = new StringBuilder();
+            game.run(new CompositeEventSink(new TextGameLog(log), new GameEventSink() {
+                @Override
+                public void gameStarted(long[] dealtHands) {
+                    System.arraycopy(dealtHands, 0, hands, 0, hands.length);
+                }
+            }));
+
+            ReplayResult result = replayer.replayLog(log, hands);
+            assertTrue("Seed " + seed + ": " + result, result.isValid());
+            for (int i = 0; i < GameState.NB_PLAYERS; i++) {
+                assertEquals(game.getScore(i), result.getScore(i));
+            }
+        }
+    }
+
+    @Test
+    public void testTablesOfThreePlayersAreReplayed() throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("nbPlayers", "3");
+        properties.setProperty("players.0", "random");
+        properties.setProperty("players.1", "basic");
+        properties.setProperty("players.2", "clever");
+        GameReplayer replayer = new GameReplayer();
+        for (int seed = 0; seed < 50; seed++) {
+            properties.setProperty("seed", String.valueOf(seed));
+            HeadlessCountingUpGame game = new HeadlessCountingUpGame(properties);
+            StringBuilder log = new StringBuilder();
+            StringBuilder[] moves = { new StringBuilder(), new StringBuilder(), new StringBuilder() };
+            game.run(new CompositeEventSink(new TextGameLog(log), new GameEventSink() {
+                @Override
+                public void cardPlayed(int player, int card) {
+                    moves[player].append(CardBits.toLog(card)).append(',');
+                }
+
+                @Override
+                public void skipped(int player) {
+                    moves[player].append("SKIP,");
+                }
+            }));
+
+            ReplayResult result = replayer.replayLog(log, properties);
+            assertTrue("Seed " + seed + ": " + result, result.isValid());
+            for (int i = 0; i < 3; i++) {
+                assertEquals(game.getScore(i), result.getScore(i));
+                properties.setProperty("players." + i + ".cardsPlayed", moves[i].toString());
+            }
+            result = replayer.replayProperties(properties);
+            assertTrue("Seed " + seed + ": " + result, result.isValid());
+            assertEquals(game.getScore(2), result.getScore(2));
+            for (int i = 0; i < 3; i++) {
+                properties.remove("players." + i + ".cardsPlayed");
+            }
+        }
+
+        // the same replayer goes back to a table of four players
+        ReplayResult result = replayer.replayLog(loadResource("sample_test1.log"),
+                PropertiesLoader.loadPropertiesFile("properties/test1.properties"));
+        assertTrue(result.toString(), result.isValid());
+        assertEquals(-39, result.getScore(3));
+    }
+
+    @Test
+    public void testTamperedLogReportsFirstDivergence() throws IOException {
+        final Properties properties = PropertiesLoader.loadPropertiesFile("properties/test1.properties");
+        String log = loadResource("sample_test1.log");
+        GameReplayer replayer = new GameReplayer();
+
+        // Round 2 ends with the trick going to P2, not P1
+        ReplayResult result = replayer.replayLog(log.replace("Score:0,0,8,40,", "Score:0,8,0,40,"), properties);
+        assertFalse(result.isValid());
+        assertEquals(2, result.getRoundNumber());
+        assertEquals(14, result.getNbTurns());
+
+        // P3 does not hold 5D, which P2 plays in round 5
+        result = replayer.replayLog(log.replace("P2-4D,P3-SKIP,", "P2-4D,P3-5D,"), properties);
+        assertFalse(result.isValid());
+        assertEquals(4, result.getRoundNumber());
+        assertEquals(23, result.getNbTurns());
+        assertTrue(result.getDivergence(), result.getDivergence().contains("P3"));
+
+        result = replayer.replayLog(log.replace("Winners:2", "Winners:1"), properties);
+        assertFalse(result.isValid());
+        assertEquals("wrong winners", result.getDivergence());
+    }
+
+    @Test
+    public void testRecordsAreValid() throws IOException {
+        Path path = Files.createTempFile("games", ".rec");
+        try (GameRecordWriter writer = new GameRecordWriter(path)) {
+            GameRecorder recorder = new GameRecorder(writer);
+            for (int seed = 0; seed < 200; seed++) {
+                recorder.setGameId(seed);
+                new HeadlessCountingUpGame(PLAYER_TYPES, new SplittableRandom(seed)).run(recorder);
+            }
+        }
+
+        try (GameRecordReader reader = new GameRecordReader(path)) {
+            GameReplayer replayer = new GameReplayer();
+            for (long record = 0; record < reader.getNbRecords(); record++) {
+                ReplayResult result = replayer.replayRecord(reader, record);
+                assertTrue("Game " + reader.getGameId(record) + ": " + result, result.isValid());
+                assertEquals(reader.getNbTurns(record), result.getNbTurns());
+                assertEquals(reader.getFinalScore(record, 0), result.getScore(0));
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+}
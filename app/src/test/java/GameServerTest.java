@@ -0,0 +1,187 @@
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class GameServerTest {
+
+    private static final String[] LINEUP = { "human", "clever", "basic", "random" };
+
+    /**
+     * A scripted client of the server, on a blocking socket.
+     */
+    private static class Client implements AutoCloseable {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final PrintWriter out;
+
+        Client(int port) throws IOException {
+            socket = new Socket("localhost", port);
+            socket.setTcpNoDelay(true);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            out = new PrintWriter(socket.getOutputStream(), true);
+        }
+
+        void send(String command) {
+            out.print(command + "\n");
+            out.flush();
+        }
+
+        String[] receive(String type) throws IOException {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] words = line.split(" ");
+                if (words[0].equals(type)) {
+                    return words;
+                }
+                assertTrue(line, !words[0].equals("ERROR"));
+            }
+            throw new IOException("Connection closed while waiting for " + type);
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    // Plays the human seat of a table with the first valid card, as the headless game plays humans
+    private int[] playTable(int port, long seed) throws IOException {
+        try (Client client = new Client(port)) {
+            client.send("NEW " + String.join(",", LINEUP) + " " + seed);
+            String table = client.receive("TABLE")[1];
+            client.send("SIT " + table + " 0");
+            client.receive("SEATED");
+            boolean triedInvalid = false;
+            String line;
+            while ((line = client.in.readLine()) != null) {
+                String[] words = line.split(" ");
+                if (words[0].equals("END")) {
+                    String[] scores = words[2].split(",");
+                    int[] result = new int[scores.length];
+                    for (int i = 0; i < scores.length; i++) {
+                        result[i] = Integer.parseInt(scores[i]);
+                    }
+                    return result;
+                }
+                assertTrue(line, !words[0].equals("ERROR"));
+                if (!words[0].equals("TURN")) {
+                    continue;
+                }
+                if (!triedInvalid) {
+                    // a move which is not a card
+                    client.send("MOVE " + table + " 0 14X");
+                    assertEquals("INVALID", client.receive("INVALID")[0]);
+                    triedInvalid = true;
+                }
+                String move = words[3].equals("-") ? "SKIP" : words[3].split(",")[0];
+                client.send("MOVE " + table + " 0 " + move);
+            }
+            throw new IOException("Connection closed before the end of the game");
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testScriptedHumansPlayTheHeadlessGame() throws Exception {
+        try (GameServer server = new GameServer(0, 2)) {
+            server.start();
+            int port = server.getPort();
+            ExecutorService clients = Executors.newFixedThreadPool(8);
+            try {
+                List<Future<int[]>> results = new ArrayList<>();
+                for (int seed = 0; seed < 40; seed++) {
+                    long gameSeed = seed;
+                    results.add(clients.submit((Callable<int[]>) () -> playTable(port, gameSeed)));
+                }
+                for (int seed = 0; seed < results.size(); seed++) {
+                    HeadlessCountingUpGame game = new HeadlessCountingUpGame(LINEUP, new SplittableRandom(seed));
+                    game.runApp();
+                    int[] scores = results.get(seed).get();
+                    for (int i = 0; i < scores.length; i++) {
+                        assertEquals("seed " + seed, game.getScore(i), scores[i]);
+                    }
+                }
+            } finally {
+                clients.shutdownNow();
+            }
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testIdleTablesHoldNoThread() throws Exception {
+        int nbTables = 1000;
+        try (GameServer server = new GameServer(0, 2); Client client = new Client(server.getPort())) {
+            server.start();
+            int nbThreads = Thread.activeCount();
+            for (int i = 0; i < nbTables; i++) {
+                client.send("NEW clever,human,basic,random");
+                String table = client.receive("TABLE")[1];
+                client.send("SIT " + table + " 1");
+                client.receive("TURN");
+            }
+            // every table waits for its human, on the I/O thread and the bot threads only
+            assertEquals(nbTables, server.getNbTables());
+            assertTrue(Thread.activeCount() <= nbThreads + 2);
+
+            // the seats of a client which leaves are played by the strategy of human players
+            client.send("QUIT");
+            client.receive("BYE");
+            while (server.getNbTables() > 0) {
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    @Test(timeout = 30000)
+    public void testTablesLeftBeforeTheirGameAreClosed() throws Exception {
+        try (GameServer server = new GameServer(0, 2)) {
+            server.start();
+            for (int i = 0; i < 100; i++) {
+                try (Client client = new Client(server.getPort())) {
+                    client.send("NEW human,clever,human,random");
+                    String table = client.receive("TABLE")[1];
+                    if (i % 2 == 0) {
+                        // the connection closes while its seat may still be taken on the bot threads
+                        client.send("SIT " + table + " 0");
+                    }
+                }
+            }
+            // no seat is held by a closed connection, so no table waits for its humans
+            while (server.getNbTables() > 0) {
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testMalformedCommandsAreRejected() throws Exception {
+        try (GameServer server = new GameServer(0, 1); Client client = new Client(server.getPort())) {
+            server.start();
+            for (String command : new String[] { "HELLO", "NEW", "NEW human", "NEW human,a,b,c,d,e,f,g,h",
+                    "SIT 99 0", "SIT x 0", "MOVE 1 0" }) {
+                client.send(command);
+                assertEquals(command, "ERROR", client.in.readLine().split(" ")[0]);
+            }
+            client.send("NEW human,clever,clever,clever");
+            String table = client.receive("TABLE")[1];
+            client.send("SIT " + table + " 1");
+            assertEquals("ERROR", client.in.readLine().split(" ")[0]);
+            client.send("MOVE " + table + " 0 SKIP");
+            assertEquals("INVALID", client.in.readLine().split(" ")[0]);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.SplittableRandom;
+
+public class GameStateTest {
+
+    private void assertTotals(GameState state) {
+        int trickPoints = 0;
+        int trickRankTotal = 0;
+        for (int i = 0; i < state.getTrickSize(); i++) {
+            trickPoints += CardBits.rankOf(state.getTrickCard(i)).getScoreCardValue();
+            trickRankTotal += CardBits.rankValue(state.getTrickCard(i));
+        }
+        assertEquals(trickPoints, state.getTrickPoints());
+        assertEquals(trickRankTotal, state.getTrickRankTotal());
+        for (int i = 0; i < GameState.NB_PLAYERS; i++) {
+            int handScore = 0;
+            for (long rest = state.getHand(i); rest != 0; rest &= rest - 1) {
+                handScore += CardBits.rankOf(Long.numberOfTrailingZeros(rest)).getScoreCardValue();
+            }
+            assertEquals(handScore, state.getHandScore(i));
+        }
+
+        CardTracker cardTracker = state.getCardTracker();
+        int remainingRankTotal = 0;
+        int remainingRanks = 0;
+        for (int rankValue = 1; rankValue <= CardBits.NB_RANKS; rankValue++) {
+            remainingRankTotal += rankValue * cardTracker.getRemainingCount(rankValue);
+            if (cardTracker.getRemainingCount(rankValue) > 0) {
+                remainingRanks |= 1 << rankValue - 1;
+            }
+        }
+        assertEquals(remainingRankTotal, cardTracker.getRemainingRankTotal());
+        assertEquals(remainingRanks, cardTracker.getRemainingRanks());
+    }
+
+    @Test
+    public void testRunningTotalsMatchCards() {
+        Dealer dealer = new Dealer(1);
+        SplittableRandom random = new SplittableRandom(1);
+        GameState state = new GameState();
+        GameState copy = new GameState();
+        for (int gameIndex = 0; gameIndex < 200; gameIndex++) {
+            state.reset();
+            state.dealHands(dealer.deal(gameIndex, TestGames.NO_PRESET, Dealer.DEFAULT_NB_START_CARDS));
+            assertTotals(state);
+
+            while (!state.isGameOver()) {
+                long validCards = CardBits.validCards(state.getCurrentHand(), state.getLastCard());
+                // skip now and then, to end rounds with skips as well as with empty hands
+                int move = validCards == 0 || random.nextInt(4) == 0 && state.getTurnCount() > 0 ? CardBits.NO_CARD
+                        : CardBits.nthCard(validCards, random.nextInt(CardBits.size(validCards)));
+                state.playTurn(move);
+                assertTotals(state);
+                copy.copyFrom(state);
+                assertTotals(copy);
+            }
+
+            // every card has been won in a trick or is left in a hand, which loses its points
+            int wonPoints = 0;
+            int handScores = 0;
+            for (int i = 0; i < GameState.NB_PLAYERS; i++) {
+                wonPoints += state.getScore(i);
+                handScores += state.getHandScore(i);
+            }
+            assertEquals(CardBits.scoreOf(CardBits.ALL_CARDS), wonPoints + handScores);
+            state.endGame();
+            int finalScores = 0;
+            for (int i = 0; i < GameState.NB_PLAYERS; i++) {
+                finalScores += state.getScore(i);
+            }
+            assertEquals(wonPoints - handScores, finalScores);
+        }
+    }
+
+    @Test
+    public void testDealtHandsGiveTheLeadToTheAceOfClubs() {
+        Dealer dealer = new Dealer(2);
+        for (int nbPlayers = GameState.MIN_PLAYERS; nbPlayers <= GameState.MAX_PLAYERS; nbPlayers++) {
+            for (int gameIndex = 0; gameIndex < 50; gameIndex++) {
+                long[] hands = dealer.deal(gameIndex, new long[nbPlayers], Dealer.defaultNbStartCards(nbPlayers));
+                GameState state = new GameState(nbPlayers);
+                state.dealHands(hands);
+                int leader = 0;
+                for (int i = 0; i < nbPlayers; i++) {
+                    assertEquals(hands[i], state.getHand(i));
+                    assertEquals(CardBits.scoreOf(hands[i]), state.getHandScore(i));
+                    if (CardBits.contains(hands[i], CardBits.ACE_OF_CLUBS)) {
+                        leader = i;
+                    }
+                }
+                assertEquals(leader, state.getCurrentPlayer());
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+import java.util.SplittableRandom;
+
+public class HeadlessCountingUpGameTest {
+
+    private String loadResource(String resource) throws IOException {
+        try (InputStream input = getClass().getClassLoader().getResourceAsStream(resource)) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testHeadlessGameMatchesSampleLog() throws IOException {
+        final Properties properties = PropertiesLoader.loadPropertiesFile("properties/test1.properties");
+        HeadlessCountingUpGame game = new HeadlessCountingUpGame(properties);
+        String logResult = game.runApp();
+
+        assertEquals(loadResource("sample_test1.log").trim(), logResult.trim());
+        int[] scores = new int[GameState.NB_PLAYERS];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = game.getScore(i);
+        }
+        assertArrayEquals(new int[] { -79, 64, 94, -39 }, scores);
+    }
+
+    @Test(timeout = 10000)
+    public void testHeadlessGamePlaysValidCards() {
+        final Properties properties = PropertiesLoader.loadPropertiesFile("properties/test2.properties");
+        properties.setProperty("isAuto", "false");
+        properties.setProperty("players.2", "clever");
+        for (int seed = 0; seed < 100; seed++) {
+            assertValidCardsPlayed(new HeadlessCountingUpGame(properties, new SplittableRandom(seed)).runApp());
+        }
+    }
+
+    @Test(timeout = 30000)
+    public void testSearchPlayersPlayValidCards() {
+        String[] playerTypes = { "simulation", "ismcts", "clever", "random" };
+        for (int seed = 0; seed < 10; seed++) {
+            assertValidCardsPlayed(new HeadlessCountingUpGame(playerTypes, new SplittableRandom(seed)).runApp());
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testBotGamesAreReproducible() {
+        String[] playerTypes = { "random", "basic", "clever", "random" };
+        Dealer dealer = new Dealer(1);
+        for (int gameIndex = 0; gameIndex < 100; gameIndex++) {
+            String logResult = new HeadlessCountingUpGame(playerTypes, dealer.gameRandom(gameIndex)).runApp();
+            assertEquals(logResult, new HeadlessCountingUpGame(playerTypes, dealer.gameRandom(gameIndex)).runApp());
+        }
+
+        TournamentRunner runner = new TournamentRunner(playerTypes);
+        assertEquals(runner.run(1000, 1).report(), runner.run(1000, 1).report());
+    }
+
+    @Test(timeout = 30000)
+    public void testTablesOfTwoToEightPlayers() {
+        String[] types = { "random", "basic", "clever", "simulation" };
+        for (int nbPlayers = GameState.MIN_PLAYERS; nbPlayers <= GameState.MAX_PLAYERS; nbPlayers++) {
+            String[] playerTypes = new String[nbPlayers];
+            for (int i = 0; i < nbPlayers; i++) {
+                playerTypes[i] = types[i % types.length];
+            }
+            int nbStartCards = Dealer.defaultNbStartCards(nbPlayers);
+            for (int seed = 0; seed < 20; seed++) {
+                HeadlessCountingUpGame game = new HeadlessCountingUpGame(playerTypes, new SplittableRandom(seed));
+                long[] hands = game.dealHands();
+                long dealtCards = 0;
+                for (long hand : hands) {
+                    assertEquals(nbStartCards, CardBits.size(hand));
+                    dealtCards |= hand;
+                }
+                assertEquals(nbPlayers * nbStartCards, CardBits.size(dealtCards));
+
+                String logResult = new HeadlessCountingUpGame(playerTypes, new SplittableRandom(seed)).runApp();
+                assertValidCardsPlayed(logResult);
+                assertTrue(logResult.contains("Winners:"));
+            }
+        }
+
+        Properties properties = new Properties();
+        properties.setProperty("nbPlayers", "3");
+        properties.setProperty("nbStartCards", "5");
+        for (int i = 0; i < 3; i++) {
+            properties.setProperty("players." + i, "clever");
+        }
+        HeadlessCountingUpGame game = new HeadlessCountingUpGame(properties, new SplittableRandom(1));
+        for (long hand : game.dealHands()) {
+            assertEquals(5, CardBits.size(hand));
+        }
+    }
+
+    @Test
+    public void testTournamentsOfLargeHandsKeepTheirScores() {
+        // player 0 keeps the 26 best cards of the deck and skips while player 1 plays its whole hand,
+        // ending far below the lowest score of a hand of 13 cards
+        Properties properties = new Properties();
+        properties.setProperty("isAuto", "true");
+        properties.setProperty("nbPlayers", "2");
+        properties.setProperty("nbStartCards", "26");
+        StringBuilder bestCards = new StringBuilder();
+        StringBuilder otherCards = new StringBuilder();
+        StringBuilder skips = new StringBuilder();
+        for (int card = 0; card < CardBits.NB_CARDS; card++) {
+            boolean isBest = CardBits.scoreValue(card) >= 9 || card == CardBits.cardId(Suit.CLUBS, Rank.EIGHT)
+                    || card == CardBits.cardId(Suit.DIAMONDS, Rank.EIGHT);
+            (isBest ? bestCards : otherCards).append(CardBits.toLog(card)).append(',');
+            if (isBest) {
+                skips.append("SKIP,");
+            }
+        }
+        properties.setProperty("players.0", "random");
+        properties.setProperty("players.1", "random");
+        properties.setProperty("players.0.initialcards", bestCards.toString());
+        properties.setProperty("players.0.cardsPlayed", skips.toString());
+        properties.setProperty("players.1.cardsPlayed", otherCards.toString());
+        HeadlessCountingUpGame game = new HeadlessCountingUpGame(properties, new SplittableRandom(1));
+        game.runApp();
+        assertEquals(-252, game.getScore(0));
+        assertEquals(124, game.getScore(1));
+
+        TournamentResult result = new TournamentResult(new String[] { "random", "random" }, 26);
+        result.addGame(game);
+        assertEquals(-252, result.getScorePercentile(0, 0));
+        assertEquals(124, result.getScorePercentile(1, 100));
+    }
+
+    @Test
+    public void testTablesTooLargeForTheDeckAreRejected() {
+        assertRejected(new String[] { "random" }, 13);
+        assertRejected(new String[] { "random", "random", "random", "random", "random", "random", "random",
+                "random", "random" }, 5);
+        assertRejected(new String[] { "random", "random", "random", "random", "random" }, 11);
+        assertRejected(new String[] { "random", "random" }, 0);
+    }
+
+    private void assertRejected(String[] playerTypes, int nbStartCards) {
+        try {
+            new HeadlessCountingUpGame(playerTypes, nbStartCards, new SplittableRandom(1));
+            fail(playerTypes.length + " players with " + nbStartCards + " cards should be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    private void assertValidCardsPlayed(String logResult) {
+        for (String line : logResult.split("\n")) {
+            if (!line.startsWith("Round")) {
+                continue;
+            }
+            String previousCard = null;
+            String movementPart = line.substring(line.indexOf(':') + 1, line.indexOf("Score:"));
+            for (String playerSelection : movementPart.split(",")) {
+                String cardString = playerSelection.substring(playerSelection.indexOf('-') + 1);
+                if (cardString.isEmpty() || cardString.equals("SKIP")) {
+                    continue;
+                }
+                if (previousCard != null) {
+                    int previous = CardBits.fromLog(previousCard);
+                    int current = CardBits.fromLog(cardString);
+                    boolean isSameRank = CardBits.rankValue(previous) == CardBits.rankValue(current);
+                    boolean isHigherSameSuit = CardBits.suitIndex(previous) == CardBits.suitIndex(current)
+                            && CardBits.rankValue(previous) < CardBits.rankValue(current);
+                    assertTrue("Invalid card " + cardString + " after " + previousCard, isSameRank || isHigherSameSuit);
+                }
+                previousCard = cardString;
+            }
+        }
+    }
+}
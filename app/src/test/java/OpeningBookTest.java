@@ -0,0 +1,187 @@
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+public class OpeningBookTest {
+
+    private static final int NB_GAMES = 200;
+    private static final long SEED = 1;
+    private static final long SUIT_BITS = (1L << CardBits.NB_RANKS) - 1;
+
+    private GameState newGame(long[] hands) {
+        GameState state = new GameState();
+        state.dealHands(hands);
+        return state;
+    }
+
+    @Test
+    public void testBookPlaysMovesOfExpert() {
+        IPlayStrategy expert = new CleverStrategy();
+        OpeningBook book = OpeningBook.build(expert, NB_GAMES, SEED, OpeningBook.DEFAULT_NB_PLIES);
+        assertTrue(book.size() > 0);
+
+        Dealer dealer = new Dealer(SEED);
+        int nbDecisions = 0;
+        int nbExpertMoves = 0;
+        for (int gameIndex = 0; gameIndex < NB_GAMES; gameIndex++) {
+            GameState state = newGame(dealer.deal(gameIndex, TestGames.NO_PRESET, Dealer.DEFAULT_NB_START_CARDS));
+            while (state.getTurnCount() < book.getNbPlies() && !state.isGameOver()) {
+                int move = expert.selectCard(state);
+                int bookMove = book.lookup(state);
+                assertValid(state, bookMove);
+                nbDecisions++;
+                nbExpertMoves += bookMove == move ? 1 : 0;
+                state.playTurn(move);
+            }
+            if (!state.isGameOver()) {
+                assertEquals(OpeningBook.NOT_IN_BOOK, book.lookup(state));
+            }
+        }
+        // a signature keeps the move the expert chose most often for it
+        assertTrue(nbExpertMoves + " of " + nbDecisions, nbExpertMoves >= 0.9 * nbDecisions);
+    }
+
+    @Test
+    public void testUnseenDealsHitTheBook() {
+        IPlayStrategy expert = new CleverStrategy();
+        OpeningBook book = OpeningBook.build(expert, 10 * NB_GAMES, SEED, OpeningBook.DEFAULT_NB_PLIES);
+        assertHitsUnseenDeals(book, expert, 0.9);
+    }
+
+    @Test
+    public void testDefaultBookIsShipped() {
+        OpeningBook book = OpeningBook.getInstance();
+        assertTrue(book.size() > 0);
+        assertEquals(OpeningBook.DEFAULT_NB_PLIES, book.getNbPlies());
+        assertHitsUnseenDeals(book, new CleverStrategy(), 0.9);
+    }
+
+    // Plays unseen deals with the strategy and checks the share of the decisions which the book has
+    private void assertHitsUnseenDeals(OpeningBook book, IPlayStrategy strategy, double minHitRate) {
+        Dealer dealer = new Dealer(SEED + 1);
+        int nbDecisions = 0;
+        int nbHits = 0;
+        for (int gameIndex = 0; gameIndex < NB_GAMES; gameIndex++) {
+            GameState state = newGame(dealer.deal(gameIndex, TestGames.NO_PRESET, Dealer.DEFAULT_NB_START_CARDS));
+            while (state.getTurnCount() < book.getNbPlies() && !state.isGameOver()) {
+                int bookMove = book.lookup(state);
+                nbDecisions++;
+                if (bookMove != OpeningBook.NOT_IN_BOOK) {
+                    assertValid(state, bookMove);
+                    nbHits++;
+                }
+                state.playTurn(strategy.selectCard(state));
+            }
+        }
+        assertTrue(nbHits + " hits in " + nbDecisions + " decisions", nbHits >= minHitRate * nbDecisions);
+    }
+
+    private void assertValid(GameState state, int move) {
+        assertTrue(move == IPlayStrategy.NO_MOVE
+                || CardBits.contains(CardBits.validCards(state.getCurrentHand(), state.getLastCard()), move));
+    }
+
+    @Test
+    public void testDealsWithRenamedSuitsShareEntries() {
+        IPlayStrategy expert = new CleverStrategy();
+        Dealer dealer = new Dealer(SEED);
+        for (int gameIndex = 0; gameIndex < NB_GAMES; gameIndex++) {
+            long[] hands = dealer.deal(gameIndex, TestGames.NO_PRESET, Dealer.DEFAULT_NB_START_CARDS);
+            long[] renamedHands = new long[hands.length];
+            for (int i = 0; i < hands.length; i++) {
+                renamedHands[i] = swapSpadesAndHearts(hands[i]);
+            }
+
+            OpeningBook.Builder builder = new OpeningBook.Builder(OpeningBook.DEFAULT_NB_PLIES);
+            GameState state = newGame(hands);
+            int[] moves = new int[OpeningBook.DEFAULT_NB_PLIES];
+            for (int turn = 0; turn < moves.length; turn++) {
+                moves[turn] = expert.selectCard(state);
+                builder.add(state, moves[turn]);
+                state.playTurn(moves[turn]);
+            }
+            OpeningBook book = builder.build();
+
+            GameState renamedState = newGame(renamedHands);
+            for (int move : moves) {
+                int renamedMove = move == IPlayStrategy.NO_MOVE ? move
+                        : Long.numberOfTrailingZeros(swapSpadesAndHearts(CardBits.bit(move)));
+                int bookMove = book.lookup(renamedState);
+                assertValid(renamedState, bookMove);
+                if (bookMove != renamedMove) {
+                    // the signature ignores the suits, so only a card of the same rank is as good
+                    assertTrue(bookMove != IPlayStrategy.NO_MOVE && renamedMove != IPlayStrategy.NO_MOVE);
+                    assertEquals(CardBits.rankValue(renamedMove), CardBits.rankValue(bookMove));
+                }
+                renamedState.playTurn(renamedMove);
+            }
+        }
+    }
+
+    private long swapSpadesAndHearts(long cards) {
+        int spades = Suit.SPADES.ordinal() * CardBits.NB_RANKS;
+        int hearts = Suit.HEARTS.ordinal() * CardBits.NB_RANKS;
+        long others = cards & ~(SUIT_BITS << spades) & ~(SUIT_BITS << hearts);
+        return others | (cards >>> spades & SUIT_BITS) << hearts | (cards >>> hearts & SUIT_BITS) << spades;
+    }
+
+    @Test
+    public void testBookIsSavedAndLoaded() throws IOException {
+        OpeningBook book = OpeningBook.build(new CleverStrategy(), NB_GAMES, SEED, OpeningBook.DEFAULT_NB_PLIES);
+        Path path = Files.createTempFile("opening", ".book");
+        try {
+            book.save(path);
+            OpeningBook loadedBook = OpeningBook.load(path);
+            assertEquals(book.size(), loadedBook.size());
+            assertEquals(book.getNbPlies(), loadedBook.getNbPlies());
+
+            Dealer dealer = new Dealer(SEED);
+            for (int gameIndex = 0; gameIndex < NB_GAMES; gameIndex++) {
+                GameState state = newGame(dealer.deal(gameIndex, TestGames.NO_PRESET, Dealer.DEFAULT_NB_START_CARDS));
+                while (state.getTurnCount() < book.getNbPlies() && !state.isGameOver()) {
+                    int move = book.lookup(state);
+                    assertEquals(move, loadedBook.lookup(state));
+                    state.playTurn(move);
+                }
+            }
+
+            Files.write(path, new byte[] { 1, 2, 3 });
+            try {
+                OpeningBook.load(path);
+                fail("A file which is not a book must not load");
+            } catch (IOException e) {
+                // expected
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test(timeout = 5000)
+    public void testSearchStrategySkipsSearchInBook() {
+        OpeningBook book = OpeningBook.build(new CleverStrategy(), NB_GAMES, SEED, OpeningBook.DEFAULT_NB_PLIES);
+        // budgets far beyond the timeout of the test
+        SimulationStrategy simulation = new SimulationStrategy(1 << 30, 60_000, ForkJoinPool.commonPool(), 0);
+        simulation.setOpeningBook(book);
+        IsmctsStrategy ismcts = new IsmctsStrategy(1 << 30, 60_000, 0);
+        ismcts.setOpeningBook(book);
+
+        Dealer dealer = new Dealer(SEED);
+        for (int gameIndex = 0; gameIndex < 20; gameIndex++) {
+            GameState state = newGame(dealer.deal(gameIndex, TestGames.NO_PRESET, Dealer.DEFAULT_NB_START_CARDS));
+            while (state.getTurnCount() < book.getNbPlies() && !state.isGameOver()) {
+                int move = book.lookup(state);
+                assertEquals(move, simulation.selectCard(state));
+                assertEquals(move, ismcts.selectCard(state));
+                state.playTurn(move);
+            }
+        }
+    }
+}
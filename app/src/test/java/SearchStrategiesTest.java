@@ -0,0 +1,192 @@
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeFalse;
+
+import java.awt.GraphicsEnvironment;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import ch.aplu.jcardgame.Card;
+import ch.aplu.jcardgame.Deck;
+import ch.aplu.jcardgame.Hand;
+
+public class SearchStrategiesTest {
+
+    private static final long NO_TIME_LIMIT_MILLIS = 60_000;
+
+    private static SimulationStrategy simulation(int nbSamples, long timeBudgetMillis, long seed) {
+        SimulationStrategy strategy = new SimulationStrategy(nbSamples, timeBudgetMillis, ForkJoinPool.commonPool(),
+                EndgameSolver.DEFAULT_CARD_THRESHOLD, new SplittableRandom(seed));
+        strategy.setOpeningBook(OpeningBook.EMPTY);
+        return strategy;
+    }
+
+    private static IsmctsStrategy ismcts(int nbIterations, long timeBudgetMillis, long seed) {
+        IsmctsStrategy strategy = new IsmctsStrategy(nbIterations, timeBudgetMillis,
+                EndgameSolver.DEFAULT_CARD_THRESHOLD, new SplittableRandom(seed));
+        strategy.setOpeningBook(OpeningBook.EMPTY);
+        return strategy;
+    }
+
+    // States of random games at any turn, the players playing random valid cards
+    private static GameState[] deal(int nbStates) {
+        return TestGames.randomStates(11, nbStates, 40);
+    }
+
+    // Player 0 holds only the King of Hearts, which beats the Queen just led and ends the game with the trick,
+    // while skipping ends the round and lets player 1 lead its last card, ending the game with the King in hand
+    private static GameState forcedWin() {
+        GameState state = new GameState();
+        int kingOfHearts = CardBits.cardId(Suit.HEARTS, Rank.KING);
+        int queenOfHearts = CardBits.cardId(Suit.HEARTS, Rank.QUEEN);
+        int twoOfSpades = CardBits.cardId(Suit.SPADES, Rank.TWO);
+        state.deal(0, kingOfHearts);
+        state.deal(1, queenOfHearts);
+        state.deal(1, twoOfSpades);
+        int player = 2;
+        for (int card = 0; card < CardBits.NB_CARDS; card++) {
+            if (card != kingOfHearts && card != queenOfHearts && card != twoOfSpades) {
+                state.deal(player, card);
+                player = player == 3 ? 2 : 3;
+            }
+        }
+        state.setCurrentPlayer(1);
+        state.playTurn(queenOfHearts);
+        state.playTurn(CardBits.NO_CARD);
+        state.playTurn(CardBits.NO_CARD);
+        return state;
+    }
+
+    @Test(timeout = 30000)
+    public void testForcedWinningCardIsTaken() {
+        GameState state = forcedWin();
+        assertEquals(0, state.getCurrentPlayer());
+        int kingOfHearts = CardBits.cardId(Suit.HEARTS, Rank.KING);
+        for (long seed = 0; seed < 5; seed++) {
+            assertEquals(kingOfHearts, simulation(64, NO_TIME_LIMIT_MILLIS, seed).selectCard(state));
+            assertEquals(kingOfHearts, ismcts(500, NO_TIME_LIMIT_MILLIS, seed).selectCard(state));
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testSeededSearchesAreReproducible() {
+        GameState[] states = deal(30);
+        IPlayStrategy[][] pairs = {
+                { simulation(64, NO_TIME_LIMIT_MILLIS, 3), simulation(64, NO_TIME_LIMIT_MILLIS, 3) },
+                { ismcts(300, NO_TIME_LIMIT_MILLIS, 3), ismcts(300, NO_TIME_LIMIT_MILLIS, 3) },
+        };
+        for (IPlayStrategy[] pair : pairs) {
+            for (GameState state : states) {
+                int card = pair[0].selectCard(state);
+                assertEquals(card, pair[1].selectCard(state));
+                assertTrue(card == IPlayStrategy.NO_MOVE
+                        || CardBits.contains(CardBits.validCards(state.getCurrentHand(), state.getLastCard()), card));
+            }
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testKeptTreesOnlyPickValidMoves() {
+        // one state object played through several games, as the games play it, so that the tree is kept
+        // between the decisions of a game and must be dropped when the state is reset for the next one
+        IsmctsStrategy strategy = ismcts(200, NO_TIME_LIMIT_MILLIS, 5);
+        Dealer dealer = new Dealer(13);
+        SplittableRandom random = new SplittableRandom(13);
+        GameState state = new GameState();
+        int nbDecisions = 0;
+        for (int game = 0; game < 4; game++) {
+            state.reset();
+            state.dealHands(dealer.deal(random.nextInt(), TestGames.NO_PRESET, Dealer.DEFAULT_NB_START_CARDS));
+            while (!state.isGameOver()) {
+                long validCards = CardBits.validCards(state.getCurrentHand(), state.getLastCard());
+                int card;
+                if (state.getCurrentPlayer() == 0) {
+                    card = strategy.selectCard(state);
+                    nbDecisions++;
+                    assertTrue(card == IPlayStrategy.NO_MOVE || CardBits.contains(validCards, card));
+                } else {
+                    card = validCards == 0 ? CardBits.NO_CARD
+                            : CardBits.nthCard(validCards, random.nextInt(CardBits.size(validCards)));
+                }
+                state.playTurn(card);
+            }
+        }
+        assertTrue(nbDecisions > 20);
+    }
+
+    @Test(timeout = 60000)
+    public void testSearchesStopAtTheirBudget() {
+        GameState[] states = deal(20);
+        // a small budget of samples or iterations decides long before the time budget
+        IPlayStrategy[] smallBudgets = { simulation(8, NO_TIME_LIMIT_MILLIS, 1), ismcts(50, NO_TIME_LIMIT_MILLIS, 1) };
+        // a time budget stops a search whose budget of samples or iterations would last minutes
+        IPlayStrategy[] timeBudgets = { simulation(1 << 24, 20, 1), ismcts(1 << 24, 20, 1) };
+        for (IPlayStrategy[] strategies : new IPlayStrategy[][] { smallBudgets, timeBudgets }) {
+            for (IPlayStrategy strategy : strategies) {
+                long startTime = System.nanoTime();
+                for (GameState state : states) {
+                    strategy.selectCard(state);
+                }
+                long meanMillis = (System.nanoTime() - startTime) / 1_000_000 / states.length;
+                assertTrue(meanMillis + " ms", meanMillis < 200);
+            }
+        }
+    }
+
+    // The trick of a state, in the order its cards were played
+    private static int[] trick(GameState state) {
+        int[] trick = new int[state.getTrickSize()];
+        for (int i = 0; i < trick.length; i++) {
+            trick[i] = state.getTrickCard(i);
+        }
+        return trick;
+    }
+
+    @Test(timeout = 60000)
+    public void testHandStatesNeverDealPlayedCards() {
+        SplittableRandom random = new SplittableRandom(17);
+        GameState sample = new GameState();
+        for (GameState game : deal(30)) {
+            // the tracker of the Hand-based API knows the cards of the previous rounds and of the trick
+            CardTracker cardTracker = new CardTracker();
+            cardTracker.copyFrom(game.getCardTracker());
+            GameState state = GameState.forHand(game.getCurrentHand(), trick(game), cardTracker);
+            assertEquals(game.getPlayedCards(), state.getPlayedCards());
+
+            Determinizer determinizer = new Determinizer(state);
+            for (int i = 0; i < 20; i++) {
+                determinizer.deal(sample, random);
+                for (int player = 1; player < GameState.NB_PLAYERS; player++) {
+                    assertEquals(0, sample.getHand(player) & (state.getPlayedCards() | state.getCurrentHand()));
+                }
+            }
+        }
+    }
+
+    @Test(timeout = 30000)
+    public void testHandApiPlaysValidCards() {
+        assumeFalse("the cards of jcardgame need a display", GraphicsEnvironment.isHeadless());
+        Deck deck = new Deck(Suit.values(), Rank.values(), "cover");
+        SimulationStrategy strategy = simulation(64, NO_TIME_LIMIT_MILLIS, 1);
+        for (GameState game : deal(10)) {
+            Hand hand = new Hand(deck);
+            for (long cards = game.getCurrentHand(); cards != 0; cards &= cards - 1) {
+                int card = Long.numberOfTrailingZeros(cards);
+                hand.insert(CardBits.suitOf(card), CardBits.rankOf(card), false);
+            }
+            ArrayList<Card> playedCards = new ArrayList<>();
+            for (int card : trick(game)) {
+                playedCards.add(new Card(deck, CardBits.suitOf(card), CardBits.rankOf(card)));
+            }
+            CardTracker cardTracker = new CardTracker();
+            cardTracker.copyFrom(game.getCardTracker());
+
+            ArrayList<Card> selected = strategy.getCardsToPlay(hand, playedCards, cardTracker);
+            long validCards = CardBits.validCards(game.getCurrentHand(), game.getLastCard());
+            assertTrue(selected.isEmpty() || CardBits.contains(validCards, CardBits.cardId(selected.get(0))));
+        }
+    }
+}
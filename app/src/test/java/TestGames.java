@@ -0,0 +1,43 @@
+import java.util.SplittableRandom;
+
+/**
+ * Deals and game states shared by the tests.
+ */
+final class TestGames {
+
+    /** Presets no card in any hand, so that the dealer deals every hand at random. */
+    static final long[] NO_PRESET = new long[GameState.NB_PLAYERS];
+
+    private TestGames() {
+
+    }
+
+    /**
+     * Generates states of random games of four players, the players playing random valid cards for a random
+     * number of turns. The game is not over in any state, so the current player has a decision to make.
+     *
+     * @param seed The seed of the deals and of the plays.
+     * @param nbStates The number of states to generate.
+     * @param maxTurns The bound of the number of turns played in each game, exclusive.
+     * @return The game states.
+     */
+    static GameState[] randomStates(long seed, int nbStates, int maxTurns) {
+        Dealer dealer = new Dealer(seed);
+        SplittableRandom random = new SplittableRandom(seed);
+        GameState[] states = new GameState[nbStates];
+        for (int i = 0; i < nbStates; i++) {
+            GameState state = new GameState();
+            do {
+                state.reset();
+                state.dealHands(dealer.deal(random.nextInt(), NO_PRESET, Dealer.DEFAULT_NB_START_CARDS));
+                for (int turn = random.nextInt(maxTurns); turn > 0 && !state.isGameOver(); turn--) {
+                    long validCards = CardBits.validCards(state.getCurrentHand(), state.getLastCard());
+                    state.playTurn(validCards == 0 ? CardBits.NO_CARD
+                            : CardBits.nthCard(validCards, random.nextInt(CardBits.size(validCards))));
+                }
+            } while (state.isGameOver());
+            states[i] = state;
+        }
+        return states;
+    }
+}